@@ -46,6 +46,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jenkins.ExtensionComponentSet;
+import jenkins.jfr.ExtensionListLoadEvent;
 import jenkins.model.Jenkins;
 import jenkins.util.io.OnMaster;
 
@@ -315,11 +316,18 @@ public class ExtensionList<T> extends AbstractList<T> implements OnMaster {
         if (jenkins == null || jenkins.getInitLevel().compareTo(InitMilestone.PLUGINS_PREPARED) < 0)
             return legacyInstances; // can't perform the auto discovery until all plugins are loaded, so just make the legacy instances visible
 
+        ExtensionListLoadEvent event = new ExtensionListLoadEvent();
+        event.begin();
         synchronized (getLoadLock()) {
             if (extensions == null) {
                 List<ExtensionComponent<T>> r = load();
                 r.addAll(legacyInstances);
                 extensions = sort(r);
+                if (event.shouldCommit()) {
+                    event.extensionType = extensionType;
+                    event.count = extensions.size();
+                    event.commit();
+                }
             }
             return extensions;
         }
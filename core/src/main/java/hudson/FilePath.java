@@ -125,6 +125,9 @@ import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import jenkins.MasterToSlaveFileCallable;
 import jenkins.SlaveToMasterFileCallable;
+import jenkins.jfr.RemoteCallEvent;
+import jenkins.metrics.Histogram;
+import jenkins.metrics.MetricsRegistry;
 import jenkins.model.Jenkins;
 import jenkins.security.MasterToSlaveCallable;
 import jenkins.util.ContextResettingExecutorService;
@@ -1225,7 +1228,14 @@ public final class FilePath implements SerializableOnlyOverRemoting {
                 for (FileCallableWrapperFactory factory : ExtensionList.lookup(FileCallableWrapperFactory.class)) {
                     wrapper = factory.wrap(wrapper);
                 }
-                return channel.call(wrapper);
+                RemoteCallEvent event = new RemoteCallEvent();
+                event.begin();
+                long start = System.nanoTime();
+                try {
+                    return channel.call(wrapper);
+                } finally {
+                    commit(event, start, callable.getClass());
+                }
             } catch (TunneledInterruptedException e) {
                 throw (InterruptedException) new InterruptedException(e.getMessage()).initCause(e);
             }
@@ -1316,13 +1326,30 @@ public final class FilePath implements SerializableOnlyOverRemoting {
     public <V, E extends Throwable> V act(Callable<V, E> callable) throws IOException, InterruptedException, E {
         if (channel != null) {
             // run this on a remote system
-            return channel.call(callable);
+            RemoteCallEvent event = new RemoteCallEvent();
+            event.begin();
+            long start = System.nanoTime();
+            try {
+                return channel.call(callable);
+            } finally {
+                commit(event, start, callable.getClass());
+            }
         } else {
             // the file is on the local machine
             return callable.call();
         }
     }
 
+    private void commit(RemoteCallEvent event, long start, Class<?> callable) {
+        REMOTE_CALL_SECONDS.observeNanos(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.node = channel.toString();
+            event.path = remote;
+            event.callable = callable;
+            event.commit();
+        }
+    }
+
     /**
      * Takes a {@link FilePath}+{@link FileCallable} pair and returns the equivalent {@link Callable}.
      * When executing the resulting {@link Callable}, it executes {@link FileCallable#act(FileCallable)}
@@ -3588,6 +3615,9 @@ public final class FilePath implements SerializableOnlyOverRemoting {
 
     private static final Logger LOGGER = Logger.getLogger(FilePath.class.getName());
 
+    private static final Histogram REMOTE_CALL_SECONDS = MetricsRegistry.get().histogram(
+            "jenkins_remote_call_seconds", "Duration of the file operations run on agents");
+
     /**
      * Adapts {@link FileCallable} to {@link Callable}.
      */
@@ -56,6 +56,10 @@ import java.util.logging.Logger;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import jenkins.jfr.XmlFileReadEvent;
+import jenkins.jfr.XmlFileWriteEvent;
+import jenkins.metrics.Histogram;
+import jenkins.metrics.MetricsRegistry;
 import org.apache.commons.io.IOUtils;
 import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
@@ -161,8 +165,13 @@ public final class XmlFile {
         if (LOGGER.isLoggable(Level.FINE)) {
             LOGGER.fine("Reading " + file);
         }
+        XmlFileReadEvent event = new XmlFileReadEvent();
+        event.begin();
+        long start = System.nanoTime();
         try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
-            return xs.fromXML(in);
+            Object o = xs.fromXML(in);
+            commit(event, start, o);
+            return o;
         } catch (RuntimeException | Error e) {
             throw new IOException("Unable to read " + file, e);
         }
@@ -188,22 +197,41 @@ public final class XmlFile {
     }
 
     private Object unmarshal(Object o, boolean nullOut) throws IOException {
+        XmlFileReadEvent event = new XmlFileReadEvent();
+        event.begin();
+        long start = System.nanoTime();
         try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            Object r;
             // TODO: expose XStream the driver from XStream
             if (nullOut) {
-                return ((XStream2) xs).unmarshal(DEFAULT_DRIVER.createReader(in), o, null, true);
+                r = ((XStream2) xs).unmarshal(DEFAULT_DRIVER.createReader(in), o, null, true);
             } else {
-                return xs.unmarshal(DEFAULT_DRIVER.createReader(in), o);
+                r = xs.unmarshal(DEFAULT_DRIVER.createReader(in), o);
             }
+            commit(event, start, r);
+            return r;
         } catch (RuntimeException | Error e) {
             throw new IOException("Unable to read " + file, e);
         }
     }
 
+    private void commit(XmlFileReadEvent event, long start, Object o) {
+        READ_SECONDS.observeNanos(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.path = file.getPath();
+            event.bytes = file.length();
+            event.type = o == null ? null : o.getClass();
+            event.commit();
+        }
+    }
+
     public void write(Object o) throws IOException {
         if (LOGGER.isLoggable(Level.FINEST)) {
             LOGGER.log(Level.FINEST, new Throwable(), () -> "Writing " + file);
         }
+        XmlFileWriteEvent event = new XmlFileWriteEvent();
+        event.begin();
+        long start = System.nanoTime();
         mkdirs();
         AtomicFileWriter w = force
                 ? new AtomicFileWriter(file)
@@ -224,6 +252,13 @@ public final class XmlFile {
         } finally {
             w.abort();
         }
+        WRITE_SECONDS.observeNanos(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.path = file.getPath();
+            event.bytes = file.length();
+            event.type = o.getClass();
+            event.commit();
+        }
     }
 
     /**
@@ -382,6 +417,11 @@ public final class XmlFile {
 
     private static final Logger LOGGER = Logger.getLogger(XmlFile.class.getName());
 
+    private static final Histogram READ_SECONDS = MetricsRegistry.get().histogram(
+            "jenkins_xml_file_read_seconds", "Duration of the reads of XML configuration and build record files");
+    private static final Histogram WRITE_SECONDS = MetricsRegistry.get().histogram(
+            "jenkins_xml_file_write_seconds", "Duration of the writes of XML configuration and build record files");
+
     private static final HierarchicalStreamDriver DEFAULT_DRIVER = XStream2.getDefaultDriver();
 
     private static final XStream DEFAULT_XSTREAM = new XStream2(DEFAULT_DRIVER);
@@ -508,7 +508,12 @@ public abstract class AbstractBuild<P extends AbstractProject<P, R>, R extends A
                     listener.getLogger().print(Messages.AbstractBuild_Building());
                 }
 
+                long leaseStart = System.currentTimeMillis();
                 lease = decideWorkspace(node, Computer.currentComputer().getWorkspaceList());
+                Executor executor = getExecutor();
+                if (executor != null && executor.getStartTrace() != null) {
+                    executor.getStartTrace().onWorkspace(System.currentTimeMillis() - leaseStart);
+                }
 
                 workspace = lease.path.getRemote();
                 listener.getLogger().println(Messages.AbstractBuild_BuildingInWorkspace(workspace));
@@ -33,6 +33,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.security.AccessControlled;
 import hudson.slaves.ComputerListener;
 import hudson.slaves.RetentionStrategy;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -278,4 +279,68 @@ public abstract class AbstractCIBase extends Node implements ItemGroup<TopLevelI
         Listeners.notify(ComputerListener.class, false, ComputerListener::onConfigurationChange);
     }
 
+    /**
+     * Updates the {@link Computer}s of the given nodes only.
+     *
+     * <p>
+     * Unlike {@link #updateComputerList(boolean)}, which reconciles every node with its computer,
+     * this only creates, reuses or shuts down the computers of the nodes which actually changed,
+     * plus any computer whose node is already gone.
+     *
+     * @param updated nodes which were added or whose configuration changed
+     * @param removed nodes which were removed; their computers are shut down unless a node of the same name is in {@code updated}
+     * @since TODO
+     */
+    protected void updateComputers(@NonNull Collection<? extends Node> updated, @NonNull Collection<? extends Node> removed, final boolean automaticAgentLaunch) {
+        final ConcurrentMap<Node, Computer> computers = getComputerMap();
+        final Set<Computer> dead = new HashSet<>();
+        Queue.withLock(new Runnable() {
+            @Override
+            public void run() {
+                Set<String> updatedNames = new HashSet<>();
+                for (Node n : updated) {
+                    updatedNames.add(n.getNodeName());
+                }
+                for (Node n : removed) {
+                    if (!updatedNames.contains(n.getNodeName())) {
+                        // the node is usually no longer registered, so c.getNode() would not find it
+                        Computer c = computers.get(n);
+                        if (c != null) {
+                            dead.add(c);
+                        }
+                    }
+                }
+
+                Map<String, Computer> byName = new HashMap<>();
+                for (Computer c : computers.values()) {
+                    Node node = c.getNode();
+                    if (node == null) {
+                        // this computer is gone, such as one keyed by an older instance of a removed node
+                        dead.add(c);
+                        continue;
+                    }
+                    String name = node.getNodeName();
+                    if (updatedNames.contains(name)) {
+                        byName.put(name, c);
+                    }
+                }
+
+                Set<Computer> used = new HashSet<>();
+                for (Node n : updated) {
+                    updateComputer(n, byName, used, automaticAgentLaunch);
+                }
+
+                // as in updateComputerList, only start reducing the executors while holding the lock
+                for (Computer c : dead) {
+                    c.inflictMortalWound();
+                }
+            }
+        });
+        for (Computer c : dead) {
+            killComputer(c);
+        }
+        getQueue().scheduleMaintenance();
+        Listeners.notify(ComputerListener.class, false, ComputerListener::onConfigurationChange);
+    }
+
 }
@@ -742,7 +742,7 @@ public abstract class AbstractItem extends Actionable implements Loadable, Item,
             }
         }
         getParent().onDeleted(AbstractItem.this);
-        Jenkins.get().rebuildDependencyGraphAsync();
+        Jenkins.get().rebuildDependencyGraphAsync(this);
     }
 
     /**
@@ -845,7 +845,7 @@ public abstract class AbstractItem extends Actionable implements Loadable, Item,
                     return null;
                 }
             });
-            Jenkins.get().rebuildDependencyGraphAsync();
+            Jenkins.get().rebuildDependencyGraphAsync(this);
 
             // if everything went well, commit this new version
             out.commit();
@@ -884,7 +884,7 @@ public abstract class AbstractItem extends Actionable implements Loadable, Item,
                 return null;
             }
         });
-        Jenkins.get().rebuildDependencyGraphAsync();
+        Jenkins.get().rebuildDependencyGraphAsync(this);
     }
 
 
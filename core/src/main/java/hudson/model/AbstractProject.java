@@ -778,7 +778,7 @@ public abstract class AbstractProject<P extends AbstractProject<P, R>, R extends
         Jenkins.get().getQueue().scheduleMaintenance();
 
         // this is to reflect the upstream build adjustments done above
-        Jenkins.get().rebuildDependencyGraphAsync();
+        Jenkins.get().rebuildDependencyGraphAsync(this);
     }
 
     /**
@@ -100,12 +100,16 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.servlet.ServletException;
+import jenkins.agents.RemotingLane;
 import jenkins.model.Jenkins;
 import jenkins.security.ImpersonatingExecutorService;
 import jenkins.security.MasterToSlaveCallable;
@@ -114,6 +118,7 @@ import jenkins.util.ContextResettingExecutorService;
 import jenkins.util.ErrorLoggingExecutorService;
 import jenkins.util.Listeners;
 import jenkins.util.SystemProperties;
+import jenkins.util.VirtualThreads;
 import jenkins.widgets.HasWidgets;
 import net.jcip.annotations.GuardedBy;
 import org.jenkins.ui.icon.Icon;
@@ -208,6 +213,13 @@ public /*transient*/ abstract class Computer extends Actionable implements Acces
 
     protected final Object statusChangeLock = new Object();
 
+    /**
+     * Used by {@link #waitUntilOnline()} and {@link #waitUntilOffline()} instead of waiting on {@link #statusChangeLock},
+     * since waiting while holding a monitor pins virtual threads to their carrier thread.
+     */
+    private final ReentrantLock statusChangeWaitLock = new ReentrantLock();
+    private final Condition statusChanged = statusChangeWaitLock.newCondition();
+
     private final Object logDirLock = new Object();
 
     /**
@@ -717,9 +729,7 @@ public /*transient*/ abstract class Computer extends Actionable implements Acces
         if (node != null) {
             node.setTemporaryOfflineCause(offlineCause);
         }
-        synchronized (statusChangeLock) {
-            statusChangeLock.notifyAll();
-        }
+        fireStatusChanged();
         if (temporarilyOffline) {
             Listeners.notify(ComputerListener.class, false, l -> l.onTemporarilyOffline(this, cause));
         } else {
@@ -1107,7 +1117,7 @@ public /*transient*/ abstract class Computer extends Actionable implements Acces
         };
         if (!Queue.tryWithLock(task)) {
             // JENKINS-28840 if we couldn't get the lock push the operation to a separate thread to avoid deadlocks
-            threadPoolForRemoting.submit(Queue.wrapWithLock(task));
+            RemotingLane.MISC.executor().submit(Queue.wrapWithLock(task));
         }
     }
 
@@ -1375,13 +1385,18 @@ public /*transient*/ abstract class Computer extends Actionable implements Acces
         private static final long serialVersionUID = 1L;
     }
 
+    /**
+     * Unbounded executor running remoting channels and other long-lived agent communication.
+     * Short background tasks related to agents should rather use one of the {@link RemotingLane}s,
+     * which can be bounded.
+     */
     public static final ExecutorService threadPoolForRemoting = new ContextResettingExecutorService(
         new ImpersonatingExecutorService(
             new ErrorLoggingExecutorService(
                 Executors.newCachedThreadPool(
                     new ExceptionCatchingThreadFactory(
                         new NamingThreadFactory(
-                            new ClassLoaderSanityThreadFactory(new DaemonThreadFactory()),
+                            new ClassLoaderSanityThreadFactory(new DaemonThreadFactory(VirtualThreads.baseThreadFactory())),
                             "Computer.threadPoolForRemoting")))),
             ACL.SYSTEM2));
 
@@ -1610,16 +1625,39 @@ public /*transient*/ abstract class Computer extends Actionable implements Acces
      * Blocks until the node becomes online/offline.
      */
     public void waitUntilOnline() throws InterruptedException {
-        synchronized (statusChangeLock) {
+        statusChangeWaitLock.lock();
+        try {
             while (!isOnline())
-                statusChangeLock.wait(1000);
+                statusChanged.await(1, TimeUnit.SECONDS);
+        } finally {
+            statusChangeWaitLock.unlock();
         }
     }
 
     public void waitUntilOffline() throws InterruptedException {
-        synchronized (statusChangeLock) {
+        statusChangeWaitLock.lock();
+        try {
             while (!isOffline())
-                statusChangeLock.wait(1000);
+                statusChanged.await(1, TimeUnit.SECONDS);
+        } finally {
+            statusChangeWaitLock.unlock();
+        }
+    }
+
+    /**
+     * Wakes up the threads waiting for this computer to go online or offline.
+     * Subclasses which still notify {@link #statusChangeLock} directly are noticed within a second.
+     */
+    @Restricted(NoExternalUse.class)
+    protected final void fireStatusChanged() {
+        synchronized (statusChangeLock) {
+            statusChangeLock.notifyAll();
+        }
+        statusChangeWaitLock.lock();
+        try {
+            statusChanged.signalAll();
+        } finally {
+            statusChangeWaitLock.unlock();
         }
     }
 
@@ -25,23 +25,44 @@
 
 package hudson.model;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.security.ACL;
 import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import jenkins.model.DependencyDeclarer;
 import jenkins.model.Jenkins;
+import jenkins.security.ImpersonatingExecutorService;
 import jenkins.util.DirectedGraph;
 import jenkins.util.DirectedGraph.SCC;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 /**
  * Maintains the build dependencies between {@link AbstractProject}s
@@ -61,6 +82,13 @@ import jenkins.util.DirectedGraph.SCC;
  * there's a change (which is relatively rare), a new instance
  * will be created. This eliminates the need of synchronization.
  *
+ * <p>
+ * The dependencies declared by each project are remembered, so that a new instance can be created from the previous one
+ * by only asking the projects which changed to declare their dependencies again, when {@link #INCREMENTAL}.
+ * The projects are numbered in topological order to keep the edges in arrays, and transitive dependencies are cached
+ * as bit sets of these numbers; cached transitive dependencies which cannot be affected by the changed edges are kept
+ * by the new instance.
+ *
  * @see Jenkins#getDependencyGraph()
  * @author Kohsuke Kawaguchi
  */
@@ -76,6 +104,27 @@ public class DependencyGraph implements Comparator<AbstractProject> {
     private Comparator<AbstractProject<?, ?>> topologicalOrder;
     private List<AbstractProject<?, ?>> topologicallySorted;
 
+    /**
+     * The dependencies declared by each project, in the order the projects were asked to declare them.
+     * Null unless built by {@link #build()} or {@link #update(Collection)}.
+     */
+    private Map<AbstractProject, List<Dependency>> declared;
+
+    /**
+     * Collects the dependencies declared by the project being asked on the current thread.
+     */
+    private final ThreadLocal<List<Dependency>> declaring = new ThreadLocal<>();
+
+    /**
+     * The number of each project, which is its topological order.
+     */
+    private Map<AbstractProject, Integer> ids;
+    private int[][] downstreamIds;
+    private int[][] upstreamIds;
+
+    private final Map<AbstractProject, BitSet> transitiveUpstream = new ConcurrentHashMap<>();
+    private final Map<AbstractProject, BitSet> transitiveDownstream = new ConcurrentHashMap<>();
+
     /**
      * Builds the dependency graph.
      */
@@ -85,16 +134,219 @@ public class DependencyGraph implements Comparator<AbstractProject> {
     public void build() {
         // Set full privileges while computing to avoid missing any projects the current user cannot see.
         try (ACLContext ctx = ACL.as2(ACL.SYSTEM2)) {
-            this.computationalData = new HashMap<>();
-            for (AbstractProject p : Jenkins.get().allItems(AbstractProject.class))
-                p.buildDependencyGraph(this);
+            this.computationalData = Collections.synchronizedMap(new HashMap<>());
+            declared = new LinkedHashMap<>();
+            List<AbstractProject> projects = Jenkins.get().getAllItems(AbstractProject.class);
+            if (PARALLELISM > 1 && projects.size() > PARALLELISM) {
+                declareInParallel(projects);
+            } else {
+                for (AbstractProject p : projects) {
+                    declare(p);
+                }
+            }
+            assemble();
+        }
+    }
 
-            forward = finalize(forward);
-            backward = finalize(backward);
-            topologicalDagSort();
-            this.computationalData = null;
-            built = true;
+    /**
+     * Creates a new dependency graph from this one, asking only the given projects to declare their dependencies again.
+     * Projects which no longer exist are removed, with their edges.
+     * A project created since this graph was built could be the target of dependencies declared by other projects,
+     * so {@link #build()} should be used instead in that case.
+     *
+     * @param changed the projects whose configuration changed or which were deleted
+     * @return the updated graph
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public DependencyGraph update(Collection<? extends AbstractProject> changed) {
+        DependencyGraph g = new DependencyGraph();
+        if (declared == null) {
+            g.build();
+            return g;
         }
+        long start = System.nanoTime();
+        try (ACLContext ctx = ACL.as2(ACL.SYSTEM2)) {
+            g.computationalData = Collections.synchronizedMap(new HashMap<>());
+            g.declared = new LinkedHashMap<>();
+            Set<AbstractProject> changedProjects = Collections.newSetFromMap(new IdentityHashMap<>());
+            Set<AbstractProject> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (AbstractProject p : changed) {
+                changedProjects.add(p);
+                if (Jenkins.get().getItemByFullName(p.getFullName(), AbstractProject.class) != p) {
+                    removed.add(p);
+                }
+            }
+            // the ends of the edges which were added or removed
+            Set<AbstractProject> sources = Collections.newSetFromMap(new IdentityHashMap<>());
+            Set<AbstractProject> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Map.Entry<AbstractProject, List<Dependency>> e : declared.entrySet()) {
+                if (changedProjects.contains(e.getKey())) {
+                    touched(e.getValue(), sources, targets);
+                    continue;
+                }
+                List<Dependency> kept = new ArrayList<>(e.getValue().size());
+                for (Dependency dep : e.getValue()) {
+                    if (removed.contains(dep.getUpstreamProject()) || removed.contains(dep.getDownstreamProject())) {
+                        touched(List.of(dep), sources, targets);
+                    } else {
+                        kept.add(dep);
+                    }
+                }
+                if (!kept.isEmpty()) {
+                    g.declared.put(e.getKey(), kept);
+                }
+            }
+            for (AbstractProject p : changedProjects) {
+                if (!removed.contains(p)) {
+                    touched(g.declare(p), sources, targets);
+                }
+            }
+            g.assemble();
+            g.keepTransitive(topologicallySorted, transitiveDownstream, g.transitiveDownstream, sources, removed);
+            g.keepTransitive(topologicallySorted, transitiveUpstream, g.transitiveUpstream, targets, removed);
+        }
+        LOGGER.log(Level.FINE, "Updated the dependency graph for {0} projects in {1}ms",
+                new Object[] {changed.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)});
+        return g;
+    }
+
+    /**
+     * Whether {@link #update(Collection)} can reuse the dependencies declared to build this graph.
+     *
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public boolean isUpdatable() {
+        return declared != null;
+    }
+
+    private static void touched(List<Dependency> deps, Set<AbstractProject> sources, Set<AbstractProject> targets) {
+        for (Dependency dep : deps) {
+            sources.add(dep.getUpstreamProject());
+            targets.add(dep.getDownstreamProject());
+        }
+    }
+
+    /**
+     * Keeps the transitive dependencies computed by the previous graph which cannot have changed:
+     * those which do not include an end of a changed edge, which would be its source for downstream dependencies.
+     * They are renumbered, since the projects may be sorted differently.
+     *
+     * @param previousSorted the projects of the previous graph, by number
+     */
+    private void keepTransitive(List<AbstractProject<?, ?>> previousSorted, Map<AbstractProject, BitSet> previous, Map<AbstractProject, BitSet> cache,
+                                Set<AbstractProject> changedEnds, Set<AbstractProject> removed) {
+        OUTER:
+        for (Map.Entry<AbstractProject, BitSet> e : previous.entrySet()) {
+            if (changedEnds.contains(e.getKey()) || removed.contains(e.getKey()) || !ids.containsKey(e.getKey())) {
+                continue;
+            }
+            BitSet bits = e.getValue();
+            BitSet kept = new BitSet(ids.size());
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                AbstractProject p = previousSorted.get(i);
+                Integer id = ids.get(p);
+                if (id == null || changedEnds.contains(p)) {
+                    continue OUTER;
+                }
+                kept.set(id);
+            }
+            cache.put(e.getKey(), kept);
+        }
+    }
+
+    /**
+     * Asks a project to declare its dependencies, and records them.
+     */
+    private List<Dependency> declare(AbstractProject p) {
+        List<Dependency> deps = collect(p);
+        if (!deps.isEmpty()) {
+            declared.put(p, deps);
+        }
+        return deps;
+    }
+
+    private List<Dependency> collect(AbstractProject p) {
+        List<Dependency> deps = new ArrayList<>();
+        declaring.set(deps);
+        try {
+            p.buildDependencyGraph(this);
+        } finally {
+            declaring.remove();
+        }
+        return deps;
+    }
+
+    private void declareInParallel(List<AbstractProject> projects) {
+        ExecutorService executor = new ImpersonatingExecutorService(
+                Executors.newFixedThreadPool(PARALLELISM, new NamingThreadFactory(new DaemonThreadFactory(), "DependencyGraph.build")), ACL.SYSTEM2);
+        try {
+            List<Future<List<Dependency>>> declarations = new ArrayList<>(projects.size());
+            for (AbstractProject p : projects) {
+                declarations.add(executor.submit(() -> collect(p)));
+            }
+            // record them in the same order as when declared one by one
+            for (int i = 0; i < projects.size(); i++) {
+                List<Dependency> deps = declarations.get(i).get();
+                if (!deps.isEmpty()) {
+                    declared.put(projects.get(i), deps);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building the dependency graph", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Builds the edges from the declared dependencies.
+     */
+    private void assemble() {
+        for (List<Dependency> deps : declared.values()) {
+            for (Dependency dep : deps) {
+                add(forward, dep.getUpstreamProject(), dep);
+                add(backward, dep.getDownstreamProject(), dep);
+            }
+        }
+        forward = finalize(forward);
+        backward = finalize(backward);
+        topologicalDagSort();
+        index();
+        this.computationalData = null;
+        built = true;
+    }
+
+    private void index() {
+        ids = new IdentityHashMap<>();
+        for (int i = 0; i < topologicallySorted.size(); i++) {
+            ids.put(topologicallySorted.get(i), i);
+        }
+        downstreamIds = new int[topologicallySorted.size()][];
+        upstreamIds = new int[topologicallySorted.size()][];
+        for (int i = 0; i < topologicallySorted.size(); i++) {
+            downstreamIds[i] = ids(getDownstream(topologicallySorted.get(i)));
+            upstreamIds[i] = ids(getUpstream(topologicallySorted.get(i)));
+        }
+    }
+
+    private int[] ids(List<AbstractProject> projects) {
+        int[] r = new int[projects.size()];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = ids.get(projects.get(i));
+        }
+        return r;
     }
 
     /**
@@ -141,6 +393,7 @@ public class DependencyGraph implements Comparator<AbstractProject> {
     private DependencyGraph(boolean dummy) {
         forward = backward = Collections.emptyMap();
         topologicalDagSort();
+        index();
         built = true;
     }
 
@@ -231,6 +484,11 @@ public class DependencyGraph implements Comparator<AbstractProject> {
     public void addDependency(Dependency dep) {
         if (built)
             throw new IllegalStateException();
+        List<Dependency> deps = declaring.get();
+        if (deps != null) {
+            deps.add(dep);
+            return;
+        }
         add(forward, dep.getUpstreamProject(), dep);
         add(backward, dep.getDownstreamProject(), dep);
     }
@@ -293,6 +551,10 @@ public class DependencyGraph implements Comparator<AbstractProject> {
      * Gets all the direct and indirect upstream dependencies of the given project.
      */
     public Set<AbstractProject> getTransitiveUpstream(AbstractProject src) {
+        if (ids != null) {
+            // a copy, as callers may modify it
+            return ids.containsKey(src) ? new HashSet<>(new ProjectSet(transitiveUpstream.computeIfAbsent(src, p -> getTransitive(p, upstreamIds)))) : new HashSet<>();
+        }
         return getTransitive(backward, src, true);
     }
 
@@ -300,9 +562,76 @@ public class DependencyGraph implements Comparator<AbstractProject> {
      * Gets all the direct and indirect downstream dependencies of the given project.
      */
     public Set<AbstractProject> getTransitiveDownstream(AbstractProject src) {
+        if (ids != null) {
+            // a copy, as callers may modify it
+            return ids.containsKey(src) ? new HashSet<>(new ProjectSet(transitiveDownstream.computeIfAbsent(src, p -> getTransitive(p, downstreamIds)))) : new HashSet<>();
+        }
         return getTransitive(forward, src, false);
     }
 
+    private BitSet getTransitive(AbstractProject src, int[][] edges) {
+        BitSet visited = new BitSet(edges.length);
+        // the source is pushed again if it is part of a cycle
+        int[] stack = new int[edges.length + 1];
+        int size = 0;
+        stack[size++] = ids.get(src);
+        while (size > 0) {
+            for (int child : edges[stack[--size]]) {
+                if (!visited.get(child)) {
+                    visited.set(child);
+                    stack[size++] = child;
+                }
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Read-only view of the projects whose numbers are in a bit set.
+     */
+    private final class ProjectSet extends AbstractSet<AbstractProject> {
+        private final BitSet bits;
+        private final int size;
+
+        ProjectSet(BitSet bits) {
+            this.bits = bits;
+            this.size = bits.cardinality();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Integer id = ids.get(o);
+            return id != null && bits.get(id);
+        }
+
+        @Override
+        public Iterator<AbstractProject> iterator() {
+            return new Iterator<>() {
+                private int next = bits.nextSetBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public AbstractProject next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    AbstractProject p = topologicallySorted.get(next);
+                    next = bits.nextSetBit(next + 1);
+                    return p;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
     private Set<AbstractProject> getTransitive(Map<AbstractProject, List<DependencyGroup>> direction, AbstractProject src, boolean up) {
         Set<AbstractProject> visited = new HashSet<>();
         Stack<AbstractProject> queue = new Stack<>();
@@ -352,6 +681,29 @@ public class DependencyGraph implements Comparator<AbstractProject> {
 
     public static final DependencyGraph EMPTY = new DependencyGraph(false);
 
+    /**
+     * Whether to update the dependency graph of {@link Jenkins} incrementally when a project is saved or deleted,
+     * rather than building it again from all the projects.
+     * Dependencies declared from {@linkplain #getComputationalData(Class) computational data} shared between projects
+     * may not be updated correctly.
+     *
+     * @since TODO
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
+    public static /* non-final for Groovy */ boolean INCREMENTAL = SystemProperties.getBoolean(DependencyGraph.class.getName() + ".incremental");
+
+    /**
+     * Number of threads asking projects to declare their dependencies when building the graph.
+     * Dependency declarers sharing {@linkplain #getComputationalData(Class) computational data} must be thread safe
+     * when greater than 1.
+     *
+     * @since TODO
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
+    public static /* non-final for Groovy */ int PARALLELISM = SystemProperties.getInteger(DependencyGraph.class.getName() + ".parallelism", 1);
+
+    private static final Logger LOGGER = Logger.getLogger(DependencyGraph.class.getName());
+
     /**
      * Compare two Projects based on the topological order defined by this Dependency Graph
      */
@@ -265,11 +265,13 @@ public final class DirectoryBrowserSupport implements HttpResponse {
             baseFile = root.child(base);
         }
 
-        if (baseFile.hasSymlink(getOpenOptions()) || hasTmpDir(baseFile, base, getOpenOptions())) {
+        // read everything we need to know about the file in one go, as each call may be a remote round trip
+        FileMetadata metadata = baseFile.run(new GetFileMetadata(baseFile, getOpenOptions()));
+        if (metadata.hasSymlink || hasTmpDir(baseFile, base, getOpenOptions())) {
             rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
             return;
         }
-        if (baseFile.isDirectory()) {
+        if (metadata.isDirectory) {
             if (zip) {
                 rsp.setContentType("application/zip");
                 String includes, prefix;
@@ -286,12 +288,10 @@ public final class DirectoryBrowserSupport implements HttpResponse {
             }
             if (plain) {
                 rsp.setContentType("text/plain;charset=UTF-8");
+                List<String> kids = baseFile.run(new ListPlain(baseFile, getOpenOptions()));
                 try (OutputStream os = rsp.getOutputStream()) {
-                    for (VirtualFile kid : baseFile.list(getOpenOptions())) {
-                        os.write(kid.getName().getBytes(StandardCharsets.UTF_8));
-                        if (kid.isDirectory()) {
-                            os.write('/');
-                        }
+                    for (String kid : kids) {
+                        os.write(kid.getBytes(StandardCharsets.UTF_8));
                         os.write('\n');
                     }
                     os.flush();
@@ -349,10 +349,11 @@ public final class DirectoryBrowserSupport implements HttpResponse {
             // convert a directory service request to a single file service request by serving
             // 'index.html'
             baseFile = baseFile.child(indexFileName);
+            metadata = baseFile.run(new GetFileMetadata(baseFile, getOpenOptions()));
         }
 
         //serve a single file
-        if (!baseFile.exists()) {
+        if (!metadata.exists) {
             rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
             return;
         }
@@ -374,8 +375,8 @@ public final class DirectoryBrowserSupport implements HttpResponse {
             return;
         }
 
-        long lastModified = baseFile.lastModified();
-        long length = baseFile.length();
+        long lastModified = metadata.lastModified;
+        long length = metadata.length;
 
         if (LOGGER.isLoggable(Level.FINE))
             LOGGER.fine("Serving " + baseFile + " with lastModified=" + lastModified + ", length=" + length);
@@ -741,6 +742,61 @@ public final class DirectoryBrowserSupport implements HttpResponse {
         }
     }
 
+    private static final class FileMetadata implements Serializable { // TODO Java 21+ record
+        private static final long serialVersionUID = 1;
+        private final boolean hasSymlink;
+        private final boolean isDirectory;
+        private final boolean exists;
+        private final long lastModified;
+        private final long length;
+
+        FileMetadata(boolean hasSymlink, boolean isDirectory, boolean exists, long lastModified, long length) {
+            this.hasSymlink = hasSymlink;
+            this.isDirectory = isDirectory;
+            this.exists = exists;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
+    private static final class GetFileMetadata extends MasterToSlaveCallable<FileMetadata, IOException> {
+        private final VirtualFile file;
+        private final OpenOption[] openOptions;
+
+        GetFileMetadata(VirtualFile file, OpenOption[] openOptions) {
+            this.file = file;
+            this.openOptions = openOptions;
+        }
+
+        @Override public FileMetadata call() throws IOException {
+            boolean isDirectory = file.isDirectory();
+            boolean exists = isDirectory || file.exists();
+            return new FileMetadata(file.hasSymlink(openOptions), isDirectory, exists,
+                    exists ? file.lastModified() : 0, exists ? file.length() : 0);
+        }
+    }
+
+    /**
+     * Lists the children of a directory for the {@code *plain*} view, suffixing directories with {@code /}.
+     */
+    private static final class ListPlain extends MasterToSlaveCallable<List<String>, IOException> {
+        private final VirtualFile dir;
+        private final OpenOption[] openOptions;
+
+        ListPlain(VirtualFile dir, OpenOption[] openOptions) {
+            this.dir = dir;
+            this.openOptions = openOptions;
+        }
+
+        @Override public List<String> call() throws IOException {
+            List<String> r = new ArrayList<>();
+            for (VirtualFile kid : dir.list(openOptions)) {
+                r.add(kid.isDirectory() ? kid.getName() + '/' : kid.getName());
+            }
+            return r;
+        }
+    }
+
     private static final class BuildChildPathsResult implements Serializable { // TODO Java 21+ record
         private static final long serialVersionUID = 1;
         private final List<List<Path>> glob;
@@ -36,6 +36,7 @@ import hudson.FilePath;
 import hudson.Functions;
 import hudson.Util;
 import hudson.model.Queue.Executable;
+import hudson.model.queue.StartLatency;
 import hudson.model.queue.SubTask;
 import hudson.model.queue.WorkUnit;
 import hudson.security.ACL;
@@ -134,6 +135,11 @@ public class Executor extends Thread implements ModelObject {
     @GuardedBy("lock")
     private boolean started;
 
+    /**
+     * Times the start of {@link #workUnit}. Set when the work unit is assigned, then only updated by this thread.
+     */
+    private StartLatency.Trace startTrace;
+
     /**
      * When the executor is interrupted, we allow the code that interrupted the thread to override the
      * result code it prefers.
@@ -347,6 +353,9 @@ public class Executor extends Thread implements ModelObject {
             lock.writeLock().unlock();
         }
 
+        if (startTrace != null) {
+            startTrace.onRunning();
+        }
         try (ACLContext ctx = ACL.as2(ACL.SYSTEM2)) {
             SubTask task;
             // transition from idle to building.
@@ -403,6 +412,9 @@ public class Executor extends Thread implements ModelObject {
             Throwable problems = null;
             try {
                 workUnit.context.synchronizeStart();
+                if (startTrace != null) {
+                    startTrace.onSynchronized();
+                }
 
                 // this code handles the behavior of null Executables returned
                 // by tasks. In such case Jenkins starts the workUnit in order
@@ -838,6 +850,7 @@ public class Executor extends Thread implements ModelObject {
         lock.writeLock().lock();
         try {
             this.workUnit = task;
+            this.startTrace = queue.getStartLatency().trace(task);
             super.start();
             started = true;
         } finally {
@@ -846,6 +859,13 @@ public class Executor extends Thread implements ModelObject {
     }
 
 
+    /**
+     * Times the start of the current work unit, if any.
+     */
+    @CheckForNull StartLatency.Trace getStartTrace() {
+        return startTrace;
+    }
+
     /**
      * @deprecated as of 1.489
      *      Use {@link #doStop()} or {@link #doStopBuild(String)}.
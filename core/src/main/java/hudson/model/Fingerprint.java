@@ -1018,6 +1018,25 @@ public class Fingerprint implements ModelObject, Saveable {
         add(b.getParent().getFullName(), b.getNumber());
     }
 
+    /**
+     * Adds a usage reference to the build for several fingerprints at once.
+     * Unlike calling {@link #addFor(Run)} on each of them, the fingerprints are
+     * handed to the {@link FingerprintStorage} as a single batch.
+     * @param b {@link Run} to be referenced in {@link #usages}
+     * @param fingerprints fingerprints used by the build; should not contain duplicates
+     * @since TODO
+     */
+    public static void addFor(@NonNull Run b, @NonNull Collection<Fingerprint> fingerprints) throws IOException {
+        String jobFullName = b.getParent().getFullName();
+        int n = b.getNumber();
+        for (Fingerprint fp : fingerprints) {
+            synchronized (fp) {
+                fp.addWithoutSaving(jobFullName, n);
+            }
+        }
+        save(fingerprints);
+    }
+
     /**
      * Records that a build of a job has used this file.
      */
@@ -1257,22 +1276,59 @@ public class Fingerprint implements ModelObject, Saveable {
             start = System.currentTimeMillis();
 
         FingerprintStorage configuredFingerprintStorage = FingerprintStorage.get();
-        FingerprintStorage fileFingerprintStorage = ExtensionList.lookupSingleton(FileFingerprintStorage.class);
 
         // Implementations are expected to invoke SaveableListener on their own if relevant
         // TODO: Consider improving Saveable Listener API: https://issues.jenkins.io/browse/JENKINS-62543
         configuredFingerprintStorage.save(this);
+        deleteFromFileStorageIfExternal(configuredFingerprintStorage, List.of(this));
 
-        // In the case that external fingerprint storage is configured, there may be some fingerprints in memory that
-        // get saved before a load call (because they are already in memory). This ensures that they get deleted from
-        // the file fingerprint storage.
-        // TODO: Consider improving KeyedDataStorage so it provides an API for clearing the fingerprints in memory.
-        if (!(configuredFingerprintStorage instanceof FileFingerprintStorage) && fileFingerprintStorage.isReady()) {
-            fileFingerprintStorage.delete(this.getHashString());
+        if (logger.isLoggable(Level.FINE))
+            logger.fine("Saving fingerprint " + getHashString() + " took " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Saves several fingerprints with one call to {@link FingerprintStorage#save(Collection)}.
+     * Fingerprints which are part of a {@link BulkChange} are skipped, as in {@link #save()}.
+     */
+    private static void save(@NonNull Collection<Fingerprint> fingerprints) throws IOException {
+        List<Fingerprint> toSave = new ArrayList<>(fingerprints.size());
+        for (Fingerprint fp : fingerprints) {
+            if (!BulkChange.contains(fp)) {
+                toSave.add(fp);
+            }
+        }
+        if (toSave.isEmpty()) {
+            return;
         }
 
+        long start = 0;
         if (logger.isLoggable(Level.FINE))
-            logger.fine("Saving fingerprint " + getHashString() + " took " + (System.currentTimeMillis() - start) + "ms");
+            start = System.currentTimeMillis();
+
+        FingerprintStorage configuredFingerprintStorage = FingerprintStorage.get();
+        configuredFingerprintStorage.save(toSave);
+        deleteFromFileStorageIfExternal(configuredFingerprintStorage, toSave);
+
+        if (logger.isLoggable(Level.FINE))
+            logger.fine("Saving " + toSave.size() + " fingerprints took " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * In the case that external fingerprint storage is configured, there may be some fingerprints in memory that
+     * get saved before a load call (because they are already in memory). This ensures that they get deleted from
+     * the file fingerprint storage.
+     * TODO: Consider improving KeyedDataStorage so it provides an API for clearing the fingerprints in memory.
+     */
+    private static void deleteFromFileStorageIfExternal(FingerprintStorage configuredFingerprintStorage, Collection<Fingerprint> fingerprints) throws IOException {
+        if (configuredFingerprintStorage instanceof FileFingerprintStorage) {
+            return;
+        }
+        FingerprintStorage fileFingerprintStorage = ExtensionList.lookupSingleton(FileFingerprintStorage.class);
+        if (fileFingerprintStorage.isReady()) {
+            for (Fingerprint fp : fingerprints) {
+                fileFingerprintStorage.delete(fp.getHashString());
+            }
+        }
     }
 
     /**
@@ -38,7 +38,12 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import jenkins.model.Jenkins;
 import jenkins.util.SystemProperties;
@@ -398,8 +403,9 @@ public abstract class LoadStatistics {
             List<Queue.BuildableItem> bis = j.getQueue().getBuildableItems();
 
             // update statistics on agents
-            for (Label l : j.getLabels()) {
-                l.loadStatistics.updateCounts(l.loadStatistics.computeSnapshot(bis));
+            Map<Label, LoadStatisticsSnapshot> snapshots = computeLabelSnapshots(j.getLabels(), bis);
+            for (Map.Entry<Label, LoadStatisticsSnapshot> e : snapshots.entrySet()) {
+                e.getKey().loadStatistics.updateCounts(e.getValue());
             }
 
             // update statistics of the entire system
@@ -408,6 +414,42 @@ public abstract class LoadStatistics {
             j.overallLoad.updateCounts(j.overallLoad.computeSnapshot(bis));
         }
 
+        /**
+         * Computes the same snapshots as {@link LoadStatistics#computeSnapshot(Iterable)} for each label,
+         * but walks the executors of each node and the queue only once rather than once per label.
+         * The executors of each node are then attributed to the labels through {@link Label#getNodes()},
+         * which is cached, and queue items through the name of their assigned label.
+         */
+        static Map<Label, LoadStatisticsSnapshot> computeLabelSnapshots(Collection<Label> labels, List<Queue.BuildableItem> bis) {
+            Map<String, Integer> queued = new HashMap<>();
+            for (Queue.BuildableItem bi : bis) {
+                for (SubTask st : bi.task.getSubTasks()) {
+                    Label l = bi.getAssignedLabelFor(st);
+                    if (l != null) {
+                        queued.merge(l.name, 1, Integer::sum);
+                    }
+                }
+            }
+
+            Map<Node, LoadStatisticsSnapshot> nodes = new IdentityHashMap<>();
+            Map<Label, LoadStatisticsSnapshot> snapshots = new LinkedHashMap<>();
+            for (Label l : labels) {
+                int defined = 0, online = 0, connecting = 0, busy = 0, idle = 0, available = 0;
+                for (Node n : l.getNodes()) {
+                    LoadStatisticsSnapshot s = nodes.computeIfAbsent(n, k -> LoadStatisticsSnapshot.builder().with(k).build());
+                    defined += s.definedExecutors;
+                    online += s.onlineExecutors;
+                    connecting += s.connectingExecutors;
+                    busy += s.busyExecutors;
+                    idle += s.idleExecutors;
+                    available += s.availableExecutors;
+                }
+                snapshots.put(l, new LoadStatisticsSnapshot(defined, online, connecting, busy, idle, available,
+                        queued.getOrDefault(l.name, 0)));
+            }
+            return snapshots;
+        }
+
         private int count(List<Queue.BuildableItem> bis, Label l) {
             int q = 0;
             for (Queue.BuildableItem bi : bis) {
@@ -205,13 +205,14 @@ public class MultiStageTimeSeries implements Serializable {
          * Creates a {@link DefaultCategoryDataset} for rendering a graph from a set of {@link MultiStageTimeSeries}.
          */
         protected DefaultCategoryDataset createDataset() {
-            float[][] dataPoints = new float[series.size()][];
+            TimeSeries[] dataPoints = new TimeSeries[series.size()];
             for (int i = 0; i < series.size(); i++)
-                dataPoints[i] = series.get(i).pick(timeScale).getHistory();
+                dataPoints[i] = series.get(i).pick(timeScale);
 
-            int dataLength = dataPoints[0].length;
-            for (float[] dataPoint : dataPoints)
-                assert dataLength == dataPoint.length;
+            // read the histories in place; they may be updated meanwhile, so only use the points all of them have
+            int dataLength = dataPoints.length == 0 ? 0 : Integer.MAX_VALUE;
+            for (TimeSeries dataPoint : dataPoints)
+                dataLength = Math.min(dataLength, dataPoint.size());
 
             DefaultCategoryDataset ds = new DefaultCategoryDataset();
 
@@ -222,7 +223,7 @@ public class MultiStageTimeSeries implements Serializable {
                 dt = new Date(dt.getTime() + timeScale.tick);
                 String l = format.format(dt);
                 for (int j = 0; j < dataPoints.length; j++)
-                    ds.addValue(dataPoints[j][i], series.get(j).title.toString(), l);
+                    ds.addValue(dataPoints[j].get(i), series.get(j).title.toString(), l);
             }
             return ds;
         }
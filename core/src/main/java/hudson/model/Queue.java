@@ -65,6 +65,7 @@ import hudson.model.queue.QueueTaskDispatcher;
 import hudson.model.queue.QueueTaskFuture;
 import hudson.model.queue.ScheduleResult;
 import hudson.model.queue.ScheduleResult.Created;
+import hudson.model.queue.StartLatency;
 import hudson.model.queue.SubTask;
 import hudson.model.queue.Tasks;
 import hudson.model.queue.WorkUnit;
@@ -109,6 +110,9 @@ import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletResponse;
+import jenkins.jfr.QueueMaintenanceEvent;
+import jenkins.metrics.Histogram;
+import jenkins.metrics.MetricsRegistry;
 import jenkins.model.Jenkins;
 import jenkins.model.queue.AsynchronousExecution;
 import jenkins.model.queue.CompositeCauseOfBlockage;
@@ -345,6 +349,8 @@ public class Queue extends ResourceController implements Saveable {
 
     private final transient Condition condition = lock.newCondition();
 
+    private final transient StartLatency startLatency = new StartLatency();
+
     public Queue(@NonNull LoadBalancer loadBalancer) {
         this.loadBalancer =  loadBalancer.sanitize();
         // if all the executors are busy doing something, then the queue won't be maintained in
@@ -1491,6 +1497,9 @@ public class Queue extends ResourceController implements Saveable {
         if (jenkins == null) {
             return;
         }
+        QueueMaintenanceEvent event = new QueueMaintenanceEvent();
+        event.begin();
+        long start = System.nanoTime();
         lock.lock();
         try { try {
 
@@ -1702,8 +1711,16 @@ public class Queue extends ResourceController implements Saveable {
                 }
             }
         } finally { updateSnapshot(); } } finally {
+            if (event.isEnabled()) {
+                event.waiting = waitingList.size();
+                event.blocked = blockedProjects.size();
+                event.buildable = buildables.size();
+                event.pending = pendings.size();
+            }
             lock.unlock();
         }
+        MAINTENANCE_SECONDS.observeNanos(System.nanoTime() - start);
+        event.commit();
     }
 
     /**
@@ -1834,6 +1851,15 @@ public class Queue extends ResourceController implements Saveable {
         return new Api(this);
     }
 
+    /**
+     * Where the time goes between scheduling tasks and the start of their builds.
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public @NonNull StartLatency getStartLatency() {
+        return startLatency;
+    }
+
     /**
      * Marks {@link Task}s that are not persisted.
      * @since 1.311
@@ -2835,6 +2861,9 @@ public class Queue extends ResourceController implements Saveable {
 
     private static final Logger LOGGER = Logger.getLogger(Queue.class.getName());
 
+    private static final Histogram MAINTENANCE_SECONDS = MetricsRegistry.get().histogram(
+            "jenkins_queue_maintenance_seconds", "Duration of the maintenance of the build queue");
+
     /**
      * This {@link XStream} instance is used to persist {@link Task}s.
      */
@@ -26,10 +26,6 @@ package hudson.model;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import hudson.util.AdaptedIterator;
-import java.util.AbstractCollection;
-import java.util.Collection;
-import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -46,30 +42,10 @@ public class ResourceController {
     private final Set<ResourceActivity> inProgress = new CopyOnWriteArraySet<>();
 
     /**
-     * View of {@link #inProgress} that exposes its {@link ResourceList}.
-     */
-    private final Collection<ResourceList> resourceView = new AbstractCollection<>() {
-        @Override
-        public Iterator<ResourceList> iterator() {
-            return new AdaptedIterator<>(inProgress.iterator()) {
-                @Override
-                protected ResourceList adapt(ResourceActivity item) {
-                    return item.getResourceList();
-                }
-            };
-        }
-
-        @Override
-        public int size() {
-            return inProgress.size();
-        }
-    };
-
-    /**
-     * Union of all {@link Resource}s that are currently in use.
+     * The {@link Resource}s that are currently in use, indexed for finding conflicts.
      * Updated as a task starts/completes executing.
      */
-    private ResourceList inUse = ResourceList.EMPTY;
+    private final ResourceIndex inUse = new ResourceIndex();
 
     /**
      * Performs the task that requires the given list of resources.
@@ -82,18 +58,17 @@ public class ResourceController {
      */
     public void execute(@NonNull Runnable task, final ResourceActivity activity) throws InterruptedException {
         final ResourceList resources = activity.getResourceList();
-        _withLock(new NotReallyRoleSensitiveCallable<Void, InterruptedException>() {
+        final ResourceIndex.Entry entry = _withLock(new NotReallyRoleSensitiveCallable<ResourceIndex.Entry, InterruptedException>() {
             @Override
-            public Void call() throws InterruptedException {
-                while (inUse.isCollidingWith(resources)) {
+            public ResourceIndex.Entry call() throws InterruptedException {
+                while (inUse.getConflict(resources) != null) {
                     // TODO revalidate the resource list after re-acquiring lock, for now we just let the build fail
                     _await();
                 }
 
                 // we have a go
                 inProgress.add(activity);
-                inUse = ResourceList.union(inUse, resources);
-                return null;
+                return inUse.add(resources);
             }
         });
 
@@ -105,7 +80,7 @@ public class ResourceController {
                 @Override
                 public void run() {
                     inProgress.remove(activity);
-                    inUse = ResourceList.union(resourceView);
+                    inUse.remove(entry);
                     _signalAll();
                 }
             });
@@ -126,7 +101,7 @@ public class ResourceController {
             return _withLock(new Callable<>() {
                 @Override
                 public Boolean call() {
-                    return !inUse.isCollidingWith(resources);
+                    return inUse.getConflict(resources) == null;
                 }
             });
         } catch (Exception e) {
@@ -147,7 +122,7 @@ public class ResourceController {
             return _withLock(new Callable<>() {
                 @Override
                 public Resource call() {
-                    return resources.getConflict(inUse);
+                    return inUse.getConflict(resources);
                 }
             });
         } catch (Exception e) {
@@ -0,0 +1,152 @@
+package hudson.model;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The resources used by the activities in progress, indexed so that finding a conflict with a {@link ResourceList}
+ * only looks at the resources it requests, their ancestors and their descendants, rather than at all the resources in use.
+ *
+ * <p>Finds the same conflicts as checking the list against the {@link ResourceList#union(java.util.Collection) union}
+ * of the lists in use. Not thread safe; {@link ResourceController} uses it under its lock.
+ */
+final class ResourceIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(ResourceIndex.class.getName());
+
+    /**
+     * The resources in use, with how many activities use them and the sum of their write counts.
+     */
+    private final Map<Resource, Use> used = new HashMap<>();
+
+    /**
+     * The resources in use below each resource.
+     */
+    private final Map<Resource, Set<Use>> descendants = new HashMap<>();
+
+    private static final class Use {
+        final Resource resource;
+        int activities;
+        int writes;
+
+        Use(Resource resource) {
+            this.resource = resource;
+        }
+    }
+
+    /**
+     * Adds the resources of an activity starting.
+     *
+     * @return what to {@link #remove(Entry)} once the activity completes, even if the list was modified meanwhile
+     */
+    Entry add(ResourceList list) {
+        Entry entry = new Entry(list);
+        for (Resource r : entry.all) {
+            Use u = used.get(r);
+            if (u == null) {
+                u = new Use(r);
+                used.put(r, u);
+                for (Resource a = r.parent; a != null; a = a.parent) {
+                    descendants.computeIfAbsent(a, k -> new HashSet<>()).add(u);
+                }
+            }
+            u.activities++;
+        }
+        for (Map.Entry<Resource, Integer> e : entry.writes.entrySet()) {
+            used.get(e.getKey()).writes += e.getValue();
+        }
+        return entry;
+    }
+
+    /**
+     * Removes the resources of an activity completed.
+     */
+    void remove(Entry entry) {
+        for (Map.Entry<Resource, Integer> e : entry.writes.entrySet()) {
+            used.get(e.getKey()).writes -= e.getValue();
+        }
+        for (Resource r : entry.all) {
+            Use u = used.get(r);
+            if (--u.activities > 0) {
+                continue;
+            }
+            used.remove(r);
+            for (Resource a = u.resource.parent; a != null; a = a.parent) {
+                Set<Use> below = descendants.get(a);
+                below.remove(u);
+                if (below.isEmpty()) {
+                    descendants.remove(a);
+                }
+            }
+        }
+    }
+
+    /**
+     * The resources of a {@link ResourceList} when it was added.
+     */
+    static final class Entry {
+        private final Set<Resource> all;
+        private final Map<Resource, Integer> writes;
+
+        private Entry(ResourceList list) {
+            all = new HashSet<>(list.all());
+            writes = new HashMap<>(list.writes());
+        }
+    }
+
+    /**
+     * Returns a resource of the given list colliding with the resources in use, or else a resource in use colliding
+     * with the given list, like {@link ResourceList#getConflict(ResourceList)}.
+     */
+    @CheckForNull Resource getConflict(ResourceList list) {
+        // requested for writing, colliding with any access in progress
+        for (Map.Entry<Resource, Integer> w : list.writes().entrySet()) {
+            for (Use u : related(w.getKey())) {
+                int count = u.writes > 0 ? u.writes + w.getValue() : Integer.MAX_VALUE;
+                if (w.getKey().isCollidingWith(u.resource, count)) {
+                    LOGGER.log(Level.FINE, "Collision with {0} and {1}", new Object[] {w, u.resource});
+                    return w.getKey();
+                }
+            }
+        }
+        // being written, colliding with any requested access
+        for (Resource r : list.all()) {
+            Integer requested = list.writes().get(r);
+            for (Use u : related(r)) {
+                if (u.writes > 0 && u.resource.isCollidingWith(r, requested != null ? requested + u.writes : Integer.MAX_VALUE)) {
+                    LOGGER.log(Level.FINE, "Collision with {0} and {1}", new Object[] {u.resource, r});
+                    return u.resource;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The resources in use which are the given resource, one of its ancestors or one of its descendants;
+     * other resources never collide with it.
+     */
+    private Iterable<Use> related(Resource r) {
+        Set<Use> below = descendants.get(r);
+        Set<Use> related = below == null ? new HashSet<>() : new HashSet<>(below);
+        for (Resource a = r; a != null; a = a.parent) {
+            Use u = used.get(a);
+            if (u != null) {
+                related.add(u);
+            }
+        }
+        return related;
+    }
+
+    /**
+     * Number of distinct resources in use.
+     */
+    int size() {
+        return used.size();
+    }
+}
@@ -26,6 +26,7 @@ package hudson.model;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -141,6 +142,20 @@ public final class ResourceList {
         return null;
     }
 
+    /**
+     * All the resources of this list, read or written.
+     */
+    Set<Resource> all() {
+        return Collections.unmodifiableSet(all);
+    }
+
+    /**
+     * The resources written by this list, with their write counts.
+     */
+    Map<Resource, Integer> writes() {
+        return Collections.unmodifiableMap(write);
+    }
+
     @Override
     public String toString() {
         Map<Resource, String> m = new HashMap<>();
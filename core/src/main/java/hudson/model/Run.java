@@ -112,6 +112,7 @@ import jenkins.model.ArtifactManager;
 import jenkins.model.ArtifactManagerConfiguration;
 import jenkins.model.ArtifactManagerFactory;
 import jenkins.model.BuildDiscarder;
+import jenkins.model.BuildDirectoryDeleter;
 import jenkins.model.Jenkins;
 import jenkins.model.JenkinsLocationConfiguration;
 import jenkins.model.RunAction2;
@@ -1665,13 +1666,19 @@ public abstract class Run<JobT extends Job<JobT, RunT>, RunT extends Run<JobT, R
                 throw new IOException(rootDir + " is in use", ex);
             }
 
-            Util.deleteRecursive(tmp);
-            // some user reported that they see some left-over .xyz files in the workspace,
-            // so just to make sure we've really deleted it, schedule the deletion on VM exit, too.
-            if (tmp.exists()) {
-                tmp.deleteOnExit();
+            if (BuildDirectoryDeleter.ASYNC) {
+                // the build is gone as far as the job is concerned; reclaim the disk space later
+                BuildDirectoryDeleter.get().schedule(tmp);
+                LOGGER.log(FINE, "{0}: {1} scheduled for deletion", new Object[] {this, rootDir});
+            } else {
+                Util.deleteRecursive(tmp);
+                // some user reported that they see some left-over .xyz files in the workspace,
+                // so just to make sure we've really deleted it, schedule the deletion on VM exit, too.
+                if (tmp.exists()) {
+                    tmp.deleteOnExit();
+                }
+                LOGGER.log(FINE, "{0}: {1} successfully deleted", new Object[] {this, rootDir});
             }
-            LOGGER.log(FINE, "{0}: {1} successfully deleted", new Object[] {this, rootDir});
             removeRunFromParent();
         }
     }
@@ -1874,6 +1881,10 @@ public abstract class Run<JobT extends Job<JobT, RunT>, RunT extends Run<JobT, R
                     logger = createLogger();
                     listener = createBuildListener(job, logger, charset);
                     listener.started(getCauses());
+                    Executor executor = Executor.currentExecutor();
+                    if (executor != null && executor.getStartTrace() != null) {
+                        executor.getStartTrace().onLogging(executor.getOwner().getDisplayName() + " " + executor.getDisplayName());
+                    }
 
                     Authentication auth = Jenkins.getAuthentication2();
                     if (auth.equals(ACL.SYSTEM2)) {
@@ -24,8 +24,8 @@
 
 package hudson.model;
 
-import hudson.CopyOnWrite;
 import java.io.Serializable;
+import java.util.Arrays;
 import org.kohsuke.stapler.export.Exported;
 import org.kohsuke.stapler.export.ExportedBean;
 
@@ -36,20 +36,39 @@ import org.kohsuke.stapler.export.ExportedBean;
  * This class computes <a href="http://en.wikipedia.org/wiki/Moving_average#Exponential_moving_average">
  * the exponential moving average</a> from the raw data (to be supplied by {@link #update(float)}).
  *
+ * <p>
+ * The history is kept in a ring buffer which grows on demand up to the maximum history size.
+ * As long as the moving average does not change, which is the common case for labels nobody uses,
+ * no buffer is allocated at all.
+ *
  * @author Kohsuke Kawaguchi
  */
 @ExportedBean
 public final class TimeSeries implements Serializable {
+    private static final int INITIAL_CAPACITY = 16;
+
     /**
      * Decay ratio. Normally 1-e for some small e.
      */
     private final float decay;
 
     /**
-     * Historical exponential moving average data. Newer ones first.
+     * Historical exponential moving average data, oldest first, wrapping around at {@link #head}.
+     * {@code null} as long as all the data points are equal to {@link #latest}.
+     */
+    private float[] ring;
+
+    /**
+     * Index of the newest data point in {@link #ring}.
      */
-    @CopyOnWrite
-    private volatile float[] history;
+    private int head;
+
+    /**
+     * Number of data points in the history.
+     */
+    private int size;
+
+    private float latest;
 
     /**
      * Maximum history size.
@@ -57,7 +76,8 @@ public final class TimeSeries implements Serializable {
     private final int historySize;
 
     public TimeSeries(float initialValue, float decay, int historySize) {
-        this.history = new float[]{initialValue};
+        this.latest = initialValue;
+        this.size = 1;
         this.decay = decay;
         this.historySize = historySize;
     }
@@ -66,43 +86,96 @@ public final class TimeSeries implements Serializable {
      * Pushes a new data point.
      *
      * <p>
-     * Exponential moving average is calculated, and the {@link #history} is updated.
+     * Exponential moving average is calculated, and the history is updated.
      * This method needs to be called periodically and regularly, and it represents
      * the raw data stream.
      */
-    public void update(float newData) {
-        float data = history[0] * decay + newData * (1 - decay);
+    public synchronized void update(float newData) {
+        float data = latest * decay + newData * (1 - decay);
+
+        if (ring == null) {
+            if (Float.floatToIntBits(data) == Float.floatToIntBits(latest)) {
+                size = Math.min(size + 1, historySize);
+                return;
+            }
+            ring = new float[capacity(size + 1)];
+            Arrays.fill(ring, 0, size, latest);
+            head = size - 1;
+        } else if (size == ring.length && size < historySize) {
+            float[] r = new float[capacity(size + 1)];
+            int tail = ring.length - head - 1;
+            System.arraycopy(ring, head + 1, r, 0, tail);
+            System.arraycopy(ring, 0, r, tail, head + 1);
+            ring = r;
+            head = size - 1;
+        }
+        head = (head + 1) % ring.length;
+        ring[head] = data;
+        size = Math.min(size + 1, historySize);
+        latest = data;
+    }
 
-        float[] r = new float[Math.min(history.length + 1, historySize)];
-        System.arraycopy(history, 0, r, 1, Math.min(history.length, r.length - 1));
-        r[0] = data;
-        history = r;
+    private int capacity(int required) {
+        int capacity = ring == null ? INITIAL_CAPACITY : ring.length;
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        return Math.min(capacity, historySize);
     }
 
     /**
-     * Gets the history data of the exponential moving average. The returned array should be treated
-     * as read-only and immutable.
+     * Gets the history data of the exponential moving average, newer ones first.
+     * The returned array is a copy; use {@link #size()} and {@link #get(int)} to read the history without copying it.
      *
      * @return
      *      Always non-null, contains at least one entry.
      */
     @Exported
-    public float[] getHistory() {
-        return history;
+    public synchronized float[] getHistory() {
+        float[] r = new float[size];
+        for (int i = 0; i < size; i++) {
+            r[i] = get(i);
+        }
+        return r;
+    }
+
+    /**
+     * Number of data points in the history, at least one.
+     *
+     * @since TODO
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets a data point of the history. {@code get(0)} is the most up-to-date one.
+     *
+     * @param index between 0 (inclusive) and {@link #size()} (exclusive)
+     * @since TODO
+     */
+    public synchronized float get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        if (ring == null) {
+            return latest;
+        }
+        return ring[Math.floorMod(head - index, ring.length)];
     }
 
     /**
      * Gets the most up-to-date data point value. {@code getHistory[0]}.
      */
     @Exported
-    public float getLatest() {
-        return history[0];
+    public synchronized float getLatest() {
+        return latest;
     }
 
     @Override
     public String toString() {
-        return Float.toString(history[0]);
+        return Float.toString(getLatest());
     }
 
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 }
@@ -33,21 +33,39 @@ import hudson.ExtensionList;
 import hudson.FilePath;
 import hudson.Functions;
 import hudson.Util;
+import hudson.XmlFile;
 import hudson.remoting.VirtualChannel;
+import hudson.security.ACL;
 import hudson.slaves.WorkspaceList;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import jenkins.MasterToSlaveFileCallable;
 import jenkins.model.Jenkins;
 import jenkins.model.ModifiableTopLevelItemGroup;
+import jenkins.security.ImpersonatingExecutorService;
 import jenkins.util.SystemProperties;
 import org.jenkinsci.Symbol;
 
@@ -79,52 +97,153 @@ public class WorkspaceCleanupThread extends AsyncPeriodicWork {
         Jenkins j = Jenkins.get();
         nodes.add(j);
         nodes.addAll(j.getNodes());
+        List<TopLevelItem> items = new ArrayList<>();
         for (TopLevelItem item : j.allItems(TopLevelItem.class)) {
             if (item instanceof ModifiableTopLevelItemGroup) { // no such thing as TopLevelItemGroup, and ItemGroup offers no access to its type parameter
                 continue; // children will typically have their own workspaces as subdirectories; probably no real workspace of its own
             }
-            listener.getLogger().println("Checking " + item.getFullDisplayName());
+            items.add(item);
+        }
+
+        XmlFile progressFile = getProgressFile();
+        Progress progress = Progress.load(progressFile);
+        Set<String> alreadyCompleted = new HashSet<>(progress.completedNodes);
+        if (!alreadyCompleted.isEmpty()) {
+            listener.getLogger().println("Resuming clean-up started on " + new Date(progress.started) + ", skipping " + alreadyCompleted.size() + " node(s) already processed");
+        }
+
+        ExecutorService executor = new ImpersonatingExecutorService(
+                Executors.newFixedThreadPool(Math.max(1, maxConcurrentNodes), new NamingThreadFactory(new DaemonThreadFactory(), "WorkspaceCleanupThread")),
+                ACL.SYSTEM2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
             for (Node node : nodes) {
-                FilePath ws = node.getWorkspaceFor(item);
-                if (ws == null) {
-                    continue; // offline, fine
+                String nodeName = node.getNodeName();
+                if (alreadyCompleted.contains(nodeName)) {
+                    continue;
                 }
-                boolean check;
+                futures.add(executor.submit(() -> {
+                    cleanup(node, items, listener);
+                    progress.complete(nodeName, progressFile);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
                 try {
-                    check = shouldBeDeleted(item, ws, node);
-                } catch (IOException | InterruptedException x) {
-                    Functions.printStackTrace(x, listener.error("Failed to check " + node.getDisplayName()));
+                    future.get();
+                } catch (ExecutionException x) {
+                    Functions.printStackTrace(x.getCause(), listener.error("Workspace clean-up failed"));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        progressFile.delete();
+    }
+
+    /**
+     * Deletes the left-over workspaces of the given items on one node.
+     * The workspaces are checked with a single remote call, then those not vetoed are leased and deleted with another.
+     */
+    private void cleanup(@NonNull Node node, @NonNull List<TopLevelItem> items, @NonNull TaskListener listener) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        FilePath root = node.getRootPath();
+        Computer c = node.toComputer();
+        if (root == null || c == null) {
+            return; // offline, fine
+        }
+        List<TopLevelItem> candidates = new ArrayList<>();
+        List<FilePath> workspaces = new ArrayList<>();
+        for (TopLevelItem item : items) {
+            FilePath ws = node.getWorkspaceFor(item);
+            if (ws != null && !isInUse(item, node)) {
+                candidates.add(item);
+                workspaces.add(ws);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        listener.getLogger().println("Checking " + candidates.size() + " workspace(s) on " + node.getDisplayName());
+        List<List<String>> old;
+        try {
+            old = root.act(new FindOldWorkspaces(retainForDays, workspaces.stream().map(FilePath::getRemote).collect(Collectors.toList())));
+        } catch (IOException x) {
+            Functions.printStackTrace(x, listener.error("Failed to check workspaces on " + node.getDisplayName()));
+            return;
+        }
+
+        WorkspaceList workspaceList = c.getWorkspaceList();
+        Object context = new Object();
+        List<WorkspaceList.Lease> leases = new ArrayList<>();
+        try {
+            List<String> toDelete = new ArrayList<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                TopLevelItem item = candidates.get(i);
+                List<String> dirs = old.get(i);
+                if (dirs.isEmpty()) {
                     continue;
                 }
-                if (check) {
-                    listener.getLogger().println("Deleting " + ws + " on " + node.getDisplayName());
-                    try {
-                        ws.act(new CleanupOldWorkspaces(retainForDays));
-                    } catch (IOException | InterruptedException x) {
-                        Functions.printStackTrace(x, listener.error("Failed to delete " + ws + " on " + node.getDisplayName()));
+                try {
+                    if (isVetoedByScm(item, workspaces.get(i), node)) {
+                        continue;
                     }
+                } catch (IOException x) {
+                    Functions.printStackTrace(x, listener.error("Failed to check " + item.getFullDisplayName() + " on " + node.getDisplayName()));
+                    continue;
+                }
+                // no build may start using these directories while they are being deleted
+                List<WorkspaceList.Lease> itemLeases = new ArrayList<>();
+                for (String dir : dirs) {
+                    WorkspaceList.Lease lease = workspaceList.tryAcquire(new FilePath(root.getChannel(), dir), false, context);
+                    if (lease == null) {
+                        LOGGER.log(Level.FINE, "Directory {0} is in use, so not deleting", dir);
+                        break;
+                    }
+                    itemLeases.add(lease);
+                }
+                // a build may have started since the first check
+                if (itemLeases.size() < dirs.size() || isInUse(item, node)) {
+                    itemLeases.forEach(WorkspaceList.Lease::release);
+                    continue;
                 }
+                leases.addAll(itemLeases);
+                toDelete.addAll(dirs);
             }
+            if (toDelete.isEmpty()) {
+                return;
+            }
+
+            long reclaimed;
+            try {
+                reclaimed = root.act(new DeleteWorkspaces(retainForDays, toDelete, maxConcurrentDeletionsPerNode));
+            } catch (IOException x) {
+                Functions.printStackTrace(x, listener.error("Failed to delete workspaces on " + node.getDisplayName()));
+                return;
+            }
+            listener.getLogger().println("Cleaned up " + node.getDisplayName() + " in " + Util.getTimeSpanString(System.currentTimeMillis() - start)
+                    + ", reclaiming " + Functions.humanReadableByteSize(reclaimed));
+        } finally {
+            leases.forEach(WorkspaceList.Lease::release);
         }
     }
 
-    private boolean shouldBeDeleted(@NonNull TopLevelItem item, FilePath dir, @NonNull Node n) throws IOException, InterruptedException {
+    /**
+     * Whether the workspace of the item on this node is the active one or is being built in.
+     */
+    private static boolean isInUse(@NonNull TopLevelItem item, @NonNull Node n) {
         // TODO could also be good to add checkbox that lets users configure a workspace to never be auto-cleaned.
 
         // TODO check instead for SCMTriggerItem:
         if (item instanceof AbstractProject<?, ?>) {
             AbstractProject<?, ?> p = (AbstractProject<?, ?>) item;
             Node lb = p.getLastBuiltOn();
-            LOGGER.log(Level.FINER, "Directory {0} is last built on {1}", new Object[] {dir, lb});
+            LOGGER.log(Level.FINER, "Workspace of {0} is last built on {1}", new Object[] {p, lb});
             if (lb != null && lb.equals(n)) {
                 // this is the active workspace. keep it.
-                LOGGER.log(Level.FINE, "Directory {0} is the last workspace for {1}", new Object[] {dir, p});
-                return false;
-            }
-
-            if (!p.getScm().processWorkspaceBeforeDeletion((Job<?, ?>) p, dir, n)) {
-                LOGGER.log(Level.FINE, "Directory deletion of {0} is vetoed by SCM", dir);
-                return false;
+                LOGGER.log(Level.FINE, "{0} is the last workspace for {1}", new Object[] {n.getDisplayName(), p});
+                return true;
             }
         }
 
@@ -133,36 +252,168 @@ public class WorkspaceCleanupThread extends AsyncPeriodicWork {
             Job<?, ?> j = (Job<?, ?>) item;
             if (j.isBuilding()) {
                 LOGGER.log(Level.FINE, "Job {0} is building, so not deleting", item.getFullDisplayName());
-                return false;
+                return true;
             }
         }
-        return true;
+        return false;
+    }
+
+    private static boolean isVetoedByScm(@NonNull TopLevelItem item, FilePath dir, @NonNull Node n) throws IOException, InterruptedException {
+        if (item instanceof AbstractProject<?, ?>) {
+            AbstractProject<?, ?> p = (AbstractProject<?, ?>) item;
+            if (!p.getScm().processWorkspaceBeforeDeletion((Job<?, ?>) p, dir, n)) {
+                LOGGER.log(Level.FINE, "Directory deletion of {0} is vetoed by SCM", dir);
+                return true;
+            }
+        }
+        return false;
     }
 
-    private static class CleanupOldWorkspaces extends MasterToSlaveFileCallable<Void> {
+    /**
+     * Finds the old directories of several workspaces on one node: the workspace itself and its variants
+     * such as {@code @2} or {@code @tmp}.
+     * Returns them for each workspace, in the same order.
+     */
+    private static class FindOldWorkspaces extends MasterToSlaveFileCallable<List<List<String>>> {
 
         private final int retentionInDays;
+        private final List<String> workspaces;
 
-        CleanupOldWorkspaces(int retentionInDays) {
+        FindOldWorkspaces(int retentionInDays, List<String> workspaces) {
             this.retentionInDays = retentionInDays;
+            this.workspaces = workspaces;
         }
 
         @Override
-        public Void invoke(File f, VirtualChannel channel) throws IOException, InterruptedException {
-            File[] workspaces = null;
-            File parentWs = f.getParentFile();
-            if (parentWs != null) {
-                workspaces = parentWs.listFiles(new ShouldBeDeletedFilter(this.retentionInDays, f.getName()));
+        public List<List<String>> invoke(File root, VirtualChannel channel) {
+            List<List<String>> result = new ArrayList<>();
+            for (String workspace : workspaces) {
+                List<String> dirs = new ArrayList<>();
+                File f = new File(workspace);
+                File parentWs = f.getParentFile();
+                if (parentWs != null) {
+                    File[] matches = parentWs.listFiles(new ShouldBeDeletedFilter(this.retentionInDays, f.getName()));
+                    if (matches != null) {
+                        for (File match : matches) {
+                            dirs.add(match.getPath());
+                        }
+                    }
+                }
+                result.add(dirs);
             }
+            return result;
+        }
+    }
 
-            if (workspaces != null) {
-                for (File workspace : workspaces) {
-                    LOGGER.log(Level.FINER, "Going to delete directory {0}", workspace);
-                    Util.deleteRecursive(fileToPath(workspace), Path::toFile);
+    /**
+     * Deletes several workspace directories on one node, unless they were used again since they were found.
+     * Returns the total size of the deleted files.
+     */
+    private static class DeleteWorkspaces extends MasterToSlaveFileCallable<Long> {
+
+        private final int retentionInDays;
+        private final List<String> dirs;
+        private final int concurrency;
+
+        DeleteWorkspaces(int retentionInDays, List<String> dirs, int concurrency) {
+            this.retentionInDays = retentionInDays;
+            this.dirs = dirs;
+            this.concurrency = concurrency;
+        }
+
+        @Override
+        public Long invoke(File root, VirtualChannel channel) throws IOException, InterruptedException {
+            AtomicLong reclaimed = new AtomicLong();
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, dirs.size())),
+                    new NamingThreadFactory(new DaemonThreadFactory(), "WorkspaceCleanupThread.DeleteWorkspaces"));
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (String dir : dirs) {
+                    File workspace = new File(dir);
+                    if (!workspace.isDirectory() || !isOld(workspace, retentionInDays)) {
+                        continue;
+                    }
+                    futures.add(executor.submit(() -> {
+                        LOGGER.log(Level.FINER, "Going to delete directory {0}", workspace);
+                        reclaimed.addAndGet(delete(fileToPath(workspace)));
+                        return null;
+                    }));
+                }
+                IOException failure = null;
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException x) {
+                        IOException e = x.getCause() instanceof IOException ? (IOException) x.getCause() : new IOException(x.getCause());
+                        if (failure == null) {
+                            failure = e;
+                        } else {
+                            failure.addSuppressed(e);
+                        }
+                    }
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            return reclaimed.get();
+        }
+
+        /**
+         * Deletes a directory, counting the size of the files while deleting them.
+         * Whatever cannot be deleted on the first pass, such as read-only files on Windows,
+         * is left to {@link Util#deleteRecursive}, which retries.
+         */
+        private static long delete(Path dir) throws IOException {
+            AtomicLong size = new AtomicLong();
+            AtomicBoolean incomplete = new AtomicBoolean();
+            Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    try {
+                        Files.delete(file);
+                        size.addAndGet(attrs.size());
+                    } catch (IOException x) {
+                        incomplete.set(true);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    incomplete.set(true);
+                    return FileVisitResult.CONTINUE;
                 }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path d, IOException exc) {
+                    try {
+                        Files.delete(d);
+                    } catch (IOException x) {
+                        incomplete.set(true);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            if (incomplete.get()) {
+                Util.deleteRecursive(dir, Path::toFile);
             }
-            return null;
+            return size.get();
+        }
+    }
+
+    /**
+     * Whether the directory was last modified more than the given number of days ago.
+     */
+    private static boolean isOld(File dir, int retentionInDays) {
+        long now = new Date().getTime();
+        if (dir.lastModified() + retentionInDays * DAY > now) {
+            LOGGER.log(Level.FINE, "Directory {0} is only {1} old, so not deleting", new Object[] {dir, Util.getTimeSpanString(now - dir.lastModified())});
+            return false;
         }
+        return true;
     }
 
     private static class ShouldBeDeletedFilter implements FileFilter, Serializable {
@@ -189,13 +440,51 @@ public class WorkspaceCleanupThread extends AsyncPeriodicWork {
             }
 
             // if younger than a month, keep it
-            long now = new Date().getTime();
-            if (dir.lastModified() + this.retentionInDays * DAY > now) {
-                LOGGER.log(Level.FINE, "Directory {0} is only {1} old, so not deleting", new Object[] {dir, Util.getTimeSpanString(now - dir.lastModified())});
-                return false;
+            return isOld(dir, retentionInDays);
+        }
+    }
+
+    private static XmlFile getProgressFile() {
+        return new XmlFile(Jenkins.XSTREAM2, new File(Jenkins.get().getRootDir(), WorkspaceCleanupThread.class.getName() + ".progress.xml"));
+    }
+
+    /**
+     * Nodes already cleaned up during the current run, persisted so that a restart does not start over.
+     */
+    static final class Progress {
+        long started;
+        Set<String> completedNodes = new HashSet<>();
+
+        static Progress load(XmlFile file) {
+            if (file.exists()) {
+                try {
+                    Progress progress = (Progress) file.read();
+                    if (progress.started + recurrencePeriodHours * HOUR > System.currentTimeMillis()) {
+                        return progress;
+                    }
+                } catch (IOException | RuntimeException x) {
+                    LOGGER.log(Level.WARNING, "Failed to load " + file, x);
+                }
             }
+            Progress progress = new Progress();
+            progress.started = System.currentTimeMillis();
+            return progress;
+        }
 
-            return true;
+        private Object readResolve() {
+            if (completedNodes == null) {
+                completedNodes = new HashSet<>();
+            }
+            return this;
+        }
+
+        synchronized void complete(String nodeName, XmlFile file) {
+            completedNodes.add(nodeName);
+            try {
+                file.write(this);
+            } catch (IOException x) {
+                LOGGER.log(Level.WARNING, "Failed to save " + file, x);
+            }
         }
     }
 
@@ -217,4 +506,16 @@ public class WorkspaceCleanupThread extends AsyncPeriodicWork {
      */
     @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
     public static int retainForDays = SystemProperties.getInteger(WorkspaceCleanupThread.class.getName() + ".retainForDays", 30);
+
+    /**
+     * Maximum number of nodes whose workspaces are cleaned up at the same time.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static int maxConcurrentNodes = SystemProperties.getInteger(WorkspaceCleanupThread.class.getName() + ".maxConcurrentNodes", 8);
+
+    /**
+     * Maximum number of workspaces deleted at the same time on a single node.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static int maxConcurrentDeletionsPerNode = SystemProperties.getInteger(WorkspaceCleanupThread.class.getName() + ".maxConcurrentDeletionsPerNode", 2);
 }
@@ -0,0 +1,319 @@
+package hudson.model.queue;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Api;
+import hudson.model.Label;
+import hudson.model.Queue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import jenkins.jfr.ExecutorStartEvent;
+import jenkins.metrics.MetricsRegistry;
+import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Where the time goes between the scheduling of a task and the first line of its build log,
+ * aggregated in a histogram for each phase and assigned label.
+ *
+ * <p>Each {@link hudson.model.Executor} keeps a {@link Trace} of the work unit it runs, which records the end of each
+ * {@link Phase} as it happens and adds the trace to the histograms once the first line of the build log is written.
+ * Recording does not lock anything. Traces of builds which do not write their log through
+ * {@link hudson.model.Run#execute}, such as those of flyweight tasks, are not recorded.
+ *
+ * <p>Available from the REST API at {@code /queue/startLatency/api/}, and as {@link ExecutorStartEvent}s in
+ * Java Flight Recorder.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+@ExportedBean
+public final class StartLatency {
+
+    /**
+     * Upper bounds of the histogram buckets, in milliseconds. The last bucket holds longer durations.
+     */
+    private static final long[] BUCKETS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000, 300000};
+
+    /**
+     * Maximum number of labels with their own histograms; others are aggregated together.
+     */
+    private static final int MAX_LABELS = 500;
+
+    private static final String NO_LABEL = "";
+    private static final String OTHER_LABELS = "(other)";
+
+    private static final jenkins.metrics.Histogram START_SECONDS = MetricsRegistry.get().histogram(
+            "jenkins_executor_start_latency_seconds", "Time from the scheduling of a task to the first line of its build log");
+
+    public enum Phase {
+        /** From the scheduling of the task until it becomes buildable, such as during its quiet period or while blocked. */
+        WAITING,
+        /** From becoming buildable until being assigned an executor. */
+        BUILDABLE,
+        /** From being assigned an executor until the executor thread runs. */
+        ASSIGNED,
+        /** Waiting for the other subtasks of the task to start, in {@link WorkUnitContext#synchronizeStart()}. */
+        SYNCHRONIZING,
+        /** From then until the first line of the build log. */
+        LOGGING,
+        /** From the scheduling of the task until the first line of the build log. */
+        TOTAL,
+        /** Acquiring the workspace, for builds which allocate one from the {@link hudson.slaves.WorkspaceList}. */
+        WORKSPACE;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    private final Map<String, Histograms> labels = new ConcurrentHashMap<>();
+
+    private Histograms histograms(@CheckForNull Label label) {
+        String key = label == null ? NO_LABEL : label.getExpression();
+        Histograms h = labels.get(key);
+        if (h == null) {
+            if (labels.size() >= MAX_LABELS) {
+                key = OTHER_LABELS;
+            }
+            h = labels.computeIfAbsent(key, Histograms::new);
+        }
+        return h;
+    }
+
+    /**
+     * Starts tracing the given work unit, once it has been assigned an executor.
+     */
+    public @NonNull Trace trace(@NonNull WorkUnit wu) {
+        return new Trace(this, wu);
+    }
+
+    /**
+     * The histograms of each assigned label, the empty label being that of tasks without one.
+     */
+    @Exported(inline = true)
+    public @NonNull List<Histograms> getLabels() {
+        List<Histograms> result = new ArrayList<>(labels.values());
+        result.sort((a, b) -> a.label.compareTo(b.label));
+        return result;
+    }
+
+    /**
+     * Upper bounds of the buckets of each histogram, in milliseconds. The last bucket holds longer durations.
+     */
+    @Exported
+    public long[] getBucketBounds() {
+        return BUCKETS.clone();
+    }
+
+    public Api getApi() {
+        Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+        return new Api(this);
+    }
+
+    /**
+     * The start of a work unit on an executor.
+     * Updated by the queue when assigning the work unit, then by the executor thread.
+     */
+    public static final class Trace {
+        private final StartLatency owner;
+        private final boolean main;
+        private final long scheduled;
+        private final long buildable;
+        private final long assigned;
+        private long running;
+        private long synchronizedStart;
+        private final Queue.BuildableItem item;
+        private boolean done;
+
+        Trace(StartLatency owner, WorkUnit wu) {
+            this.owner = owner;
+            this.item = wu.context.item;
+            // other subtasks do not write the build log
+            this.main = wu.isMainWork();
+            this.scheduled = item.getInQueueSince();
+            this.buildable = item.buildableStartMilliseconds;
+            this.assigned = System.currentTimeMillis();
+        }
+
+        /**
+         * The executor thread starts running the work unit.
+         */
+        public void onRunning() {
+            running = System.currentTimeMillis();
+        }
+
+        /**
+         * All the subtasks of the task started.
+         */
+        public void onSynchronized() {
+            synchronizedStart = System.currentTimeMillis();
+        }
+
+        /**
+         * The first line of the build log was written.
+         */
+        public void onLogging(@NonNull String executor) {
+            if (!main || done || synchronizedStart == 0) {
+                return;
+            }
+            done = true;
+            long now = System.currentTimeMillis();
+            long waiting = Math.max(0, buildable - scheduled);
+            long queued = Math.max(0, assigned - buildable);
+            long starting = Math.max(0, running - assigned);
+            long synchronizing = Math.max(0, synchronizedStart - running);
+            long logging = Math.max(0, now - synchronizedStart);
+            long total = Math.max(0, now - scheduled);
+
+            Histograms h = owner.histograms(item.getAssignedLabel());
+            h.record(Phase.WAITING, waiting);
+            h.record(Phase.BUILDABLE, queued);
+            h.record(Phase.ASSIGNED, starting);
+            h.record(Phase.SYNCHRONIZING, synchronizing);
+            h.record(Phase.LOGGING, logging);
+            h.record(Phase.TOTAL, total);
+            START_SECONDS.observe(total / 1000.0);
+
+            ExecutorStartEvent event = new ExecutorStartEvent();
+            if (event.shouldCommit()) {
+                event.task = item.task.getFullDisplayName();
+                event.label = h.label;
+                event.executor = executor;
+                event.waiting = waiting;
+                event.buildable = queued;
+                event.assigned = starting;
+                event.synchronizing = synchronizing;
+                event.logging = logging;
+                event.total = total;
+                event.commit();
+            }
+        }
+
+        /**
+         * The workspace was acquired.
+         *
+         * @param millis how long it took
+         */
+        public void onWorkspace(long millis) {
+            if (main) {
+                owner.histograms(item.getAssignedLabel()).record(Phase.WORKSPACE, millis);
+            }
+        }
+    }
+
+    /**
+     * The histograms of the phases of the tasks of a label.
+     */
+    @ExportedBean(defaultVisibility = 2)
+    public static final class Histograms {
+        private final String label;
+        /** For each phase, the count in each bucket, then the total count, the sum and the maximum. */
+        private final AtomicLongArray values = new AtomicLongArray(Phase.values().length * (BUCKETS.length + 4));
+
+        Histograms(String label) {
+            this.label = label;
+        }
+
+        private static int offset(Phase phase) {
+            return phase.ordinal() * (BUCKETS.length + 4);
+        }
+
+        void record(Phase phase, long millis) {
+            int bucket = 0;
+            while (bucket < BUCKETS.length && millis > BUCKETS[bucket]) {
+                bucket++;
+            }
+            int offset = offset(phase);
+            values.incrementAndGet(offset + bucket);
+            values.incrementAndGet(offset + BUCKETS.length + 1);
+            values.addAndGet(offset + BUCKETS.length + 2, millis);
+            values.accumulateAndGet(offset + BUCKETS.length + 3, millis, Math::max);
+        }
+
+        @Exported
+        public String getLabel() {
+            return label;
+        }
+
+        @Exported(inline = true)
+        public List<Histogram> getPhases() {
+            List<Histogram> phases = new ArrayList<>();
+            for (Phase phase : Phase.values()) {
+                phases.add(getPhase(phase));
+            }
+            return phases;
+        }
+
+        public Histogram getPhase(Phase phase) {
+            int offset = offset(phase);
+            long[] buckets = new long[BUCKETS.length + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = values.get(offset + i);
+            }
+            return new Histogram(phase, buckets, values.get(offset + BUCKETS.length + 1),
+                    values.get(offset + BUCKETS.length + 2), values.get(offset + BUCKETS.length + 3));
+        }
+    }
+
+    /**
+     * A snapshot of the histogram of a phase.
+     */
+    @ExportedBean(defaultVisibility = 3)
+    public static final class Histogram {
+        private final Phase phase;
+        private final long[] buckets;
+        private final long count;
+        private final long totalMillis;
+        private final long maxMillis;
+
+        Histogram(Phase phase, long[] buckets, long count, long totalMillis, long maxMillis) {
+            this.phase = phase;
+            this.buckets = buckets;
+            this.count = count;
+            this.totalMillis = totalMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        @Exported
+        public String getPhase() {
+            return phase.toString();
+        }
+
+        /**
+         * The count in each bucket, as bounded by {@link StartLatency#getBucketBounds()}.
+         */
+        @Exported
+        public long[] getBuckets() {
+            return buckets.clone();
+        }
+
+        @Exported
+        public long getCount() {
+            return count;
+        }
+
+        @Exported
+        public long getTotalMillis() {
+            return totalMillis;
+        }
+
+        @Exported
+        public long getMaxMillis() {
+            return maxMillis;
+        }
+
+        @Exported
+        public long getAverageMillis() {
+            return count == 0 ? 0 : totalMillis / count;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import static java.util.logging.Level.WARNING;
 
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.Functions;
 import hudson.model.Computer;
 import hudson.remoting.Callable;
@@ -12,7 +13,9 @@ import hudson.remoting.VirtualChannel;
 import hudson.slaves.SlaveComputer;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -20,9 +23,13 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Logger;
 import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 /**
  * Sophisticated version of {@link AbstractNodeMonitorDescriptor} that
@@ -81,16 +88,46 @@ public abstract class AbstractAsyncNodeMonitorDescriptor<T> extends AbstractNode
      */
     protected final @NonNull Result<T> monitorDetailed() throws InterruptedException {
         Map<Computer, Future<T>> futures = new HashMap<>();
+        Map<Computer, Long> dispatched = new HashMap<>();
         Set<Computer> skipped = new HashSet<>();
+        final Map<Computer, T> data = new HashMap<>();
+
+        List<Computer> computers = new ArrayList<>(Arrays.asList(Jenkins.get().getComputers()));
+        final long window = getStaggerWindow();
+        if (window > 0) {
+            computers.sort(Comparator.comparingLong(c -> slot(c, window)));
+        }
+        final long sweepStart = System.currentTimeMillis();
+        final boolean combine = COMBINE_PROBES && canCombineProbes();
+        Map<Computer, Backoff> backoffs = new HashMap<>();
 
-        for (Computer c : Jenkins.get().getComputers()) {
+        for (Computer c : computers) {
+            if (window > 0) {
+                long wait = sweepStart + slot(c, window) - System.currentTimeMillis();
+                if (wait > 0) {
+                    Thread.sleep(wait);
+                }
+            }
+            Backoff backoff = this.backoffs.getOrDefault(c, new Backoff());
+            backoffs.put(c, backoff);
             try {
                 VirtualChannel ch = c.getChannel();
                 futures.put(c, null);    // sentinel value
                 if (ch != null) {
+                    backoff.connected(ch);
+                    T last = getLastValue(c);
+                    if (last != null && backoff.skip > 0) {
+                        // the value has been stable for a while, keep it for this round
+                        backoff.skip--;
+                        futures.remove(c);
+                        data.put(c, last);
+                        continue;
+                    }
                     Callable<T, ?> cc = createCallable(c);
-                    if (cc != null)
-                        futures.put(c, ch.callAsync(cc));
+                    if (cc != null) {
+                        futures.put(c, combine ? CombinedProbes.submit(ch, cc) : ch.callAsync(cc));
+                        dispatched.put(c, System.currentTimeMillis());
+                    }
                 }
             } catch (RuntimeException | IOException e) {
                 error(c, e);
@@ -100,27 +137,100 @@ public abstract class AbstractAsyncNodeMonitorDescriptor<T> extends AbstractNode
         final long now = System.currentTimeMillis();
         final long end = now + getMonitoringTimeOut();
 
-        final Map<Computer, T> data = new HashMap<>();
-
         for (Map.Entry<Computer, Future<T>> e : futures.entrySet()) {
             Computer c = e.getKey();
             Future<T> f = futures.get(c);
             data.put(c, null);  // sentinel value
 
             if (f != null) {
+                // when staggered, each probe gets the full time out from the moment it was sent
+                long deadline = window > 0 ? dispatched.get(c) + getMonitoringTimeOut() : end;
+                T previous = getLastValue(c);
+                T value = null;
                 try {
-                    data.put(c, f.get(Math.max(0, end - System.currentTimeMillis()), MILLISECONDS));
+                    value = f.get(Math.max(0, deadline - System.currentTimeMillis()), MILLISECONDS);
+                    data.put(c, value);
                 } catch (RuntimeException | TimeoutException | ExecutionException x) {
                     error(c, x);
                 }
+                backoffs.get(c).update(previous != null && value != null && isUnchanged(previous, value));
             } else {
                 skipped.add(c);
             }
         }
 
+        // forget about computers which are gone
+        this.backoffs = backoffs;
+
         return new Result<>(data, skipped);
     }
 
+    /**
+     * Whether the probes created by {@link #createCallable(Computer)} may be sent to the agent
+     * along with the probes of other monitors, when {@link #COMBINE_PROBES} is enabled.
+     * Monitors measuring the remote call itself should return {@code false}.
+     *
+     * @since TODO
+     */
+    protected boolean canCombineProbes() {
+        return true;
+    }
+
+    /**
+     * Whether a newly monitored value is close enough to the previous one for the metric to be considered stable.
+     * When {@link #MAX_SKIPPED_ROUNDS} is positive, agents whose value stays stable are probed less and less often.
+     * <p>
+     * The default implementation relies on {@link Object#equals(Object)}, so values not implementing it are never
+     * considered stable and are probed every round.
+     *
+     * @since TODO
+     */
+    protected boolean isUnchanged(@NonNull T previous, @NonNull T current) {
+        return previous.equals(current);
+    }
+
+    @Override
+    /*package*/ long getStaggerWindow() {
+        return TimeUnit.SECONDS.toMillis(Math.max(0, STAGGER_SECONDS));
+    }
+
+    /**
+     * Offset of the given computer in the stagger window.
+     * Only depends on the computer name, so that all monitors probe a given agent at about the same time
+     * and their probes can be combined.
+     */
+    /*package*/ static long slot(Computer c, long window) {
+        return Math.floorMod(c.getName().hashCode() * 0x9E3779B97F4A7C15L, window);
+    }
+
+    /**
+     * Tracks how long the value monitored for a computer has been stable.
+     */
+    private static final class Backoff {
+        /** The channel the value was monitored over. */
+        private VirtualChannel channel;
+        /** Number of consecutive rounds the value did not change. */
+        private int stable;
+        /** Number of upcoming rounds for which the last value is reused. */
+        private int skip;
+
+        /**
+         * Starts over when the agent has reconnected since the last round, as its value may have changed meanwhile.
+         */
+        void connected(VirtualChannel ch) {
+            if (channel != ch) {
+                channel = ch;
+                stable = 0;
+                skip = 0;
+            }
+        }
+
+        void update(boolean unchanged) {
+            stable = unchanged ? stable + 1 : 0;
+            skip = Math.min(stable, Math.max(0, MAX_SKIPPED_ROUNDS));
+        }
+    }
+
     private void error(Computer c, Throwable x) {
         // JENKINS-54496: don't log if c was removed from Jenkins after we'd started monitoring
         final boolean cIsStillCurrent = Jenkins.get().getComputer(c.getName()) == c;
@@ -136,6 +246,36 @@ public abstract class AbstractAsyncNodeMonitorDescriptor<T> extends AbstractNode
 
     private static final Logger LOGGER = Logger.getLogger(AbstractAsyncNodeMonitorDescriptor.class.getName());
 
+    /**
+     * Spreads the probes of each round of monitoring over this many seconds, instead of sending them to all agents
+     * at once. Each agent is assigned a fixed slot in that window based on a hash of its name.
+     * Should be well below the monitoring period. Zero disables staggering.
+     */
+    @Restricted(NoExternalUse.class)
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static int STAGGER_SECONDS = SystemProperties.getInteger(AbstractAsyncNodeMonitorDescriptor.class.getName() + ".staggerSeconds", 0);
+
+    /**
+     * Whether to send the probes of all monitors for a given agent as a single remote call.
+     */
+    @Restricted(NoExternalUse.class)
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static boolean COMBINE_PROBES = SystemProperties.getBoolean(AbstractAsyncNodeMonitorDescriptor.class.getName() + ".combineProbes");
+
+    /**
+     * Maximum number of consecutive rounds an agent is not probed because its monitored value has been stable.
+     * The number of skipped rounds grows by one each time the value is found unchanged.
+     * Zero disables adaptive monitoring.
+     */
+    @Restricted(NoExternalUse.class)
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static int MAX_SKIPPED_ROUNDS = SystemProperties.getInteger(AbstractAsyncNodeMonitorDescriptor.class.getName() + ".maxSkippedRounds", 0);
+
+    /**
+     * Stability of the value monitored for each computer, replaced at the end of each round.
+     */
+    private transient volatile Map<Computer, Backoff> backoffs = new HashMap<>();
+
     /**
      * Result object for {@link AbstractAsyncNodeMonitorDescriptor#monitorDetailed()} to facilitate extending information
      * returned in the future.
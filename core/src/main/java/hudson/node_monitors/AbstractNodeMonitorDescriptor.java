@@ -196,6 +196,14 @@ public abstract class AbstractNodeMonitorDescriptor<T> extends Descriptor<NodeMo
         return record.data.get(c);
     }
 
+    /**
+     * Obtains the last monitoring result for the given computer without triggering a new round of monitoring.
+     */
+    /*package*/ T getLastValue(Computer c) {
+        Record r = record;
+        return r == null ? null : r.data.get(c);
+    }
+
     /**
      * Is the monitoring activity currently in progress?
      */
@@ -274,7 +282,7 @@ public abstract class AbstractNodeMonitorDescriptor<T> extends Descriptor<NodeMo
                 LOGGER.log(Level.WARNING, "Previous {0} monitoring activity died without cleaning up after itself",
                     getDisplayName());
                 inProgress = null;
-            } else if (System.currentTimeMillis() > inProgressStarted + getMonitoringTimeOut() + 1000) {
+            } else if (System.currentTimeMillis() > inProgressStarted + getStaggerWindow() + getMonitoringTimeOut() + 1000) {
                 // maybe it got stuck?
                 LOGGER.log(Level.WARNING, "Previous {0} monitoring activity still in progress. Interrupting",
                         getDisplayName());
@@ -300,6 +308,13 @@ public abstract class AbstractNodeMonitorDescriptor<T> extends Descriptor<NodeMo
         return TimeUnit.SECONDS.toMillis(30);
     }
 
+    /**
+     * How long a round of monitoring may spend dispatching probes before waiting for {@link #getMonitoringTimeOut()}.
+     */
+    /*package*/ long getStaggerWindow() {
+        return 0;
+    }
+
     /**
      * Thread that monitors nodes, as well as the data structure to record
      * the result.
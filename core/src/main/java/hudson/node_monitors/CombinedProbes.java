@@ -0,0 +1,225 @@
+package hudson.node_monitors;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.remoting.Callable;
+import hudson.remoting.VirtualChannel;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.agents.RemotingLane;
+import jenkins.security.MasterToSlaveCallable;
+import jenkins.util.Timer;
+import net.jcip.annotations.GuardedBy;
+import org.jenkinsci.remoting.RoleChecker;
+
+/**
+ * Combines the monitoring probes sent to the same agent at about the same time into a single remote call.
+ *
+ * <p>Every {@link AbstractAsyncNodeMonitorDescriptor} sweeps all agents independently, so with the stock
+ * monitors each agent receives half a dozen tiny requests per round. Probes submitted for a channel within
+ * {@link #LINGER_MILLIS} of each other are sent as one {@link Probes} callable, and each caller gets back a
+ * {@link Future} for its own result.
+ *
+ * <p>Only probes defined in Jenkins core are combined: the combined callable is deserialized on the agent using
+ * the core class loader, which cannot see classes from plugins. Other probes are sent on their own, as before.
+ */
+final class CombinedProbes {
+
+    private static final Logger LOGGER = Logger.getLogger(CombinedProbes.class.getName());
+
+    /**
+     * How long to wait for other probes to the same agent before sending a batch.
+     */
+    static final long LINGER_MILLIS = 200;
+
+    @GuardedBy("CombinedProbes.class")
+    private static final Map<VirtualChannel, Batch> pending = new HashMap<>();
+
+    private CombinedProbes() {}
+
+    /**
+     * Schedules the given probe to be sent to the agent, possibly along with other probes.
+     */
+    static <T> Future<T> submit(@NonNull VirtualChannel ch, @NonNull Callable<T, ?> probe) throws IOException {
+        if (probe.getClassLoader() != CombinedProbes.class.getClassLoader()) {
+            return ch.callAsync(probe);
+        }
+        Batch batch;
+        int index;
+        boolean first = false;
+        synchronized (CombinedProbes.class) {
+            batch = pending.get(ch);
+            if (batch == null) {
+                batch = new Batch(ch);
+                pending.put(ch, batch);
+                first = true;
+            }
+            index = batch.probes.size();
+            batch.probes.add(probe);
+        }
+        if (first) {
+            Batch b = batch;
+            // sending may block on a congested channel, so keep it off the timer threads
+            Timer.get().schedule(() -> {
+                try {
+                    RemotingLane.MONITOR.executor().execute(b::send);
+                } catch (RejectedExecutionException e) {
+                    b.send();
+                }
+            }, LINGER_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return new Slot<>(batch, index);
+    }
+
+    private static final class Batch {
+        private final VirtualChannel channel;
+        @GuardedBy("CombinedProbes.class")
+        private final List<Callable<?, ?>> probes = new ArrayList<>();
+        private final CountDownLatch sent = new CountDownLatch(1);
+        private volatile Future<List<Outcome>> results;
+        private volatile Throwable failure;
+
+        Batch(VirtualChannel channel) {
+            this.channel = channel;
+        }
+
+        void send() {
+            List<Callable<?, ?>> toSend;
+            synchronized (CombinedProbes.class) {
+                pending.remove(channel, this);
+                toSend = new ArrayList<>(probes);
+            }
+            try {
+                results = channel.callAsync(new Probes(toSend));
+                LOGGER.log(Level.FINER, "Sent {0} combined probes to {1}", new Object[] {toSend.size(), channel});
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            } finally {
+                sent.countDown();
+            }
+        }
+    }
+
+    /**
+     * The result of one probe in a batch.
+     */
+    private static final class Slot<T> implements Future<T> {
+        private final Batch batch;
+        private final int index;
+
+        Slot(Batch batch, int index) {
+            this.batch = batch;
+            this.index = index;
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            batch.sent.await();
+            return unwrap(results().get());
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            if (!batch.sent.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            return unwrap(results().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        }
+
+        private Future<List<Outcome>> results() throws ExecutionException {
+            if (batch.failure != null) {
+                throw new ExecutionException(batch.failure);
+            }
+            return batch.results;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T unwrap(List<Outcome> outcomes) throws ExecutionException {
+            Outcome o = outcomes.get(index);
+            if (o.failure != null) {
+                throw new ExecutionException(o.failure);
+            }
+            return (T) o.value;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            // the other probes in the batch are still wanted
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            if (batch.sent.getCount() > 0) {
+                return false;
+            }
+            return batch.failure != null || batch.results.isDone();
+        }
+    }
+
+    /**
+     * Runs a list of probes on the agent, reporting the result or failure of each one separately.
+     */
+    private static final class Probes extends MasterToSlaveCallable<List<Outcome>, IOException> {
+        private final List<Callable<?, ?>> probes;
+
+        Probes(List<Callable<?, ?>> probes) {
+            this.probes = probes;
+        }
+
+        @Override
+        public List<Outcome> call() {
+            List<Outcome> outcomes = new ArrayList<>(probes.size());
+            for (Callable<?, ?> probe : probes) {
+                try {
+                    outcomes.add(new Outcome(probe.call(), null));
+                } catch (Throwable t) {
+                    outcomes.add(new Outcome(null, t));
+                }
+            }
+            return outcomes;
+        }
+
+        /**
+         * Role check comes from the individual probes.
+         */
+        @Override
+        public void checkRoles(RoleChecker checker) throws SecurityException {
+            super.checkRoles(checker);
+            for (Callable<?, ?> probe : probes) {
+                probe.checkRoles(checker);
+            }
+        }
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static final class Outcome implements Serializable {
+        private final Object value;
+        private final Throwable failure;
+
+        Outcome(Object value, Throwable failure) {
+            this.value = value;
+            this.failure = failure;
+        }
+
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -74,6 +74,17 @@ public abstract class DiskSpaceMonitorDescriptor extends AbstractAsyncNodeMonito
         return data;
     }
 
+    /**
+     * Free space within 1% of the previous value is considered stable, unless the disk is already running low.
+     */
+    @Override
+    protected boolean isUnchanged(DiskSpace previous, DiskSpace current) {
+        if (previous.isTriggered() || previous.isWarning()) {
+            return false;
+        }
+        return Math.abs(current.size - previous.size) <= previous.size / 100;
+    }
+
     @Restricted(NoExternalUse.class)
     public void markNodeOfflineOrOnline(Computer c, DiskSpace size, AbstractDiskSpaceMonitor monitor) {
         if (size != null) {
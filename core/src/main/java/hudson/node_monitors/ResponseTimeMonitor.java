@@ -29,6 +29,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.Extension;
 import hudson.model.Computer;
 import hudson.remoting.Callable;
+import hudson.slaves.ChannelPinger;
+import hudson.slaves.SlaveComputer;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Map;
@@ -42,6 +44,9 @@ import org.kohsuke.stapler.export.ExportedBean;
 /**
  * Monitors the round-trip response time to this agent.
  *
+ * <p>For agents pinged by {@link ChannelPinger}, the average round trip time of the pings since the last round
+ * is used rather than sending another request.
+ *
  * @author Kohsuke Kawaguchi
  */
 public class ResponseTimeMonitor extends NodeMonitor {
@@ -64,9 +69,21 @@ public class ResponseTimeMonitor extends NodeMonitor {
 
         @Override
         protected Callable<Data, IOException> createCallable(Computer c) {
+            if (c instanceof SlaveComputer && ((SlaveComputer) c).getChannelHealth().hasUnreportedRoundTrips()) {
+                // the pings sent by ChannelPinger since the last round are measured already, see monitor()
+                return null;
+            }
             return new Step1(get(c));
         }
 
+        /**
+         * The round trip time would include the time spent running the other probes.
+         */
+        @Override
+        protected boolean canCombineProbes() {
+            return false;
+        }
+
         @Override
         protected Map<Computer, Data> monitor() throws InterruptedException {
             Result<Data> base = monitorDetailed();
@@ -76,6 +93,12 @@ public class ResponseTimeMonitor extends NodeMonitor {
                 Data d = e.getValue();
                 if (base.getSkipped().contains(c)) {
                     assert d == null;
+                    if (c instanceof SlaveComputer && c.getChannel() != null) {
+                        long rtt = ((SlaveComputer) c).getChannelHealth().takeAverageRoundTrip();
+                        if (rtt >= 0) {
+                            e.setValue(new Data(get(c), rtt));
+                        }
+                    }
                     continue;
                 }
 
@@ -0,0 +1,64 @@
+package hudson.scheduler;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * A minute against which many {@link CronTabList}s are checked.
+ * The date and time fields are computed once for each time zone, rather than once for each cron tab having one,
+ * so that checking a cron tab does not allocate anything.
+ *
+ * <p>Not thread safe.
+ *
+ * @see CronTabList#check(CronMinute)
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public final class CronMinute {
+    private final long time;
+    private final ZoneId defaultZone;
+    private final LocalDateTime local;
+    private Map<ZoneId, LocalDateTime> zoned;
+
+    /**
+     * @param cal the minute, whose time zone is used for cron tabs without one, like {@link CronTabList#check(Calendar)} does
+     */
+    public CronMinute(@NonNull Calendar cal) {
+        this(cal.getTimeInMillis(), cal.getTimeZone().toZoneId());
+    }
+
+    /**
+     * @param time the minute in milliseconds
+     * @param defaultZone the time zone used for cron tabs without one
+     */
+    public CronMinute(long time, @NonNull ZoneId defaultZone) {
+        this.time = time;
+        this.defaultZone = defaultZone;
+        this.local = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), defaultZone);
+    }
+
+    public long getTimeInMillis() {
+        return time;
+    }
+
+    /**
+     * The date and time of this minute in the given time zone, or in the default one if null.
+     */
+    LocalDateTime fields(@CheckForNull ZoneId zone) {
+        if (zone == null || zone.equals(defaultZone)) {
+            return local;
+        }
+        if (zoned == null) {
+            zoned = new HashMap<>();
+        }
+        return zoned.computeIfAbsent(zone, z -> LocalDateTime.ofInstant(Instant.ofEpochMilli(time), z));
+    }
+}
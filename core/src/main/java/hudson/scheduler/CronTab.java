@@ -30,6 +30,14 @@ import static java.util.Calendar.MINUTE;
 import static java.util.Calendar.MONTH;
 
 import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.Locale;
@@ -68,6 +76,17 @@ public final class CronTab {
      */
     private @CheckForNull String specTimezone;
 
+    /**
+     * The zone of {@link #specTimezone}, or null if none is configured.
+     */
+    private @CheckForNull ZoneId zone;
+
+    /**
+     * dayMasks[d]: the days of a month starting on day of week d (0 being Sunday)
+     * which match both the day of month and the day of week.
+     */
+    private final long[] dayMasks = new long[7];
+
     /**
      * @param format the crontab entry to be parsed
      * @throws IllegalArgumentException if the crontab entry cannot be parsed
@@ -141,6 +160,16 @@ public final class CronTab {
             dayOfWeek |= 1; // copy bit 7 over to bit 0
             dayOfWeek &= ~(1 << 7); // clear bit 7 or CalendarField#ceil will return an invalid value 7
         }
+        zone = timezone == null || timezone.isEmpty() ? null : TimeZone.getTimeZone(timezone).toZoneId();
+        for (int first = 0; first < 7; first++) {
+            long days = 0;
+            for (int d = 1; d <= 31; d++) {
+                if (checkBits(dayOfWeek, (first + d - 1) % 7)) {
+                    days |= 1L << d;
+                }
+            }
+            dayMasks[first] = bits[2] & days;
+        }
     }
 
 
@@ -148,27 +177,32 @@ public final class CronTab {
      * Returns true if the given calendar matches
      */
     boolean check(Calendar cal) {
+        if (zone != null) {
+            return check(LocalDateTime.ofInstant(Instant.ofEpochMilli(cal.getTimeInMillis()), zone));
+        }
+        return check(cal.get(MINUTE), cal.get(HOUR_OF_DAY), cal.get(DAY_OF_MONTH), cal.get(MONTH) + 1, cal.get(Calendar.DAY_OF_WEEK) - 1);
+    }
 
-        Calendar checkCal = cal;
+    /**
+     * Returns true if the given minute matches, in the configured time zone if any.
+     */
+    boolean check(CronMinute minute) {
+        return check(minute.fields(zone));
+    }
 
-        if (specTimezone != null && !specTimezone.isEmpty()) {
-            Calendar tzCal = Calendar.getInstance(TimeZone.getTimeZone(specTimezone));
-            tzCal.setTime(cal.getTime());
-            checkCal = tzCal;
-        }
+    private boolean check(LocalDateTime t) {
+        return check(t.getMinute(), t.getHour(), t.getDayOfMonth(), t.getMonthValue(), t.getDayOfWeek().getValue() % 7);
+    }
 
-        if (!checkBits(bits[0], checkCal.get(MINUTE)))
-            return false;
-        if (!checkBits(bits[1], checkCal.get(HOUR_OF_DAY)))
-            return false;
-        if (!checkBits(bits[2], checkCal.get(DAY_OF_MONTH)))
-            return false;
-        if (!checkBits(bits[3], checkCal.get(MONTH) + 1))
-            return false;
-        if (!checkBits(dayOfWeek, checkCal.get(Calendar.DAY_OF_WEEK) - 1))
-            return false;
-
-        return true;
+    /**
+     * @param dayOfWeek 0 for Sunday to 6 for Saturday
+     */
+    private boolean check(int minute, int hour, int dayOfMonth, int month, int dayOfWeek) {
+        return checkBits(bits[0], minute)
+                && checkBits(bits[1], hour)
+                && checkBits(bits[2], dayOfMonth)
+                && checkBits(bits[3], month)
+                && checkBits(this.dayOfWeek, dayOfWeek);
     }
 
     private abstract static class CalendarField {
@@ -483,6 +517,277 @@ public final class CronTab {
         }
     }
 
+    /**
+     * Computes the start of the earliest minute at or after the given time which matches this cron tab,
+     * in its time zone if any, otherwise in the given one.
+     * Unlike {@link #ceil(Calendar)}, this looks up each field in its bit mask rather than stepping a {@link Calendar},
+     * skips local times which do not exist because of daylight saving time, and finds local times which occur twice.
+     *
+     * @param t a time in milliseconds
+     * @param defaultZone the time zone to use if this cron tab has none
+     * @return the time in milliseconds, or -1 if this cron tab does not match within the next two years
+     */
+    long ceil(long t, ZoneId defaultZone) {
+        ZoneId z = zone != null ? zone : defaultZone;
+        ZoneRules rules = z.getRules();
+        long start = Math.floorDiv(t, MINUTE_MILLIS) * MINUTE_MILLIS;
+        Instant instant = Instant.ofEpochMilli(start);
+        LocalDateTime from = LocalDateTime.ofInstant(instant, z);
+        LocalDateTime limit = from.plusYears(2);
+        long result = -1;
+        while (true) {
+            LocalDateTime next = ceil(from, limit);
+            if (next == null) {
+                break;
+            }
+            long candidate = -1;
+            for (ZoneOffset offset : rules.getValidOffsets(next)) {
+                long time = next.toEpochSecond(offset) * 1000;
+                if (time >= start && (candidate < 0 || time < candidate)) {
+                    candidate = time;
+                }
+            }
+            if (candidate >= 0) {
+                result = candidate;
+                break;
+            }
+            // skipped by daylight saving time, or already passed in the second occurrence of this local time
+            from = next.plusMinutes(1);
+        }
+        ZoneOffsetTransition transition = rules.nextTransition(instant);
+        if (transition != null && transition.isOverlap() && (result < 0 || transition.toEpochSecond() * 1000 < result)) {
+            // local times after the transition occur again, so may match before the next one found
+            long again = ceil(transition.toEpochSecond() * 1000, z);
+            if (again >= 0 && (result < 0 || again < result)) {
+                result = again;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the start of the latest minute at or before the given time which matches this cron tab,
+     * in its time zone if any, otherwise in the given one.
+     *
+     * @param t a time in milliseconds
+     * @param defaultZone the time zone to use if this cron tab has none
+     * @return the time in milliseconds, or -1 if this cron tab did not match within the last two years
+     * @see #ceil(long, ZoneId)
+     */
+    long floor(long t, ZoneId defaultZone) {
+        ZoneId z = zone != null ? zone : defaultZone;
+        ZoneRules rules = z.getRules();
+        long end = Math.floorDiv(t, MINUTE_MILLIS) * MINUTE_MILLIS;
+        Instant instant = Instant.ofEpochMilli(end);
+        LocalDateTime from = LocalDateTime.ofInstant(instant, z);
+        LocalDateTime limit = from.minusYears(2);
+        long result = -1;
+        while (true) {
+            LocalDateTime previous = floor(from, limit);
+            if (previous == null) {
+                break;
+            }
+            long candidate = -1;
+            for (ZoneOffset offset : rules.getValidOffsets(previous)) {
+                long time = previous.toEpochSecond(offset) * 1000;
+                if (time <= end && time > candidate) {
+                    candidate = time;
+                }
+            }
+            if (candidate >= 0) {
+                result = candidate;
+                break;
+            }
+            from = previous.minusMinutes(1);
+        }
+        ZoneOffsetTransition transition = rules.previousTransition(instant.plusMillis(1));
+        if (transition != null && transition.isOverlap() && transition.toEpochSecond() * 1000 > result) {
+            // local times before the transition occurred again after it, so may have matched after the previous one found
+            long again = floor(transition.toEpochSecond() * 1000 - 1, z);
+            if (again > result) {
+                result = again;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the earliest local time at or after the given one, and not after the limit, which matches this cron tab.
+     */
+    private @CheckForNull LocalDateTime ceil(LocalDateTime from, LocalDateTime limit) {
+        int year = from.getYear();
+        int month = from.getMonthValue();
+        int day = from.getDayOfMonth();
+        int hour = from.getHour();
+        int minute = from.getMinute();
+        while (year <= limit.getYear()) {
+            int m = ceilBit(bits[3] & MONTHS, month);
+            if (m < 0) {
+                year++;
+                month = 1;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                continue;
+            }
+            if (m != month) {
+                month = m;
+                day = 1;
+                hour = 0;
+                minute = 0;
+            }
+            int d = ceilBit(daysOf(year, month), day);
+            if (d < 0) {
+                month++;
+                day = 1;
+                hour = 0;
+                minute = 0;
+                if (month > 12) {
+                    year++;
+                    month = 1;
+                }
+                continue;
+            }
+            if (d != day) {
+                day = d;
+                hour = 0;
+                minute = 0;
+            }
+            int h = ceilBit(bits[1] & HOURS, hour);
+            if (h < 0) {
+                day++;
+                hour = 0;
+                minute = 0;
+                continue;
+            }
+            if (h != hour) {
+                hour = h;
+                minute = 0;
+            }
+            int min = ceilBit(bits[0] & MINUTES, minute);
+            if (min < 0) {
+                hour++;
+                minute = 0;
+                continue;
+            }
+            LocalDateTime next = LocalDateTime.of(year, month, day, hour, min);
+            return next.isAfter(limit) ? null : next;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the latest local time at or before the given one, and not before the limit, which matches this cron tab.
+     */
+    private @CheckForNull LocalDateTime floor(LocalDateTime from, LocalDateTime limit) {
+        int year = from.getYear();
+        int month = from.getMonthValue();
+        int day = from.getDayOfMonth();
+        int hour = from.getHour();
+        int minute = from.getMinute();
+        while (year >= limit.getYear()) {
+            int m = floorBit(bits[3] & MONTHS, month);
+            if (m < 0) {
+                year--;
+                month = 12;
+                day = 31;
+                hour = 23;
+                minute = 59;
+                continue;
+            }
+            if (m != month) {
+                month = m;
+                day = 31;
+                hour = 23;
+                minute = 59;
+            }
+            int d = floorBit(daysOf(year, month), day);
+            if (d < 0) {
+                month--;
+                day = 31;
+                hour = 23;
+                minute = 59;
+                if (month < 1) {
+                    year--;
+                    month = 12;
+                }
+                continue;
+            }
+            if (d != day) {
+                day = d;
+                hour = 23;
+                minute = 59;
+            }
+            int h = floorBit(bits[1] & HOURS, hour);
+            if (h < 0) {
+                day--;
+                hour = 23;
+                minute = 59;
+                continue;
+            }
+            if (h != hour) {
+                hour = h;
+                minute = 59;
+            }
+            int min = floorBit(bits[0] & MINUTES, minute);
+            if (min < 0) {
+                hour--;
+                minute = 59;
+                continue;
+            }
+            LocalDateTime previous = LocalDateTime.of(year, month, day, hour, min);
+            return previous.isBefore(limit) ? null : previous;
+        }
+        return null;
+    }
+
+    /**
+     * The days of the given month which match this cron tab.
+     */
+    private long daysOf(int year, int month) {
+        int length = Month.of(month).length(Year.isLeap(year));
+        return dayMasks[dayOfWeek(year, month, 1)] & ((1L << (length + 1)) - 2);
+    }
+
+    /**
+     * @return 0 for Sunday to 6 for Saturday
+     */
+    static int dayOfWeek(int year, int month, int day) {
+        if (month < 3) {
+            year--;
+        }
+        return Math.floorMod(year + Math.floorDiv(year, 4) - Math.floorDiv(year, 100) + Math.floorDiv(year, 400) + MONTH_OFFSETS[month - 1] + day, 7);
+    }
+
+    private static final int[] MONTH_OFFSETS = {0, 3, 2, 5, 0, 3, 5, 1, 4, 6, 2, 4};
+
+    /**
+     * Returns the smallest set bit at or above n, or -1 if there is none.
+     */
+    private static int ceilBit(long bits, int n) {
+        if (n > 63) {
+            return -1;
+        }
+        long masked = bits & (-1L << n);
+        return masked == 0 ? -1 : Long.numberOfTrailingZeros(masked);
+    }
+
+    /**
+     * Returns the largest set bit at or below n, or -1 if there is none.
+     */
+    private static int floorBit(long bits, int n) {
+        if (n < 0) {
+            return -1;
+        }
+        long masked = n >= 63 ? bits : bits & ((1L << (n + 1)) - 1);
+        return masked == 0 ? -1 : 63 - Long.numberOfLeadingZeros(masked);
+    }
+
+    private static final long MINUTE_MILLIS = 60 * 1000L;
+    private static final long MINUTES = (1L << 60) - 1;
+    private static final long HOURS = (1L << 24) - 1;
+    private static final long MONTHS = ((1L << 13) - 1) & ~1L;
+
     /**
      * @param format the crontab entry to be parsed
      * @throws IllegalArgumentException if the crontab entry cannot be parsed
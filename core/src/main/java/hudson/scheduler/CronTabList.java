@@ -27,6 +27,7 @@ package hudson.scheduler;
 import antlr.ANTLRException;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.TimeZone;
@@ -59,6 +60,21 @@ public final class CronTabList {
         return false;
     }
 
+    /**
+     * Returns true if the given minute matches.
+     * Faster than {@link #check(Calendar)} when checking many cron tabs against the same minute.
+     *
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public synchronized boolean check(@NonNull CronMinute minute) {
+        for (CronTab tab : tabs) {
+            if (tab.check(minute))
+                return true;
+        }
+        return false;
+    }
+
     /**
      * Checks if this crontab entry looks reasonable,
      * and if not, return an warning message.
@@ -135,6 +151,45 @@ public final class CronTabList {
         return new CronTabList(r);
     }
 
+    /**
+     * Computes the earliest time at or after the given one which matches any of the cron tabs,
+     * taking their time zones into account like {@link #check(Calendar)} does.
+     *
+     * @param t a time in milliseconds
+     * @return the start of the matching minute in milliseconds, or -1 if none of the cron tabs matches within the next two years
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public synchronized long ceil(long t) {
+        ZoneId defaultZone = ZoneId.systemDefault();
+        long nearest = -1;
+        for (CronTab tab : tabs) {
+            long next = tab.ceil(t, defaultZone);
+            if (next >= 0 && (nearest < 0 || next < nearest)) {
+                nearest = next;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Computes the latest time at or before the given one which matches any of the cron tabs,
+     * taking their time zones into account like {@link #check(Calendar)} does.
+     *
+     * @param t a time in milliseconds
+     * @return the start of the matching minute in milliseconds, or -1 if none of the cron tabs matched within the last two years
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public synchronized long floor(long t) {
+        ZoneId defaultZone = ZoneId.systemDefault();
+        long nearest = -1;
+        for (CronTab tab : tabs) {
+            nearest = Math.max(nearest, tab.floor(t, defaultZone));
+        }
+        return nearest;
+    }
+
     @Restricted(NoExternalUse.class) // just for form validation
     public @CheckForNull Calendar previous() {
         Calendar nearest = null;
@@ -0,0 +1,197 @@
+package hudson.slaves;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Health of the connection to an agent, as measured by the pings sent by {@link ChannelPinger}.
+ *
+ * <p>Records the round trip time of each ping in a histogram, and decides when the next ping should be sent:
+ * less often for idle agents whose pings are fast, more often for agents whose pings are getting slow
+ * or which keep reconnecting.
+ *
+ * <p>One instance is kept per {@link SlaveComputer} and survives reconnections.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public final class ChannelHealth {
+
+    /**
+     * Upper bounds of the histogram buckets, in milliseconds. The last bucket holds slower pings.
+     */
+    private static final long[] BUCKETS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+    /** Weight of the latest ping in the average round trip time. */
+    private static final double ALPHA = 0.1;
+
+    /** A ping is considered slow when it takes this many times longer than the average. */
+    private static final int SLOW_FACTOR = 4;
+
+    /** Pings faster than this are never considered slow. */
+    private static final long SLOW_MINIMUM_MILLIS = 100;
+
+    /** An agent is considered flapping when it connected this many times during {@link #FLAP_WINDOW_MILLIS}. */
+    private static final int FLAP_CONNECTIONS = 3;
+
+    private static final long FLAP_WINDOW_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /** How much slower or faster than configured the pings may be sent. */
+    static final int INTERVAL_FACTOR = 4;
+
+    private final long[] histogram = new long[BUCKETS.length + 1];
+    private long pings;
+    private long lastRoundTrip = -1;
+    private double averageRoundTrip = -1;
+    private boolean slow;
+
+    /** Round trip times not yet reported by {@link #takeAverageRoundTrip()}. */
+    private long unreportedTotal;
+    private int unreported;
+
+    /** Times at which the agent connected, within the last {@link #FLAP_WINDOW_MILLIS}. */
+    private final Deque<Long> connections = new ArrayDeque<>();
+
+    private long interval;
+
+    /**
+     * Records a new connection of the agent.
+     */
+    synchronized void onConnected(long now) {
+        connections.addLast(now);
+        expireConnections(now);
+        slow = false;
+        interval = 0;
+    }
+
+    private void expireConnections(long now) {
+        while (!connections.isEmpty() && connections.peekFirst() < now - FLAP_WINDOW_MILLIS) {
+            connections.removeFirst();
+        }
+    }
+
+    /**
+     * Records a successful ping.
+     */
+    synchronized void onPing(long roundTripMillis) {
+        int bucket = 0;
+        while (bucket < BUCKETS.length && roundTripMillis > BUCKETS[bucket]) {
+            bucket++;
+        }
+        histogram[bucket]++;
+        pings++;
+
+        slow = averageRoundTrip >= 0
+                && roundTripMillis > Math.max(SLOW_MINIMUM_MILLIS, SLOW_FACTOR * averageRoundTrip);
+        averageRoundTrip = averageRoundTrip < 0 ? roundTripMillis : ALPHA * roundTripMillis + (1 - ALPHA) * averageRoundTrip;
+        lastRoundTrip = roundTripMillis;
+        unreportedTotal += roundTripMillis;
+        unreported++;
+    }
+
+    /**
+     * Computes how long to wait before the next ping.
+     * Flapping agents and agents whose last ping was slow are pinged {@link #INTERVAL_FACTOR} times more often,
+     * while the interval doubles after each fast ping to an idle agent, up to {@link #INTERVAL_FACTOR} times the
+     * configured interval.
+     *
+     * @param configured the configured interval, in milliseconds
+     * @param idle whether the agent is currently idle
+     * @param now current time
+     */
+    synchronized long nextInterval(long configured, boolean idle, long now) {
+        long min = Math.max(1, configured / INTERVAL_FACTOR);
+        long max = configured * INTERVAL_FACTOR;
+        expireConnections(now);
+        if (slow || isFlapping()) {
+            interval = min;
+        } else if (idle) {
+            interval = interval == 0 ? configured : Math.min(interval * 2, max);
+        } else {
+            interval = configured;
+        }
+        return interval;
+    }
+
+    /**
+     * Whether the agent connected several times recently.
+     */
+    public synchronized boolean isFlapping() {
+        return connections.size() >= FLAP_CONNECTIONS;
+    }
+
+    /**
+     * Whether the last ping took much longer than usual.
+     */
+    public synchronized boolean isSlow() {
+        return slow;
+    }
+
+    /**
+     * Number of successful pings.
+     */
+    public synchronized long getPings() {
+        return pings;
+    }
+
+    /**
+     * Round trip time of the last successful ping in milliseconds, or -1 if there is none.
+     */
+    public synchronized long getLastRoundTripMillis() {
+        return lastRoundTrip;
+    }
+
+    /**
+     * Exponential moving average of the round trip times in milliseconds, or -1 if there is none.
+     */
+    public synchronized long getAverageRoundTripMillis() {
+        return Math.round(averageRoundTrip);
+    }
+
+    /**
+     * The interval used after the last ping, in milliseconds, or 0 before the first ping.
+     */
+    public synchronized long getIntervalMillis() {
+        return interval;
+    }
+
+    /**
+     * Upper bounds of the buckets of {@link #getHistogram()}, in milliseconds.
+     */
+    public static long[] getBucketBounds() {
+        return BUCKETS.clone();
+    }
+
+    /**
+     * Number of pings per round trip time bucket.
+     * Has one more element than {@link #getBucketBounds()}, counting the pings slower than the last bound.
+     */
+    public synchronized long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Returns the average round trip time of the pings since the last call, and starts over.
+     *
+     * @return the average in milliseconds, or -1 if there was no ping since the last call
+     */
+    public synchronized long takeAverageRoundTrip() {
+        if (unreported == 0) {
+            return -1;
+        }
+        long average = unreportedTotal / unreported;
+        unreportedTotal = 0;
+        unreported = 0;
+        return average;
+    }
+
+    /**
+     * Whether {@link #takeAverageRoundTrip()} has data to report.
+     */
+    public synchronized boolean hasUnreportedRoundTrips() {
+        return unreported > 0;
+    }
+}
@@ -26,16 +26,22 @@ package hudson.slaves;
 
 import com.google.common.annotations.VisibleForTesting;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.model.Computer;
 import hudson.model.Slave;
 import hudson.model.TaskListener;
 import hudson.remoting.Channel;
+import hudson.remoting.ChannelClosedException;
 import hudson.remoting.PingThread;
+import hudson.remoting.RequestAbortedException;
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -50,6 +56,8 @@ import org.kohsuke.accmod.restrictions.NoExternalUse;
  * and the main Jenkins node alive. This prevents network proxies from
  * terminating connections that are idle for too long.
  *
+ * <p>The round trip time of the pings sent by the controller is recorded in the {@link ChannelHealth} of the agent.
+ *
  * @since 1.405
  */
 @Extension
@@ -62,6 +70,14 @@ public class ChannelPinger extends ComputerListener {
     private static final String INTERVAL_MINUTES_PROPERTY_DEPRECATED = ChannelPinger.class.getName() + ".pingInterval";
     private static final String INTERVAL_SECONDS_PROPERTY = ChannelPinger.class.getName() + ".pingIntervalSeconds";
 
+    /**
+     * Whether the controller adapts the interval between the pings it sends to each agent to the health of the
+     * connection, see {@link ChannelHealth}. The round trip times of the pings are measured either way.
+     */
+    @Restricted(NoExternalUse.class)
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static boolean ADAPTIVE_INTERVAL = SystemProperties.getBoolean(ChannelPinger.class.getName() + ".adaptiveInterval");
+
     /**
      * Timeout for the ping in seconds.
      */
@@ -174,12 +190,80 @@ public class ChannelPinger extends ComputerListener {
         }
     }
 
+    private static final class MeasuredPing extends MasterToSlaveCallable<Void, IOException> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Void call() {
+            return null;
+        }
+    }
+
     @VisibleForTesting
     @Restricted(NoExternalUse.class)
     public static void setUpPingForChannel(final Channel channel, final SlaveComputer computer, int timeoutSeconds, int intervalSeconds, final boolean analysis) {
         LOGGER.log(Level.FINE, "setting up ping on {0} with a {1} seconds interval and {2} seconds timeout", new Object[] {channel.getName(), intervalSeconds, timeoutSeconds});
         final AtomicBoolean isInClosed = new AtomicBoolean(false);
-        final PingThread t = new PingThread(channel, TimeUnit.SECONDS.toMillis(timeoutSeconds), TimeUnit.SECONDS.toMillis(intervalSeconds)) {
+        final long timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        final long intervalMillis = TimeUnit.SECONDS.toMillis(intervalSeconds);
+        final ChannelHealth health = computer != null ? computer.getChannelHealth() : null;
+        final boolean adaptive = health != null && ADAPTIVE_INTERVAL;
+        if (health != null) {
+            health.onConnected(System.currentTimeMillis());
+        }
+        final PingThread t = new PingThread(channel, timeoutMillis, intervalMillis) {
+            @Override
+            public void run() {
+                if (health == null) {
+                    super.run();
+                    return;
+                }
+                // like PingThread.run, but times each ping, whose method is private there,
+                // and lets the health decide when to ping again if the interval is adaptive
+                try {
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (!measuredPing(start)) {
+                            return;
+                        }
+                        long interval = adaptive ? health.nextInterval(intervalMillis, computer.isIdle(), System.currentTimeMillis()) : intervalMillis;
+                        long diff;
+                        while ((diff = start + TimeUnit.MILLISECONDS.toNanos(interval) - System.nanoTime()) > 0) {
+                            TimeUnit.NANOSECONDS.sleep(diff);
+                        }
+                    }
+                } catch (ChannelClosedException e) {
+                    LOGGER.fine(getName() + " is closed. Terminating");
+                } catch (IOException e) {
+                    onDead(e);
+                } catch (InterruptedException e) {
+                    // the channel has been closed
+                    LOGGER.fine(getName() + " is interrupted. Terminating");
+                }
+            }
+
+            /**
+             * @return false if the channel is dead
+             */
+            private boolean measuredPing(long start) throws IOException, InterruptedException {
+                Future<?> f = channel.callAsync(new MeasuredPing());
+                try {
+                    f.get(timeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RequestAbortedException) {
+                        // the connection is shutting down in an orderly fashion
+                        return true;
+                    }
+                    onDead(e);
+                    return false;
+                } catch (TimeoutException e) {
+                    onDead(new TimeoutException("Ping started " + timeoutMillis + "ms ago has not completed"));
+                    return false;
+                }
+                health.onPing(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return true;
+            }
+
             @Override
             protected void onDead(Throwable cause) {
                     if (analysis) {
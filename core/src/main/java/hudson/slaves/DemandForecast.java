@@ -0,0 +1,200 @@
+package hudson.slaves;
+
+import java.util.ArrayDeque;
+import java.util.Calendar;
+import java.util.Deque;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Forecasts the demand for executors of a label, that is the number of busy executors plus the queue length.
+ *
+ * <p>The forecast combines two models:
+ * <ul>
+ *     <li>a seasonal baseline: the peak demand observed during each {@link #SLOT_MINUTES} minutes slot of the week,
+ *     smoothed across weeks, so that a burst recurring every weekday morning is anticipated;</li>
+ *     <li>a short-term trend: double exponential smoothing (Holt) of the recent samples, extrapolated linearly.</li>
+ * </ul>
+ * The larger of the two is used, so that the forecast reacts to unusual growth as well as to the usual bursts.
+ *
+ * <p>Forecasts are remembered until they are due, in order to report how far off they were from the actual demand.
+ *
+ * <p>Instances are persisted with XStream. They are not thread safe.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public final class DemandForecast {
+
+    /**
+     * Length of a seasonal slot.
+     */
+    static final int SLOT_MINUTES = 15;
+
+    private static final int SLOTS = (int) (TimeUnit.DAYS.toMinutes(7) / SLOT_MINUTES);
+
+    /** Weight of the latest week in the seasonal baseline. */
+    private static final float SEASONAL_ALPHA = 0.5f;
+    /** Weight of the latest sample in the short-term level. */
+    private static final float LEVEL_ALPHA = 0.5f;
+    /** Weight of the latest sample in the short-term trend. */
+    private static final float TREND_BETA = 0.1f;
+
+    /** Smoothed peak demand per slot of the week. */
+    private final float[] seasonal = new float[SLOTS];
+    /** Number of weeks observed per slot. */
+    private final int[] weeks = new int[SLOTS];
+
+    /** Slot currently being observed, or -1. */
+    private int currentSlot = -1;
+    /** Peak demand observed in the current slot. */
+    private float currentPeak;
+
+    private float level;
+    /** Trend of the demand, per millisecond. */
+    private float trend;
+    private long lastObservation;
+
+    private transient Deque<Pending> pending;
+    private long forecasts;
+    private double absoluteError;
+    private float lastForecast;
+    private float lastActual;
+
+    private transient TimeZone timeZone;
+
+    public DemandForecast() {
+        this(TimeZone.getDefault());
+    }
+
+    DemandForecast(TimeZone timeZone) {
+        this.timeZone = timeZone;
+    }
+
+    private Object readResolve() {
+        timeZone = TimeZone.getDefault();
+        return this;
+    }
+
+    /**
+     * Records the demand observed at the given time.
+     *
+     * @return true if a seasonal slot has been completed, which is a good time to persist the model
+     */
+    public boolean observe(long time, float demand) {
+        lastActual = demand;
+        settleForecasts(time, demand);
+
+        if (lastObservation == 0) {
+            level = demand;
+            trend = 0;
+        } else if (time > lastObservation) {
+            long dt = time - lastObservation;
+            float previous = level;
+            level = LEVEL_ALPHA * demand + (1 - LEVEL_ALPHA) * (level + trend * dt);
+            trend = TREND_BETA * (level - previous) / dt + (1 - TREND_BETA) * trend;
+        }
+        lastObservation = time;
+
+        int slot = slot(time);
+        boolean completed = false;
+        if (slot != currentSlot) {
+            if (currentSlot >= 0) {
+                fold(currentSlot, currentPeak);
+                completed = true;
+            }
+            currentSlot = slot;
+            currentPeak = demand;
+        } else {
+            currentPeak = Math.max(currentPeak, demand);
+        }
+        return completed;
+    }
+
+    private void fold(int slot, float peak) {
+        if (weeks[slot] == 0) {
+            seasonal[slot] = peak;
+        } else {
+            seasonal[slot] = SEASONAL_ALPHA * peak + (1 - SEASONAL_ALPHA) * seasonal[slot];
+        }
+        weeks[slot]++;
+    }
+
+    /**
+     * Forecasts the demand at {@code time + lead}, and remembers the forecast to later compare it with the actual demand.
+     */
+    public float forecast(long time, long lead) {
+        long target = time + lead;
+        // extrapolating a sudden jump linearly overshoots, so the trend may at most double the current level
+        float shortTerm = level + Math.min(trend * lead, Math.abs(level));
+        int slot = slot(target);
+        float value = Math.max(0, shortTerm);
+        if (weeks[slot] > 0) {
+            value = Math.max(value, seasonal[slot]);
+        }
+        if (pending == null) {
+            pending = new ArrayDeque<>();
+        }
+        pending.addLast(new Pending(target, value));
+        lastForecast = value;
+        return value;
+    }
+
+    private void settleForecasts(long time, float actual) {
+        if (pending == null) {
+            return;
+        }
+        while (!pending.isEmpty() && pending.peekFirst().due <= time) {
+            absoluteError += Math.abs(pending.removeFirst().value - actual);
+            forecasts++;
+        }
+    }
+
+    private int slot(long time) {
+        Calendar cal = Calendar.getInstance(timeZone);
+        cal.setTimeInMillis(time);
+        int day = cal.get(Calendar.DAY_OF_WEEK) - Calendar.SUNDAY;
+        int minute = cal.get(Calendar.HOUR_OF_DAY) * 60 + cal.get(Calendar.MINUTE);
+        return (day * (int) TimeUnit.DAYS.toMinutes(1) + minute) / SLOT_MINUTES;
+    }
+
+    /**
+     * The most recent forecast.
+     */
+    public float getLastForecast() {
+        return lastForecast;
+    }
+
+    /**
+     * The most recently observed demand.
+     */
+    public float getLastActual() {
+        return lastActual;
+    }
+
+    /**
+     * Number of forecasts which have been compared with the actual demand.
+     */
+    public long getSettledForecasts() {
+        return forecasts;
+    }
+
+    /**
+     * Mean absolute difference between the forecasts and the actual demand, in executors.
+     */
+    public double getMeanAbsoluteError() {
+        return forecasts == 0 ? 0 : absoluteError / forecasts;
+    }
+
+    private static final class Pending {
+        final long due;
+        final float value;
+
+        Pending(long due, float value) {
+            this.due = due;
+            this.value = value;
+        }
+    }
+}
@@ -32,7 +32,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.AbortException;
 import hudson.Extension;
 import hudson.ExtensionPoint;
-import hudson.model.Computer;
+import hudson.XmlFile;
 import hudson.model.Label;
 import hudson.model.LoadStatistics;
 import hudson.model.MultiStageTimeSeries;
@@ -41,12 +41,17 @@ import hudson.model.Node;
 import hudson.model.PeriodicWork;
 import hudson.model.Queue;
 import java.awt.Color;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -55,6 +60,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import jenkins.agents.RemotingLane;
 import jenkins.model.Jenkins;
 import jenkins.util.SystemProperties;
 import jenkins.util.Timer;
@@ -184,7 +190,7 @@ public class NodeProvisioner {
             long delay = TimeUnit.SECONDS.toMillis(1) - (System.currentTimeMillis() - lastSuggestedReview);
             if (delay < 0) {
                 lastSuggestedReview = System.currentTimeMillis();
-                Computer.threadPoolForRemoting.submit(() -> {
+                RemotingLane.MISC.executor().submit(() -> {
                     LOGGER.fine(() -> "running suggested review for " + label);
                     update();
                 });
@@ -697,45 +703,8 @@ public class NodeProvisioner {
                                     snapshot.getConnectingExecutors(),
                             });
 
-                    CLOUD:
-                    for (Cloud c : Jenkins.get().clouds) {
-                        if (excessWorkload < 0) {
-                            break;  // enough agents allocated
-                        }
-                        Cloud.CloudState cloudState = new Cloud.CloudState(state.getLabel(), state.getAdditionalPlannedCapacity());
-
-                        // Make sure this cloud actually can provision for this label.
-                        if (c.canProvision(cloudState)) {
-                            // provisioning a new node should be conservative --- for example if excessWorkload is 1.4,
-                            // we don't want to allocate two nodes but just one.
-                            // OTOH, because of the exponential decay, even when we need one agent,
-                            // excess workload is always
-                            // something like 0.95, in which case we want to allocate one node.
-                            // so the threshold here is 1-MARGIN, and hence floor(excessWorkload+MARGIN) is needed to
-                            // handle this.
-
-                            int workloadToProvision = (int) Math.round(Math.floor(excessWorkload + m));
-
-                            for (CloudProvisioningListener cl : CloudProvisioningListener.all()) {
-                                if (cl.canProvision(c, cloudState, workloadToProvision) != null) {
-                                    // consider displaying reasons in a future cloud ux
-                                    continue CLOUD;
-                                }
-                            }
-
-                            Collection<PlannedNode> additionalCapacities = c.provision(cloudState, workloadToProvision);
+                    excessWorkload = provision(state, excessWorkload, m);
 
-                            fireOnStarted(c, state.getLabel(), additionalCapacities);
-
-                            for (PlannedNode ac : additionalCapacities) {
-                                excessWorkload -= ac.numExecutors;
-                                LOGGER.log(Level.INFO, "Started provisioning {0} from {1} with {2,number,integer} "
-                                                + "executors. Remaining excess workload: {3,number,#.###}",
-                                        new Object[]{ac.displayName, c.name, ac.numExecutors, excessWorkload});
-                            }
-                            state.recordPendingLaunches(additionalCapacities);
-                        }
-                    }
                     // we took action, only pass on to other strategies if our action was insufficient
                     return excessWorkload > 1 - m ? StrategyDecision.CONSULT_REMAINING_STRATEGIES : StrategyDecision.PROVISIONING_COMPLETED;
                 }
@@ -791,6 +760,160 @@ public class NodeProvisioner {
         }
     }
 
+    /**
+     * Strategy provisioning ahead of the demand forecast for each label by {@link DemandForecast},
+     * so that capacity for recurring bursts is available when they start rather than minutes later.
+     * <p>
+     * It runs before {@link StandardStrategyImpl} and leaves the remaining decisions to it, only adding
+     * the executors the forecast needs beyond the online, connecting and planned ones.
+     * It is disabled unless {@code hudson.slaves.NodeProvisioner.PredictiveStrategyImpl.enabled} is set.
+     * The lead time should match the time a cloud needs to bring an agent online.
+     * The forecasting models are kept in {@code JENKINS_HOME} to survive restarts.
+     *
+     * @see ProvisioningSimulator
+     * @since TODO
+     */
+    @Extension(ordinal = 100) @Symbol("predictive")
+    public static class PredictiveStrategyImpl extends Strategy {
+
+        @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+        public static boolean ENABLED = SystemProperties.getBoolean(PredictiveStrategyImpl.class.getName() + ".enabled");
+
+        @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+        public static int LEAD_MINUTES = SystemProperties.getInteger(PredictiveStrategyImpl.class.getName() + ".leadMinutes", 5);
+
+        private final Map<String, DemandForecast> forecasts = new ConcurrentHashMap<>();
+        private volatile boolean loaded;
+
+        @NonNull
+        @Override
+        public StrategyDecision apply(@NonNull StrategyState state) {
+            if (!ENABLED) {
+                return StrategyDecision.CONSULT_REMAINING_STRATEGIES;
+            }
+            load();
+            final LoadStatistics.LoadStatisticsSnapshot snapshot = state.getSnapshot();
+            Label label = state.getLabel();
+            DemandForecast forecast = forecasts.computeIfAbsent(label == null ? "" : label.getName(), k -> new DemandForecast());
+            long now = System.currentTimeMillis();
+            float predicted;
+            boolean save;
+            synchronized (forecast) {
+                save = forecast.observe(now, snapshot.getBusyExecutors() + snapshot.getQueueLength());
+                predicted = forecast.forecast(now, TimeUnit.MINUTES.toMillis(LEAD_MINUTES));
+            }
+            if (save) {
+                save();
+            }
+
+            float capacity = snapshot.getOnlineExecutors() + snapshot.getConnectingExecutors()
+                    + state.getPlannedCapacitySnapshot() + state.getAdditionalPlannedCapacity();
+            int missing = (int) Math.floor(predicted - capacity);
+            if (missing > 0) {
+                LOGGER.log(Level.FINE, "Forecast demand of {0,number,#.###} executors for {1} in {2} minutes, provisioning {3}",
+                        new Object[] {predicted, label, LEAD_MINUTES, missing});
+                // the 0.5 offset makes the whole number of executors be provisioned, and no more
+                provision(state, missing - 0.5f, 0.5f);
+            }
+            return StrategyDecision.CONSULT_REMAINING_STRATEGIES;
+        }
+
+        /**
+         * The forecasting model of each label, keyed by label name, or the empty string for the unlabeled provisioner.
+         * Each model reports its latest forecast, the actual demand and the mean forecast error.
+         */
+        public Map<String, DemandForecast> getForecasts() {
+            return Collections.unmodifiableMap(forecasts);
+        }
+
+        private XmlFile getModelFile() {
+            return new XmlFile(Jenkins.XSTREAM2, new File(Jenkins.get().getRootDir(), PredictiveStrategyImpl.class.getName() + ".xml"));
+        }
+
+        private void load() {
+            if (loaded) {
+                return;
+            }
+            synchronized (this) {
+                if (loaded) {
+                    return;
+                }
+                XmlFile file = getModelFile();
+                if (file.exists()) {
+                    try {
+                        Map<?, ?> saved = (Map<?, ?>) file.read();
+                        for (Map.Entry<?, ?> e : saved.entrySet()) {
+                            forecasts.putIfAbsent((String) e.getKey(), (DemandForecast) e.getValue());
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        LOGGER.log(Level.WARNING, "Failed to load " + file, e);
+                    }
+                }
+                loaded = true;
+            }
+        }
+
+        private synchronized void save() {
+            try {
+                // a model concurrently updated for another label may be saved half way through an observation,
+                // which only affects that single observation
+                getModelFile().write(new TreeMap<>(forecasts));
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to save demand forecasts", e);
+            }
+        }
+    }
+
+    /**
+     * Asks the clouds able to provision for the label of the given state to provision the given workload,
+     * recording the resulting planned nodes in the state.
+     *
+     * @param m margin added to the workload when rounding it down to a number of executors
+     * @return the remaining workload
+     */
+    private static float provision(StrategyState state, float excessWorkload, float m) {
+        CLOUD:
+        for (Cloud c : Jenkins.get().clouds) {
+            if (excessWorkload < 0) {
+                break;  // enough agents allocated
+            }
+            Cloud.CloudState cloudState = new Cloud.CloudState(state.getLabel(), state.getAdditionalPlannedCapacity());
+
+            // Make sure this cloud actually can provision for this label.
+            if (c.canProvision(cloudState)) {
+                // provisioning a new node should be conservative --- for example if excessWorkload is 1.4,
+                // we don't want to allocate two nodes but just one.
+                // OTOH, because of the exponential decay, even when we need one agent,
+                // excess workload is always
+                // something like 0.95, in which case we want to allocate one node.
+                // so the threshold here is 1-MARGIN, and hence floor(excessWorkload+MARGIN) is needed to
+                // handle this.
+
+                int workloadToProvision = (int) Math.round(Math.floor(excessWorkload + m));
+
+                for (CloudProvisioningListener cl : CloudProvisioningListener.all()) {
+                    if (cl.canProvision(c, cloudState, workloadToProvision) != null) {
+                        // consider displaying reasons in a future cloud ux
+                        continue CLOUD;
+                    }
+                }
+
+                Collection<PlannedNode> additionalCapacities = c.provision(cloudState, workloadToProvision);
+
+                fireOnStarted(c, state.getLabel(), additionalCapacities);
+
+                for (PlannedNode ac : additionalCapacities) {
+                    excessWorkload -= ac.numExecutors;
+                    LOGGER.log(Level.INFO, "Started provisioning {0} from {1} with {2,number,integer} "
+                                    + "executors. Remaining excess workload: {3,number,#.###}",
+                            new Object[]{ac.displayName, c.name, ac.numExecutors, excessWorkload});
+                }
+                state.recordPendingLaunches(additionalCapacities);
+            }
+        }
+        return excessWorkload;
+    }
+
     /**
      * Periodically invoke NodeProvisioners
      */
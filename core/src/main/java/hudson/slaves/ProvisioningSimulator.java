@@ -0,0 +1,159 @@
+package hudson.slaves;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.LoadStatistics.LoadStatisticsSnapshot;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Replays a trace of {@link LoadStatisticsSnapshot}s against a provisioning policy,
+ * in order to compare how long work waits for executors and how long provisioned executors sit idle.
+ *
+ * <p>The demand at each step is the number of busy executors plus the queue length recorded in the snapshot.
+ * Provisioned executors become available after a fixed delay and are released after staying idle for a while,
+ * like a typical cloud with an idle retention strategy. Each step of the trace is assumed to last {@code interval}
+ * milliseconds, starting at {@code start}.
+ *
+ * <p>Traces can be collected from {@link hudson.model.LoadStatistics#computeSnapshot()} on a running instance,
+ * for example from the script console.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public final class ProvisioningSimulator {
+
+    /**
+     * Decides how many executors to provision.
+     */
+    public interface Policy {
+        /**
+         * @param time current time
+         * @param demand current demand
+         * @param available executors currently online
+         * @param pending executors being provisioned
+         * @return number of executors to provision now
+         */
+        int provision(long time, int demand, int available, int pending);
+    }
+
+    /**
+     * Provisions as many executors as needed by the current queue, similar to
+     * {@link NodeProvisioner.StandardStrategyImpl} without smoothing.
+     */
+    public static @NonNull Policy reactive() {
+        return (time, demand, available, pending) -> Math.max(0, demand - available - pending);
+    }
+
+    /**
+     * Provisions like {@link #reactive()}, plus ahead of the demand forecast by {@link DemandForecast},
+     * like {@link NodeProvisioner.PredictiveStrategyImpl}.
+     */
+    public static @NonNull Policy predictive(long lead) {
+        DemandForecast forecast = new DemandForecast();
+        return (time, demand, available, pending) -> {
+            forecast.observe(time, demand);
+            int predicted = (int) Math.floor(forecast.forecast(time, lead));
+            return Math.max(0, Math.max(demand, predicted) - available - pending);
+        };
+    }
+
+    private final long provisioningDelay;
+    private final long idleTimeout;
+
+    /**
+     * @param provisioningDelay time between the decision to provision an executor and the executor being available
+     * @param idleTimeout time after which an idle executor is released
+     */
+    public ProvisioningSimulator(long provisioningDelay, long idleTimeout) {
+        this.provisioningDelay = provisioningDelay;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public @NonNull Result run(@NonNull List<LoadStatisticsSnapshot> trace, long start, long interval, @NonNull Policy policy) {
+        Result r = new Result();
+        // time at which each pending executor becomes available
+        List<Long> pending = new ArrayList<>();
+        // time at which each available executor was last busy, most recently busy first
+        List<Long> available = new ArrayList<>();
+
+        long time = start;
+        for (LoadStatisticsSnapshot snapshot : trace) {
+            for (Iterator<Long> it = pending.iterator(); it.hasNext(); ) {
+                if (it.next() <= time) {
+                    it.remove();
+                    available.add(0, time);
+                }
+            }
+
+            int demand = snapshot.getBusyExecutors() + snapshot.getQueueLength();
+            int busy = Math.min(demand, available.size());
+            for (int i = 0; i < busy; i++) {
+                available.set(i, time);
+            }
+            r.waitingMillis += (long) (demand - busy) * interval;
+            r.idleMillis += (long) (available.size() - busy) * interval;
+            r.peakExecutors = Math.max(r.peakExecutors, available.size());
+
+            for (Iterator<Long> it = available.listIterator(busy); it.hasNext(); ) {
+                if (time - it.next() >= idleTimeout) {
+                    it.remove();
+                }
+            }
+
+            int n = policy.provision(time, demand, available.size(), pending.size());
+            for (int i = 0; i < n; i++) {
+                pending.add(time + provisioningDelay);
+            }
+            r.provisioned += n;
+            time += interval;
+        }
+        return r;
+    }
+
+    /**
+     * Outcome of a simulation.
+     */
+    public static final class Result {
+        private long waitingMillis;
+        private long idleMillis;
+        private long provisioned;
+        private int peakExecutors;
+
+        /**
+         * Total time units of work spent waiting for an executor, in executor-milliseconds.
+         */
+        public long getWaitingMillis() {
+            return waitingMillis;
+        }
+
+        /**
+         * Total time provisioned executors spent idle, in executor-milliseconds.
+         */
+        public long getIdleMillis() {
+            return idleMillis;
+        }
+
+        /**
+         * Number of executors provisioned.
+         */
+        public long getProvisioned() {
+            return provisioned;
+        }
+
+        /**
+         * Largest number of executors available at once.
+         */
+        public int getPeakExecutors() {
+            return peakExecutors;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{waitingMillis=" + waitingMillis + ", idleMillis=" + idleMillis
+                    + ", provisioned=" + provisioned + ", peakExecutors=" + peakExecutors + "}";
+        }
+    }
+}
@@ -41,6 +41,7 @@ import java.util.GregorianCalendar;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import jenkins.agents.RemotingLane;
 import net.jcip.annotations.GuardedBy;
 import org.jenkinsci.Symbol;
 import org.kohsuke.stapler.DataBoundConstructor;
@@ -184,7 +185,7 @@ public class SimpleScheduledRetentionStrategy extends RetentionStrategy<SlaveCom
             LOGGER.log(INFO, "Trying to launch computer {0} as schedule says it should be on-line at "
                     + "this point in time", new Object[]{c.getName()});
             if (c.isLaunchSupported()) {
-                Computer.threadPoolForRemoting.submit(new Runnable() {
+                RemotingLane.MISC.executor().submit(new Runnable() {
                     @Override
                     public void run() {
                         try {
@@ -79,6 +79,8 @@ import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 import jenkins.agents.AgentComputerUtil;
+import jenkins.agents.ReconnectionScheduler;
+import jenkins.agents.RemotingLane;
 import jenkins.model.Jenkins;
 import jenkins.security.ChannelConfigurator;
 import jenkins.security.MasterToSlaveCallable;
@@ -151,6 +153,8 @@ public class SlaveComputer extends Computer {
 
     private transient volatile String absoluteRemoteFs;
 
+    private final ChannelHealth channelHealth = new ChannelHealth();
+
     public SlaveComputer(Slave slave) {
         super(slave);
         this.log = new RewindableRotatingFileOutputStream(getLogFile(), 10);
@@ -247,6 +251,15 @@ public class SlaveComputer extends Computer {
         return launcher.isLaunchSupported();
     }
 
+    /**
+     * Health of the connection to this agent, as measured by {@link ChannelPinger}.
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public ChannelHealth getChannelHealth() {
+        return channelHealth;
+    }
+
     /**
      * Return the {@link ComputerLauncher} for this {@code SlaveComputer}.
      * @since 1.312
@@ -284,7 +297,7 @@ public class SlaveComputer extends Computer {
 
         closeChannel();
         Throwable threadInfo = new Throwable("launched here");
-        return lastConnectActivity = Computer.threadPoolForRemoting.submit(() -> {
+        return lastConnectActivity = ReconnectionScheduler.get().submit(getName(), () -> {
             // do this on another thread so that the lengthy launch operation
             // (which is typical) won't block UI thread.
 
@@ -741,9 +754,7 @@ public class SlaveComputer extends Computer {
             this.absoluteRemoteFs = remoteFS;
             defaultCharset = Charset.forName(defaultCharsetName);
 
-            synchronized (statusChangeLock) {
-                statusChangeLock.notifyAll();
-            }
+            fireStatusChanged();
         }
         try (ACLContext ctx = ACL.as2(ACL.SYSTEM2)) {
             for (ComputerListener cl : ComputerListener.all()) {
@@ -814,7 +825,7 @@ public class SlaveComputer extends Computer {
     @Override
     public Future<?> disconnect(OfflineCause cause) {
         super.disconnect(cause);
-        return Computer.threadPoolForRemoting.submit(new Runnable() {
+        return RemotingLane.DISCONNECT.executor().submit(new Runnable() {
             @Override
             public void run() {
                 // do this on another thread so that any lengthy disconnect operation
@@ -34,10 +34,18 @@ import java.io.Closeable;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 /**
  * Used by {@link Computer} to keep track of workspaces that are actively in use.
@@ -159,9 +167,41 @@ public final class WorkspaceList {
         }
     }
 
-    private final Map<String, Entry> inUse = new HashMap<>();
+    /**
+     * Number of independently locked parts of each list.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * The workspaces in use, spread over stripes by path so that allocating unrelated workspaces does not contend.
+     * Waiting for a workspace of a stripe is fair.
+     */
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock(true);
+        final Condition released = lock.newCondition();
+        final Map<String, Entry> inUse = new HashMap<>();
+    }
+
+    /** Waits of all the lists, including those of computers which are gone, so that they never decrease. */
+    private static final LongAdder allWaits = new LongAdder();
+    private static final LongAdder allWaitNanos = new LongAdder();
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicInteger maxSuffix = new AtomicInteger(1);
 
     public WorkspaceList() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private Stripe stripe(@NonNull FilePath p) {
+        return stripes[Math.floorMod(p.getRemote().hashCode(), STRIPES)];
     }
 
     /**
@@ -171,7 +211,7 @@ public final class WorkspaceList {
      * This method doesn't block prolonged amount of time. Whenever a desired workspace
      * is in use, the unique variation is added.
      */
-    public synchronized Lease allocate(@NonNull FilePath base) throws InterruptedException {
+    public Lease allocate(@NonNull FilePath base) throws InterruptedException {
         return allocate(base, new Object());
     }
 
@@ -182,43 +222,62 @@ public final class WorkspaceList {
      *      Threads that share the same context can re-acquire the same lock (which will just increment the lock count.)
      *      This allows related executors to share the same workspace.
      */
-    public synchronized Lease allocate(@NonNull FilePath base, Object context) throws InterruptedException {
+    public Lease allocate(@NonNull FilePath base, Object context) throws InterruptedException {
         for (int i = 1; ; i++) {
             FilePath candidate = i == 1 ? base : base.withSuffix(COMBINATOR + i);
-            Entry e = inUse.get(candidate.getRemote());
-            if (e != null && !e.quick && e.context != context)
-                continue;
-            return acquire(candidate, false, context);
+            Stripe s = stripe(candidate);
+            s.lock.lockInterruptibly();
+            try {
+                Entry e = s.inUse.get(candidate.getRemote());
+                if (e != null && !e.quick && e.context != context)
+                    continue;
+                maxSuffix.accumulateAndGet(i, Math::max);
+                return acquire(s, candidate, false, context);
+            } finally {
+                s.lock.unlock();
+            }
         }
     }
 
     /**
      * Just record that this workspace is being used, without paying any attention to the synchronization support.
      */
-    public synchronized Lease record(@NonNull FilePath p) {
+    public Lease record(@NonNull FilePath p) {
         if (LOGGER.isLoggable(Level.FINE)) {
             LOGGER.log(Level.FINE, "recorded " + p, new Throwable("from " + this));
         }
-        Entry old = inUse.put(p.getRemote(), new Entry(p, false));
-        if (old != null)
-            throw new AssertionError("Tried to record a workspace already owned: " + old);
+        Stripe s = stripe(p);
+        s.lock.lock();
+        try {
+            Entry old = s.inUse.put(p.getRemote(), new Entry(p, false));
+            if (old != null)
+                throw new AssertionError("Tried to record a workspace already owned: " + old);
+        } finally {
+            s.lock.unlock();
+        }
         return lease(p);
     }
 
     /**
      * Releases an allocated or acquired workspace.
      */
-    private synchronized void _release(@NonNull FilePath p) {
-        Entry old = inUse.get(p.getRemote());
-        if (old == null)
-            throw new AssertionError("Releasing unallocated workspace " + p);
-        if (LOGGER.isLoggable(Level.FINE)) {
-            LOGGER.log(Level.FINE, "releasing " + p + " with lock count " + old.lockCount, new Throwable("from " + this));
+    private void _release(@NonNull FilePath p) {
+        Stripe s = stripe(p);
+        s.lock.lock();
+        try {
+            Entry old = s.inUse.get(p.getRemote());
+            if (old == null)
+                throw new AssertionError("Releasing unallocated workspace " + p);
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "releasing " + p + " with lock count " + old.lockCount, new Throwable("from " + this));
+            }
+            old.lockCount--;
+            if (old.lockCount == 0)
+                s.inUse.remove(p.getRemote());
+            s.released.signalAll();
+        } finally {
+            s.lock.unlock();
         }
-        old.lockCount--;
-        if (old.lockCount == 0)
-            inUse.remove(p.getRemote());
-        notifyAll();
     }
 
     /**
@@ -227,7 +286,7 @@ public final class WorkspaceList {
      * @return
      *      The same {@link FilePath} as given to this method.
      */
-    public synchronized Lease acquire(@NonNull FilePath p) throws InterruptedException {
+    public Lease acquire(@NonNull FilePath p) throws InterruptedException {
         return acquire(p, false);
     }
 
@@ -238,7 +297,7 @@ public final class WorkspaceList {
      *      If true, indicates that the acquired workspace will be returned quickly.
      *      This makes other calls to {@link #allocate(FilePath)} to wait for the release of this workspace.
      */
-    public synchronized Lease acquire(@NonNull FilePath p, boolean quick) throws InterruptedException {
+    public Lease acquire(@NonNull FilePath p, boolean quick) throws InterruptedException {
         return acquire(p, quick, new Object());
     }
 
@@ -249,31 +308,175 @@ public final class WorkspaceList {
      *      Threads that share the same context can re-acquire the same lock (which will just increment the lock count.)
      *      This allows related executors to share the same workspace.
      */
-    public synchronized Lease acquire(@NonNull FilePath p, boolean quick, Object context) throws InterruptedException {
-        Entry e;
+    public Lease acquire(@NonNull FilePath p, boolean quick, Object context) throws InterruptedException {
+        Stripe s = stripe(p);
+        s.lock.lockInterruptibly();
+        try {
+            return acquire(s, p, quick, context);
+        } finally {
+            s.lock.unlock();
+        }
+    }
 
-        Thread t = Thread.currentThread();
-        String oldName = t.getName();
-        t.setName("Waiting to acquire " + p + " : " + t.getName());
+    /**
+     * Acquires the given workspace if it is available right away.
+     *
+     * @param context
+     *      Threads that share the same context can re-acquire the same lock (which will just increment the lock count.)
+     * @return
+     *      A lease of the given {@link FilePath}, or null if it is in use.
+     * @since TODO
+     */
+    public @CheckForNull Lease tryAcquire(@NonNull FilePath p, boolean quick, Object context) {
+        Stripe s = stripe(p);
+        s.lock.lock();
         try {
-            while (true) {
-                e = inUse.get(p.getRemote());
-                if (e == null || e.context == context)
-                    break;
-                wait();
-            }
+            Entry e = s.inUse.get(p.getRemote());
+            if (e != null && e.context != context)
+                return null;
+            return take(s, p, e, quick, context);
         } finally {
-            t.setName(oldName);
+            s.lock.unlock();
+        }
+    }
+
+    private Lease acquire(Stripe s, @NonNull FilePath p, boolean quick, Object context) throws InterruptedException {
+        assert s.lock.isHeldByCurrentThread();
+        Entry e = s.inUse.get(p.getRemote());
+        if (e != null && e.context != context) {
+            long start = System.nanoTime();
+            Thread t = Thread.currentThread();
+            String oldName = t.getName();
+            t.setName("Waiting to acquire " + p + " : " + t.getName());
+            try {
+                do {
+                    s.released.await();
+                    e = s.inUse.get(p.getRemote());
+                } while (e != null && e.context != context);
+            } finally {
+                t.setName(oldName);
+                long waited = System.nanoTime() - start;
+                waits.increment();
+                totalWaitNanos.add(waited);
+                allWaits.increment();
+                allWaitNanos.add(waited);
+                maxWaitNanos.accumulateAndGet(waited, Math::max);
+            }
         }
+        return take(s, p, e, quick, context);
+    }
+
+    private Lease take(Stripe s, @NonNull FilePath p, @CheckForNull Entry e, boolean quick, Object context) {
         if (LOGGER.isLoggable(Level.FINE)) {
             LOGGER.log(Level.FINE, "acquired " + p + (e == null ? "" : " with lock count " + e.lockCount), new Throwable("from " + this));
         }
 
         if (e != null)    e.lockCount++;
-        else            inUse.put(p.getRemote(), new Entry(p, quick, context));
+        else            s.inUse.put(p.getRemote(), new Entry(p, quick, context));
+        acquisitions.increment();
         return lease(p);
     }
 
+    /**
+     * Gets statistics about the workspaces acquired so far.
+     *
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public @NonNull Statistics getStatistics() {
+        int inUse = 0;
+        for (Stripe s : stripes) {
+            s.lock.lock();
+            try {
+                inUse += s.inUse.size();
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return new Statistics(inUse, acquisitions.sum(), waits.sum(), TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()), maxSuffix.get());
+    }
+
+    /**
+     * Number of workspace acquisitions which had to wait for a release, on any computer, since startup.
+     *
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public static long getAllWaits() {
+        return allWaits.sum();
+    }
+
+    /**
+     * Time spent waiting for workspaces, on any computer, since startup.
+     *
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public static long getAllWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(allWaitNanos.sum());
+    }
+
+    /**
+     * A snapshot of the use of a {@link WorkspaceList}.
+     *
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public static final class Statistics {
+        private final int inUse;
+        private final long acquisitions;
+        private final long waits;
+        private final long totalWaitMillis;
+        private final long maxWaitMillis;
+        private final int maxSuffix;
+
+        Statistics(int inUse, long acquisitions, long waits, long totalWaitMillis, long maxWaitMillis, int maxSuffix) {
+            this.inUse = inUse;
+            this.acquisitions = acquisitions;
+            this.waits = waits;
+            this.totalWaitMillis = totalWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.maxSuffix = maxSuffix;
+        }
+
+        /**
+         * Number of workspaces currently in use.
+         */
+        public int getInUse() {
+            return inUse;
+        }
+
+        /**
+         * Number of workspaces allocated or acquired, including re-acquisitions within the same context.
+         */
+        public long getAcquisitions() {
+            return acquisitions;
+        }
+
+        /**
+         * Number of acquisitions which had to wait for the workspace to be released.
+         */
+        public long getWaits() {
+            return waits;
+        }
+
+        public long getTotalWaitMillis() {
+            return totalWaitMillis;
+        }
+
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        /**
+         * The highest suffix allocated, such as 3 for {@code @3}, or 1 if no suffix was needed.
+         */
+        public int getMaxSuffix() {
+            return maxSuffix;
+        }
+    }
+
     /**
      * Wraps a path into a valid lease.
      */
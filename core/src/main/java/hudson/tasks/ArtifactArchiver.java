@@ -43,6 +43,7 @@ import hudson.remoting.VirtualChannel;
 import hudson.util.FormValidation;
 import java.io.File;
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.file.AccessDeniedException;
 import java.util.HashMap;
 import java.util.Map;
@@ -252,7 +253,11 @@ public class ArtifactArchiver extends Recorder implements SimpleBuildStep {
                 artifacts = environment.expand(artifacts);
             }
 
-            Map<String, String> files = ws.act(new ListFiles(artifacts, excludes, defaultExcludes, caseSensitive, followSymlinks));
+            result = build.getResult();
+            // if nothing matches we want to explain why, so validate the mask in the same remote call
+            boolean validateIfEmpty = result == null || result.isBetterOrEqualTo(Result.UNSTABLE);
+            ListFilesResult listed = ws.act(new ListFiles(artifacts, excludes, defaultExcludes, caseSensitive, followSymlinks, validateIfEmpty));
+            Map<String, String> files = listed.files;
             if (!files.isEmpty()) {
                 build.pickArtifactManager().archive(ws, launcher, BuildListenerAdapter.wrap(listener), files);
                 if (fingerprint) {
@@ -263,16 +268,10 @@ public class ArtifactArchiver extends Recorder implements SimpleBuildStep {
                     f.perform(build, ws, environment, launcher, listener);
                 }
             } else {
-                result = build.getResult();
                 //noinspection StatementWithEmptyBody
-                if (result == null || result.isBetterOrEqualTo(Result.UNSTABLE)) {
-                    try {
-                        String msg = ws.validateAntFileMask(artifacts, FilePath.VALIDATE_ANT_FILE_MASK_BOUND, caseSensitive);
-                        if (msg != null) {
-                            listener.getLogger().println(msg);
-                        }
-                    } catch (Exception e) {
-                        LOG.log(Level.FINE, e, () -> "Failed to validate ant file mask.");
+                if (validateIfEmpty) {
+                    if (listed.validationMessage != null) {
+                        listener.getLogger().println(listed.validationMessage);
                     }
                     if (allowEmptyArchive) {
                         listener.getLogger().println(Messages.ArtifactArchiver_NoMatchFound(artifacts));
@@ -292,22 +291,36 @@ public class ArtifactArchiver extends Recorder implements SimpleBuildStep {
         }
     }
 
-    private static final class ListFiles extends MasterToSlaveFileCallable<Map<String, String>> {
+    private static final class ListFilesResult implements Serializable { // TODO Java 21+ record
+        private static final long serialVersionUID = 1;
+        private final Map<String, String> files;
+        private final @CheckForNull String validationMessage;
+
+        ListFilesResult(Map<String, String> files, @CheckForNull String validationMessage) {
+            this.files = files;
+            this.validationMessage = validationMessage;
+        }
+    }
+
+    private static final class ListFiles extends MasterToSlaveFileCallable<ListFilesResult> {
         private static final long serialVersionUID = 1;
         private final String includes, excludes;
         private final boolean defaultExcludes;
         private final boolean caseSensitive;
         private final boolean followSymlinks;
+        private final boolean validateIfEmpty;
+        private final int validationBound = FilePath.VALIDATE_ANT_FILE_MASK_BOUND;
 
-        ListFiles(String includes, String excludes, boolean defaultExcludes, boolean caseSensitive, boolean followSymlinks) {
+        ListFiles(String includes, String excludes, boolean defaultExcludes, boolean caseSensitive, boolean followSymlinks, boolean validateIfEmpty) {
             this.includes = includes;
             this.excludes = excludes;
             this.defaultExcludes = defaultExcludes;
             this.caseSensitive = caseSensitive;
             this.followSymlinks = followSymlinks;
+            this.validateIfEmpty = validateIfEmpty;
         }
 
-        @Override public Map<String, String> invoke(File basedir, VirtualChannel channel) throws IOException, InterruptedException {
+        @Override public ListFilesResult invoke(File basedir, VirtualChannel channel) throws IOException, InterruptedException {
             Map<String, String> r = new HashMap<>();
 
             FileSet fileSet = Util.createFileSet(basedir, includes, excludes);
@@ -319,7 +332,16 @@ public class ArtifactArchiver extends Recorder implements SimpleBuildStep {
                 f = f.replace(File.separatorChar, '/');
                 r.put(f, f);
             }
-            return r;
+
+            String validationMessage = null;
+            if (r.isEmpty() && validateIfEmpty) {
+                try {
+                    validationMessage = new FilePath(basedir).validateAntFileMask(includes, validationBound, caseSensitive);
+                } catch (Exception e) {
+                    LOG.log(Level.FINE, e, () -> "Failed to validate ant file mask.");
+                }
+            }
+            return new ListFilesResult(r, validationMessage);
         }
     }
 
@@ -45,21 +45,33 @@ import hudson.model.Result;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.remoting.VirtualChannel;
+import hudson.util.DaemonThreadFactory;
 import hudson.util.FormValidation;
+import hudson.util.NamingThreadFactory;
 import hudson.util.PackedMap;
 import hudson.util.RunList;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jenkins.MasterToSlaveFileCallable;
@@ -89,6 +101,13 @@ public class Fingerprinter extends Recorder implements Serializable, DependencyD
     @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
     public static boolean enableFingerprintsInDependencyGraph = SystemProperties.getBoolean(Fingerprinter.class.getName() + ".enableFingerprintsInDependencyGraph");
 
+    /**
+     * Number of threads used to compute digests on the node holding the workspace.
+     * Zero (the default) picks a value based on the number of processors of that node; one disables parallelism.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static int DIGEST_THREADS = SystemProperties.getInteger(Fingerprinter.class.getName() + ".digestThreads", 0);
+
     /**
      * Comma-separated list of files/directories to be fingerprinted.
      */
@@ -198,7 +217,7 @@ public class Fingerprinter extends Recorder implements Serializable, DependencyD
             }
 
             if (enableFingerprintsInDependencyGraph) {
-                Jenkins.get().rebuildDependencyGraphAsync();
+                Jenkins.get().rebuildDependencyGraphAsync(build.getParent());
             }
         } catch (IOException e) {
             Functions.printStackTrace(e, listener.error(Messages.Fingerprinter_Failed()));
@@ -253,7 +272,7 @@ public class Fingerprinter extends Recorder implements Serializable, DependencyD
         }
     }
 
-    private static final class Record implements Serializable {
+    static final class Record implements Serializable {
 
         final boolean produced;
         final String relativePath;
@@ -275,59 +294,135 @@ public class Fingerprinter extends Recorder implements Serializable, DependencyD
         private static final long serialVersionUID = 1L;
     }
 
-    private static final class FindRecords extends MasterToSlaveFileCallable<List<Record>> {
+    static final class FindRecords extends MasterToSlaveFileCallable<List<Record>> {
 
         private final String targets;
         private final String excludes;
         private final boolean defaultExcludes;
         private final boolean caseSensitive;
         private final long buildTimestamp;
+        private final int digestThreads;
 
-        FindRecords(String targets, String excludes, boolean defaultExcludes, boolean caseSensitive, long buildTimestamp) {
+        FindRecords(String targets, String excludes, boolean defaultExcludes, boolean caseSensitive, long buildTimestamp, int digestThreads) {
             this.targets = targets;
             this.excludes = excludes;
             this.defaultExcludes = defaultExcludes;
             this.caseSensitive = caseSensitive;
             this.buildTimestamp = buildTimestamp;
+            this.digestThreads = digestThreads;
         }
 
         @Override
         public List<Record> invoke(File baseDir, VirtualChannel channel) throws IOException {
-            List<Record> results = new ArrayList<>();
-
             FileSet src = Util.createFileSet(baseDir, targets, excludes);
             src.setDefaultexcludes(defaultExcludes);
             src.setCaseSensitive(caseSensitive);
 
             DirectoryScanner ds = src.getDirectoryScanner();
-            for (String f : ds.getIncludedFiles()) {
-                File file = new File(baseDir, f);
-
-                // consider the file to be produced by this build only if the timestamp
-                // is newer than when the build has started.
-                // 2000ms is an error margin since since VFAT only retains timestamp at 2sec precision
-                boolean produced = buildTimestamp <= file.lastModified() + 2000;
-
-                try {
-                    results.add(new Record(produced, f, file.getName(), new FilePath(file).digest()));
-                } catch (IOException e) {
-                    throw new IOException(Messages.Fingerprinter_DigestFailed(file), e);
-                } catch (InterruptedException e) {
-                    throw new IOException(Messages.Fingerprinter_Aborted(), e);
+            String[] files = ds.getIncludedFiles();
+            List<Record> results = new ArrayList<>(files.length);
+
+            int threads = Math.min(files.length, digestThreads > 0 ? digestThreads : Math.min(Runtime.getRuntime().availableProcessors(), 8));
+            if (threads <= 1) {
+                Digester digester = new Digester();
+                for (String f : files) {
+                    results.add(createRecord(baseDir, f, digester));
                 }
+                return results;
             }
 
+            // digest the files in parallel, each worker reusing its own buffer and MessageDigest
+            ThreadLocal<Digester> digesters = ThreadLocal.withInitial(Digester::new);
+            ExecutorService executor = Executors.newFixedThreadPool(threads, new NamingThreadFactory(new DaemonThreadFactory(), "Fingerprinter.FindRecords"));
+            try {
+                List<Future<Record>> futures = new ArrayList<>(files.length);
+                for (String f : files) {
+                    futures.add(executor.submit(() -> createRecord(baseDir, f, digesters.get())));
+                }
+                for (Future<Record> future : futures) {
+                    try {
+                        results.add(future.get());
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof IOException) {
+                            throw (IOException) cause;
+                        }
+                        throw new IOException(cause);
+                    } catch (InterruptedException e) {
+                        throw new IOException(Messages.Fingerprinter_Aborted(), e);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
             return results;
         }
 
+        private Record createRecord(File baseDir, String f, Digester digester) throws IOException {
+            File file = new File(baseDir, f);
+
+            // consider the file to be produced by this build only if the timestamp
+            // is newer than when the build has started.
+            // 2000ms is an error margin since since VFAT only retains timestamp at 2sec precision
+            boolean produced = buildTimestamp <= file.lastModified() + 2000;
+
+            try {
+                return new Record(produced, f, file.getName(), digester.digest(file));
+            } catch (IOException e) {
+                throw new IOException(Messages.Fingerprinter_DigestFailed(file), e);
+            }
+        }
+
+    }
+
+    /**
+     * Computes MD5 digests of files, reading them through a {@link FileChannel} into a reusable buffer.
+     * Not thread-safe; each thread should use its own instance.
+     */
+    private static final class Digester {
+
+        private final MessageDigest md5;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+        // TODO JENKINS-60563 remove MD5 from all usages in Jenkins
+        @SuppressFBWarnings(value = "WEAK_MESSAGE_DIGEST_MD5", justification =
+                "This method should only be used for non-security applications where the MD5 weakness is not a problem.")
+        Digester() {
+            try {
+                md5 = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("MD5 not installed", e);    // impossible
+            }
+        }
+
+        String digest(File file) throws IOException {
+            md5.reset();
+            try (FileChannel ch = FileChannel.open(Util.fileToPath(file), StandardOpenOption.READ)) {
+                buffer.clear();
+                while (ch.read(buffer) != -1) {
+                    buffer.flip();
+                    md5.update(buffer);
+                    buffer.clear();
+                }
+            }
+            return Util.toHexString(md5.digest());
+        }
     }
 
     private void record(Run<?, ?> build, FilePath ws, TaskListener listener, Map<String, String> record, final String targets) throws IOException, InterruptedException {
-        for (Record r : ws.act(new FindRecords(targets, excludes, defaultExcludes, caseSensitive, build.getTimeInMillis()))) {
-            Fingerprint fp = r.addRecord(build);
-            fp.addFor(build);
+        List<Record> records = ws.act(new FindRecords(targets, excludes, defaultExcludes, caseSensitive, build.getTimeInMillis(), DIGEST_THREADS));
+
+        // identical files share a fingerprint, so only look each one up and save it once
+        Map<String, Fingerprint> fingerprints = new LinkedHashMap<>();
+        for (Record r : records) {
+            Fingerprint fp = fingerprints.get(r.md5sum);
+            if (fp == null) {
+                fp = r.addRecord(build);
+                fingerprints.put(r.md5sum, fp);
+            }
             record.put(r.relativePath, fp.getHashString());
         }
+        Fingerprint.addFor(build, fingerprints.values());
     }
 
     @Extension @Symbol("fingerprint")
@@ -0,0 +1,375 @@
+package hudson.triggers;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Schedules the polling of items by repository, as identified by the keys of their SCMs,
+ * instead of polling each item independently as soon as it is requested.
+ * Used by {@link SCMTrigger} when {@link #ENABLED}.
+ *
+ * <p>Each repository is polled in rounds. A round polls all the items of the repository whose polling was requested
+ * since the previous round, at most {@link #MAX_CONCURRENT_PER_REPOSITORY} at once, and requests made during a round
+ * or before the next one may start are merged into the next one. Rounds of a repository start at least
+ * {@link #MIN_INTERVAL_SECONDS} seconds apart, delayed by up to {@link #JITTER_SECONDS} seconds so that many items
+ * polled at the same minute do not all hit the repository at once.
+ *
+ * <p>Each item still polls against its own baseline, so polls are merged by repository rather than shared between items.
+ *
+ * <p>A repository is forgotten, with its statistics, once nothing is pending or running for it
+ * and its next round could start right away.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public final class SCMPollingScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(SCMPollingScheduler.class.getName());
+
+    /**
+     * Whether to schedule polling by repository.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
+    public static /* non-final for Groovy */ boolean ENABLED = SystemProperties.getBoolean(SCMPollingScheduler.class.getName() + ".enabled");
+
+    /**
+     * Maximum number of items of the same repository polled at once. Zero or less means no limit.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
+    public static /* non-final for Groovy */ int MAX_CONCURRENT_PER_REPOSITORY = SystemProperties.getInteger(SCMPollingScheduler.class.getName() + ".maxConcurrentPerRepository", 2);
+
+    /**
+     * Minimum time between the start of two polling rounds of the same repository.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
+    public static /* non-final for Groovy */ int MIN_INTERVAL_SECONDS = SystemProperties.getInteger(SCMPollingScheduler.class.getName() + ".minIntervalSeconds", 60);
+
+    /**
+     * Maximum random delay added before each polling round.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
+    public static /* non-final for Groovy */ int JITTER_SECONDS = SystemProperties.getInteger(SCMPollingScheduler.class.getName() + ".jitterSeconds", 10);
+
+    private final Supplier<ExecutorService> executors;
+    private final ScheduledExecutorService timer;
+    private final Map<String, Repository> repositories = new TreeMap<>();
+
+    /**
+     * @param executors the current executors performing the polling
+     * @param timer used to wait for the next round
+     */
+    SCMPollingScheduler(Supplier<ExecutorService> executors, ScheduledExecutorService timer) {
+        this.executors = executors;
+        this.timer = timer;
+    }
+
+    /**
+     * Requests a polling.
+     *
+     * @param key the repository polled
+     * @param runner performs the polling; requests for runners which are equal, such as for the same item, are merged
+     */
+    public void submit(@NonNull String key, @NonNull Runnable runner) {
+        synchronized (this) {
+            Repository r = repositories.computeIfAbsent(key, Repository::new);
+            r.requests++;
+            r.pending.putIfAbsent(runner, System.currentTimeMillis());
+            schedule(r);
+        }
+    }
+
+    private void schedule(Repository r) {
+        assert Thread.holdsLock(this);
+        if (r.scheduled || r.running > 0 || r.pending.isEmpty()) {
+            return;
+        }
+        long delay = Math.max(0, r.nextRound - System.currentTimeMillis());
+        if (JITTER_SECONDS > 0) {
+            delay += ThreadLocalRandom.current().nextLong(TimeUnit.SECONDS.toMillis(JITTER_SECONDS));
+        }
+        try {
+            timer.schedule(() -> startRound(r), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException x) {
+            // the next request will try again
+            LOGGER.log(Level.WARNING, "Failed to schedule the polling of " + r.key, x);
+            return;
+        }
+        r.scheduled = true;
+    }
+
+    private static boolean isIdle(Repository r) {
+        return !r.scheduled && r.running == 0 && r.pending.isEmpty();
+    }
+
+    /**
+     * Forgets the repository if it is idle, once it may be polled again without waiting.
+     */
+    private void expireIfIdle(Repository r) {
+        assert Thread.holdsLock(this);
+        if (!isIdle(r)) {
+            return;
+        }
+        long delay = r.nextRound - System.currentTimeMillis();
+        if (delay <= 0) {
+            repositories.remove(r.key, r);
+            return;
+        }
+        try {
+            timer.schedule(() -> {
+                synchronized (this) {
+                    // otherwise polled again meanwhile, and expired after that round
+                    if (isIdle(r) && System.currentTimeMillis() >= r.nextRound) {
+                        repositories.remove(r.key, r);
+                    }
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException x) {
+            LOGGER.log(Level.FINE, "Failed to schedule the expiry of " + r.key, x);
+        }
+    }
+
+    private void startRound(Repository r) {
+        Deque<Map.Entry<Runnable, Long>> round;
+        int workers;
+        synchronized (this) {
+            r.scheduled = false;
+            round = new ArrayDeque<>(r.pending.entrySet());
+            r.pending.clear();
+            if (round.isEmpty()) {
+                expireIfIdle(r);
+                return;
+            }
+            r.nextRound = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(MIN_INTERVAL_SECONDS);
+            workers = MAX_CONCURRENT_PER_REPOSITORY > 0 ? Math.min(MAX_CONCURRENT_PER_REPOSITORY, round.size()) : round.size();
+            r.running = workers;
+            r.rounds++;
+        }
+        LOGGER.log(Level.FINE, "Polling {0} items of {1}", new Object[] {round.size(), r.key});
+        for (int i = 0; i < workers; i++) {
+            try {
+                executors.get().execute(() -> work(r, round));
+            } catch (RejectedExecutionException x) {
+                // the executors were replaced meanwhile
+                try {
+                    executors.get().execute(() -> work(r, round));
+                } catch (RejectedExecutionException x2) {
+                    LOGGER.log(Level.WARNING, "Failed to poll " + r.key, x2);
+                    finish(r, round);
+                }
+            }
+        }
+    }
+
+    private void work(Repository r, Deque<Map.Entry<Runnable, Long>> round) {
+        while (true) {
+            Map.Entry<Runnable, Long> next;
+            synchronized (this) {
+                next = round.poll();
+                if (next == null) {
+                    finish(r, round);
+                    return;
+                }
+                long wait = System.currentTimeMillis() - next.getValue();
+                r.totalWait += wait;
+                r.maxWait = Math.max(r.maxWait, wait);
+                r.inProgress.add(next.getKey());
+            }
+            long start = System.nanoTime();
+            try {
+                next.getKey().run();
+            } catch (RuntimeException | Error x) {
+                LOGGER.log(Level.WARNING, "Failed to poll " + r.key, x);
+            } finally {
+                long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                synchronized (this) {
+                    r.inProgress.remove(next.getKey());
+                    r.polls++;
+                    r.totalDuration += duration;
+                    r.lastDuration = duration;
+                }
+            }
+        }
+    }
+
+    private synchronized void finish(Repository r, Deque<Map.Entry<Runnable, Long>> round) {
+        if (--r.running > 0) {
+            return;
+        }
+        // put back what could not be polled
+        for (Map.Entry<Runnable, Long> e : round) {
+            r.pending.putIfAbsent(e.getKey(), e.getValue());
+        }
+        round.clear();
+        schedule(r);
+        expireIfIdle(r);
+    }
+
+    /**
+     * Gets the runners currently polling.
+     */
+    public synchronized @NonNull Set<Runnable> getInProgress() {
+        Set<Runnable> items = new HashSet<>();
+        for (Repository r : repositories.values()) {
+            items.addAll(r.inProgress);
+        }
+        return items;
+    }
+
+    /**
+     * Number of pollings waiting for their round.
+     */
+    public synchronized int getQueueDepth() {
+        return repositories.values().stream().mapToInt(r -> r.pending.size()).sum();
+    }
+
+    /**
+     * How long the polling which has been waiting the longest has been waiting, in milliseconds.
+     */
+    public synchronized long getOldestWaitMillis() {
+        long now = System.currentTimeMillis();
+        long oldest = 0;
+        for (Repository r : repositories.values()) {
+            for (long requested : r.pending.values()) {
+                oldest = Math.max(oldest, now - requested);
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Gets the statistics of each repository, ordered by key.
+     */
+    public synchronized @NonNull List<RepositoryStatistics> getStatistics() {
+        List<RepositoryStatistics> statistics = new ArrayList<>();
+        for (Repository r : repositories.values()) {
+            statistics.add(new RepositoryStatistics(r));
+        }
+        return statistics;
+    }
+
+    private static final class Repository {
+        final String key;
+        /** Runners waiting for the next round, with when they were requested. */
+        final Map<Runnable, Long> pending = new LinkedHashMap<>();
+        final Set<Runnable> inProgress = new HashSet<>();
+        boolean scheduled;
+        int running;
+        long nextRound;
+
+        long requests;
+        long rounds;
+        long polls;
+        long totalWait;
+        long maxWait;
+        long totalDuration;
+        long lastDuration;
+
+        Repository(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * A snapshot of the polling of a repository.
+     */
+    public static final class RepositoryStatistics {
+        private final String key;
+        private final long requests;
+        private final long rounds;
+        private final long polls;
+        private final int queueDepth;
+        private final int running;
+        private final long averageWaitMillis;
+        private final long maxWaitMillis;
+        private final long averageDurationMillis;
+        private final long lastDurationMillis;
+
+        RepositoryStatistics(Repository r) {
+            key = r.key;
+            requests = r.requests;
+            rounds = r.rounds;
+            polls = r.polls;
+            queueDepth = r.pending.size();
+            running = r.inProgress.size();
+            averageWaitMillis = r.polls == 0 ? 0 : r.totalWait / r.polls;
+            maxWaitMillis = r.maxWait;
+            averageDurationMillis = r.polls == 0 ? 0 : r.totalDuration / r.polls;
+            lastDurationMillis = r.lastDuration;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Number of pollings requested, including those merged with another request.
+         */
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getRounds() {
+            return rounds;
+        }
+
+        /**
+         * Number of pollings performed.
+         */
+        public long getPolls() {
+            return polls;
+        }
+
+        /**
+         * Number of pollings waiting for the next round.
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * Number of pollings in progress.
+         */
+        public int getRunning() {
+            return running;
+        }
+
+        /**
+         * Average time between the request of a polling and its start.
+         */
+        public long getAverageWaitMillis() {
+            return averageWaitMillis;
+        }
+
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        public long getAverageDurationMillis() {
+            return averageDurationMillis;
+        }
+
+        public long getLastDurationMillis() {
+            return lastDurationMillis;
+        }
+    }
+}
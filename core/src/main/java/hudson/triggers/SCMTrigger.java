@@ -68,8 +68,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -79,6 +81,8 @@ import jenkins.model.RunAction2;
 import jenkins.scm.SCMDecisionHandler;
 import jenkins.triggers.SCMTriggerItem;
 import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+import jenkins.util.VirtualThreads;
 import net.sf.json.JSONObject;
 import org.apache.commons.jelly.XMLOutput;
 import org.jenkinsci.Symbol;
@@ -188,7 +192,16 @@ public class SCMTrigger extends Trigger<Item> {
             // even if we end up submitting this too many times, that's OK.
             // the real exclusion control happens inside Runner.
             LOGGER.fine("scheduling the trigger to (asynchronously) run");
-            d.queue.execute(new Runner(additionalActions));
+            if (SCMPollingScheduler.ENABLED) {
+                d.scheduler.submit(repositoryKey(job()), new Runner(additionalActions));
+            } else {
+                try {
+                    d.queue.execute(new Runner(additionalActions));
+                } catch (RejectedExecutionException e) {
+                    // expected when the backlog is full, so the stack trace would only add noise
+                    LOGGER.log(Level.WARNING, "Too many pollings waiting, skipping the polling of {0}", job);
+                }
+            }
             d.clogCheck();
         }
     }
@@ -218,7 +231,7 @@ public class SCMTrigger extends Trigger<Item> {
     public static class DescriptorImpl extends TriggerDescriptor implements PersistentDescriptor {
 
         private static ThreadFactory threadFactory() {
-            return new NamingThreadFactory(new DaemonThreadFactory(), "SCMTrigger");
+            return new NamingThreadFactory(new DaemonThreadFactory(VirtualThreads.baseThreadFactory()), "SCMTrigger");
         }
 
         /**
@@ -231,6 +244,11 @@ public class SCMTrigger extends Trigger<Item> {
          */
         private final transient SequentialExecutionQueue queue = new SequentialExecutionQueue(Executors.newSingleThreadExecutor(threadFactory()));
 
+        /**
+         * Used instead of {@link #queue} when {@link SCMPollingScheduler#ENABLED}, running the polling on the same executors.
+         */
+        private final transient SCMPollingScheduler scheduler = new SCMPollingScheduler(this::getExecutor, Timer.get());
+
         /**
          * Whether the projects should be polled all in one go in the order of dependencies. The default behavior is
          * that each project polls for changes independently.
@@ -267,7 +285,27 @@ public class SCMTrigger extends Trigger<Item> {
          * than it can handle.
          */
         public boolean isClogged() {
-            return queue.isStarving(STARVATION_THRESHOLD);
+            return queue.isStarving(STARVATION_THRESHOLD) || scheduler.getOldestWaitMillis() > STARVATION_THRESHOLD;
+        }
+
+        /**
+         * Gets the scheduler used when {@link SCMPollingScheduler#ENABLED}, and its statistics by repository.
+         *
+         * @since TODO
+         */
+        @Restricted(NoExternalUse.class)
+        public SCMPollingScheduler getPollingScheduler() {
+            return scheduler;
+        }
+
+        /**
+         * Gets the queue used unless {@link SCMPollingScheduler#ENABLED}, for its statistics.
+         *
+         * @since TODO
+         */
+        @Restricted(NoExternalUse.class)
+        public SequentialExecutionQueue getPollingQueue() {
+            return queue;
         }
 
         /**
@@ -282,7 +320,9 @@ public class SCMTrigger extends Trigger<Item> {
          * Gets the snapshot of {@link Runner}s that are performing polling.
          */
         public List<Runner> getRunners() {
-            return Util.filter(queue.getInProgress(), Runner.class);
+            List<Runner> r = Util.filter(queue.getInProgress(), Runner.class);
+            r.addAll(Util.filter(scheduler.getInProgress(), Runner.class));
+            return r;
         }
 
          // originally List<SCMedItem> but known to be used only for logging, in which case the instances are not actually cast to SCMedItem anyway
@@ -301,7 +341,7 @@ public class SCMTrigger extends Trigger<Item> {
 
         /**
          * Gets the number of concurrent threads used for polling.
-         *
+         * When polling runs on virtual threads, see {@link VirtualThreads#isEnabled()}, there is no such limit.
          */
         public int getPollingThreadCount() {
             return maximumThreads;
@@ -352,7 +392,10 @@ public class SCMTrigger extends Trigger<Item> {
          */
         @PostConstruct
         /*package*/ synchronized void resizeThreadPool() {
-            queue.setExecutors(Executors.newFixedThreadPool(maximumThreads, threadFactory()));
+            queue.setMaxBacklog(MAX_POLLING_BACKLOG);
+            queue.setExecutors(VirtualThreads.isEnabled()
+                    ? VirtualThreads.newThreadPerTaskExecutor(threadFactory())
+                    : Executors.newFixedThreadPool(maximumThreads, threadFactory()));
         }
 
         @Override
@@ -705,6 +748,23 @@ public class SCMTrigger extends Trigger<Item> {
         return SCMTriggerItem.SCMTriggerItems.asSCMTriggerItem(job);
     }
 
+    /**
+     * Identifies the repositories polled by the given item, using the keys of its SCMs.
+     * Items whose SCMs do not provide a key are considered to poll their own repository.
+     */
+    static String repositoryKey(SCMTriggerItem item) {
+        Set<String> keys = new TreeSet<>();
+        for (SCM scm : item.getSCMs()) {
+            String key = scm.getKey();
+            if (key.equals(scm.getType())) {
+                // the default key, not distinctive
+                return item.asItem().getFullName();
+            }
+            keys.add(key);
+        }
+        return keys.isEmpty() ? item.asItem().getFullName() : String.join("\n", keys);
+    }
+
     public static class SCMTriggerCause extends Cause {
         /**
          * Only used while ths cause is in the queue.
@@ -780,4 +840,13 @@ public class SCMTrigger extends Trigger<Item> {
      */
     @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
     public static long STARVATION_THRESHOLD = SystemProperties.getLong(SCMTrigger.class.getName() + ".starvationThreshold", TimeUnit.HOURS.toMillis(1));
+
+    /**
+     * How many distinct pollings may wait for a thread before further ones are skipped, or 0 for no limit.
+     * Changes take effect the next time the polling thread count is set.
+     *
+     * @since TODO
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
+    public static int MAX_POLLING_BACKLOG = SystemProperties.getInteger(SCMTrigger.class.getName() + ".maxPollingBacklog", 0);
 }
@@ -45,8 +45,12 @@ import hudson.model.PeriodicWork;
 import hudson.model.Project;
 import hudson.model.TopLevelItem;
 import hudson.model.TopLevelItemDescriptor;
+import hudson.scheduler.CronMinute;
 import hudson.scheduler.CronTabList;
 import hudson.scheduler.Hash;
+import hudson.security.ACL;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import java.io.InvalidObjectException;
 import java.io.ObjectStreamException;
 import java.util.ArrayList;
@@ -55,14 +59,21 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.Timer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jenkins.model.Jenkins;
+import jenkins.security.ImpersonatingExecutorService;
 import jenkins.triggers.TriggeredItem;
+import jenkins.util.ContextResettingExecutorService;
 import jenkins.util.SystemProperties;
 import org.jenkinsci.Symbol;
 import org.kohsuke.accmod.Restricted;
@@ -239,7 +250,11 @@ public abstract class Trigger<J extends Item> implements Describable<Trigger<?>>
             while (new Date().getTime() >= cal.getTimeInMillis()) {
                 LOGGER.log(Level.FINE, "cron checking {0}", cal.getTime());
                 try {
-                    checkTriggers(cal);
+                    if (CRON_INDEX) {
+                        TriggerSchedule.get().check(cal);
+                    } else {
+                        checkTriggers(cal);
+                    }
                 } catch (Throwable e) {
                     LOGGER.log(Level.WARNING, "Cron thread throw an exception", e);
                     // SafeTimerTask.run would also catch this, but be sure to increment cal too.
@@ -255,8 +270,37 @@ public abstract class Trigger<J extends Item> implements Describable<Trigger<?>>
     public static void checkTriggers(final Calendar cal) {
         Jenkins inst = Jenkins.get();
 
-        // Are we using synchronous polling?
         SCMTrigger.DescriptorImpl scmd = inst.getDescriptorByType(SCMTrigger.DescriptorImpl.class);
+        checkSynchronousPolling(scmd);
+
+        CronMinute minute = new CronMinute(cal);
+        // Process all triggers, except SCMTriggers when synchronousPolling is set
+        for (TriggeredItem p : inst.allItems(TriggeredItem.class)) {
+            LOGGER.finer(() -> "considering " + p);
+            for (Trigger t : p.getTriggers().values()) {
+                LOGGER.finer(() -> "found trigger " + t);
+                if (!isSynchronouslyPolled(p, t, scmd)) {
+                    if (t != null && t.spec != null && t.tabs != null) {
+                        LOGGER.log(Level.FINE, "cron checking {0} with spec ‘{1}’", new Object[]{p, t.spec.trim()});
+
+                        if (t.tabs.check(minute)) {
+                            fire(p, t);
+                        } else {
+                            LOGGER.log(Level.FINER, "did not trigger {0}", p);
+                        }
+                    } else {
+                        LOGGER.log(Level.WARNING, "The job {0} has a syntactically incorrect config and is missing the cron spec for a trigger", p.getFullName());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Submits the polling of all the {@link SCMTrigger}s in the order of dependencies, if synchronous polling is enabled.
+     */
+    static void checkSynchronousPolling(SCMTrigger.DescriptorImpl scmd) {
+        // Are we using synchronous polling?
         if (scmd.synchronousPolling) {
             LOGGER.fine("using synchronous polling");
 
@@ -285,46 +329,95 @@ public abstract class Trigger<J extends Item> implements Describable<Trigger<?>>
                 LOGGER.fine("synchronous polling has detected unfinished jobs, will not trigger additional jobs.");
             }
         }
+    }
 
-        // Process all triggers, except SCMTriggers when synchronousPolling is set
-        for (TriggeredItem p : inst.allItems(TriggeredItem.class)) {
-            LOGGER.finer(() -> "considering " + p);
-            for (Trigger t : p.getTriggers().values()) {
-                LOGGER.finer(() -> "found trigger " + t);
-                if (!(p instanceof AbstractProject && t instanceof SCMTrigger && scmd.synchronousPolling)) {
-                    if (t != null && t.spec != null && t.tabs != null) {
-                        LOGGER.log(Level.FINE, "cron checking {0} with spec ‘{1}’", new Object[]{p, t.spec.trim()});
+    /**
+     * Whether the given trigger is run by {@link #checkSynchronousPolling} rather than according to its own spec.
+     */
+    static boolean isSynchronouslyPolled(TriggeredItem p, Trigger<?> t, SCMTrigger.DescriptorImpl scmd) {
+        return p instanceof AbstractProject && t instanceof SCMTrigger && scmd.synchronousPolling;
+    }
 
-                        if (t.tabs.check(cal)) {
-                            LOGGER.log(Level.CONFIG, "cron triggered {0}", p);
-                            try {
-                                long begin_time = System.currentTimeMillis();
-                                if (t.job == null) {
-                                    LOGGER.fine(() -> t + " not yet started on " + p + " but trying to run anyway");
-                                }
-                                t.run();
-                                long end_time = System.currentTimeMillis();
-                                if (end_time - begin_time > CRON_THRESHOLD * 1000) {
-                                    TriggerDescriptor descriptor = t.getDescriptor();
-                                    String name = descriptor.getDisplayName();
-                                    final String msg = String.format("Trigger '%s' triggered by '%s' (%s) spent too much time (%s) in its execution, other timers could be delayed.",
-                                            name, p.getFullDisplayName(), p.getFullName(), Util.getTimeSpanString(end_time - begin_time));
-                                    LOGGER.log(Level.WARNING, msg);
-                                    SlowTriggerAdminMonitor.getInstance().report(descriptor.getClass(), p.getFullName(), end_time - begin_time);
-                                }
-                            } catch (Throwable e) {
-                                // t.run() is a plugin, and some of them throw RuntimeException and other things.
-                                // don't let that cancel the polling activity. report and move on.
-                                LOGGER.log(Level.WARNING, t.getClass().getName() + ".run() failed for " + p, e);
-                            }
-                        } else {
-                            LOGGER.log(Level.FINER, "did not trigger {0}", p);
-                        }
-                    } else {
-                        LOGGER.log(Level.WARNING, "The job {0} has a syntactically incorrect config and is missing the cron spec for a trigger", p.getFullName());
-                    }
+    /**
+     * Triggers currently running on {@link #cronExecutor(int)}.
+     */
+    private static final Set<Trigger<?>> running = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private static ExecutorService cronExecutor;
+    private static int cronThreads;
+
+    /**
+     * Gets the executor running triggers with the given number of threads, replacing the current one if
+     * {@link #CRON_THREADS} changed since it was created. Triggers running on the previous executor complete there.
+     *
+     * @return null if triggers should run inline
+     */
+    static synchronized @CheckForNull ExecutorService cronExecutor(int threads) {
+        if (cronExecutor != null && cronThreads != threads) {
+            cronExecutor.shutdown();
+            cronExecutor = null;
+        }
+        if (threads <= 0) {
+            return null;
+        }
+        if (cronExecutor == null) {
+            cronExecutor = new ContextResettingExecutorService(new ImpersonatingExecutorService(
+                    Executors.newFixedThreadPool(threads, new NamingThreadFactory(new DaemonThreadFactory(), "Trigger.Cron")),
+                    ACL.SYSTEM2));
+            cronThreads = threads;
+        }
+        return cronExecutor;
+    }
+
+    /**
+     * Runs a trigger whose cron spec matched, inline or on a thread of {@link #cronExecutor(int)} if {@link #CRON_THREADS} is set.
+     * A trigger still running from a previous minute is not run again.
+     */
+    static void fire(TriggeredItem p, Trigger<?> t) {
+        LOGGER.log(Level.CONFIG, "cron triggered {0}", p);
+        ExecutorService executor = cronExecutor(CRON_THREADS);
+        if (executor == null) {
+            runTrigger(p, t);
+            return;
+        }
+        if (!running.add(t)) {
+            LOGGER.log(Level.FINE, "{0} is still running for {1}, skipping this run", new Object[] {t, p});
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    runTrigger(p, t);
+                } finally {
+                    running.remove(t);
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            running.remove(t);
+            LOGGER.log(Level.WARNING, "Failed to run " + t + " for " + p, e);
+        }
+    }
+
+    private static void runTrigger(TriggeredItem p, Trigger<?> t) {
+        try {
+            long begin_time = System.currentTimeMillis();
+            if (t.job == null) {
+                LOGGER.fine(() -> t + " not yet started on " + p + " but trying to run anyway");
+            }
+            t.run();
+            long end_time = System.currentTimeMillis();
+            if (end_time - begin_time > CRON_THRESHOLD * 1000) {
+                TriggerDescriptor descriptor = t.getDescriptor();
+                String name = descriptor.getDisplayName();
+                final String msg = String.format("Trigger '%s' triggered by '%s' (%s) spent too much time (%s) in its execution, other timers could be delayed.",
+                        name, p.getFullDisplayName(), p.getFullName(), Util.getTimeSpanString(end_time - begin_time));
+                LOGGER.log(Level.WARNING, msg);
+                SlowTriggerAdminMonitor.getInstance().report(descriptor.getClass(), p.getFullName(), end_time - begin_time);
             }
+        } catch (Throwable e) {
+            // t.run() is a plugin, and some of them throw RuntimeException and other things.
+            // don't let that cancel the polling activity. report and move on.
+            LOGGER.log(Level.WARNING, t.getClass().getName() + ".run() failed for " + p, e);
         }
     }
 
@@ -336,6 +429,22 @@ public abstract class Trigger<J extends Item> implements Describable<Trigger<?>>
     @RestrictedSince("2.289")
     public static /* non-final for Groovy */ long CRON_THRESHOLD = SystemProperties.getLong(Trigger.class.getName() + ".CRON_THRESHOLD", 30L); // Default threshold 30s
 
+    /**
+     * Number of threads running the triggers whose cron spec matched, so that a slow trigger does not delay the others.
+     * Zero runs them one after the other on the cron thread. Changes take effect the next minute.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
+    @Restricted(NoExternalUse.class)
+    public static /* non-final for Groovy */ int CRON_THREADS = SystemProperties.getInteger(Trigger.class.getName() + ".CRON_THREADS", 0);
+
+    /**
+     * Whether to keep the next time each trigger should run in a {@link TriggerSchedule},
+     * rather than checking every trigger of every item every minute.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
+    @Restricted(NoExternalUse.class)
+    public static /* non-final for Groovy */ boolean CRON_INDEX = SystemProperties.getBoolean(Trigger.class.getName() + ".CRON_INDEX");
+
     private static final Logger LOGGER = Logger.getLogger(Trigger.class.getName());
 
     /**
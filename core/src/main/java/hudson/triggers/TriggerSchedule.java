@@ -0,0 +1,242 @@
+package hudson.triggers;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.scheduler.CronMinute;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.triggers.TriggeredItem;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Keeps the next time each cron based {@link Trigger} should run in a priority queue,
+ * so that {@link Trigger.Cron} only looks at the triggers which are due, instead of checking every trigger
+ * of every item every minute. Used when {@link Trigger#CRON_INDEX} is set.
+ *
+ * <p>The next time of a trigger is computed with {@link hudson.scheduler.CronTabList#ceil(long)}.
+ * The triggers of an item are indexed again when it is created, saved, renamed, moved or deleted,
+ * and all items are indexed again every {@link #RESYNC_MINUTES} minutes in case a trigger was changed without saving
+ * its item. Due triggers are still checked against their cron spec before running.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public final class TriggerSchedule {
+
+    private static final Logger LOGGER = Logger.getLogger(TriggerSchedule.class.getName());
+
+    /**
+     * How often all the items are indexed again.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "for script console")
+    public static /* non-final for Groovy */ int RESYNC_MINUTES = SystemProperties.getInteger(TriggerSchedule.class.getName() + ".resyncMinutes", 60);
+
+    private static final TriggerSchedule INSTANCE = new TriggerSchedule();
+
+    static TriggerSchedule get() {
+        return INSTANCE;
+    }
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>((a, b) -> Long.compare(a.next, b.next));
+    private final Map<String, List<Entry>> byItem = new HashMap<>();
+    /** Full names of the items to index again. */
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private volatile boolean resync = true;
+    private long lastResync;
+
+    /**
+     * Runs the triggers due at the given minute.
+     */
+    void check(Calendar cal) {
+        Jenkins j = Jenkins.get();
+        SCMTrigger.DescriptorImpl scmd = j.getDescriptorByType(SCMTrigger.DescriptorImpl.class);
+        Trigger.checkSynchronousPolling(scmd);
+
+        long now = cal.getTimeInMillis();
+        List<Entry> due = new ArrayList<>();
+        synchronized (this) {
+            update(j, now);
+            while (!queue.isEmpty() && queue.peek().next <= now) {
+                Entry e = queue.poll();
+                if (e.valid) {
+                    due.add(e);
+                }
+            }
+        }
+        LOGGER.log(Level.FINE, "{0} triggers due at {1}", new Object[] {due.size(), cal.getTime()});
+
+        CronMinute minute = new CronMinute(cal);
+        for (Entry e : due) {
+            Trigger<?> t = e.trigger;
+            if (Trigger.isSynchronouslyPolled(e.item, t, scmd)) {
+                LOGGER.finer(() -> t + " is synchronously polled");
+            } else if (t.tabs.check(minute)) {
+                Trigger.fire(e.item, t);
+            } else {
+                LOGGER.log(Level.FINER, "did not trigger {0}", e.item);
+            }
+        }
+
+        long from = now + TimeUnit.MINUTES.toMillis(1);
+        synchronized (this) {
+            for (Entry e : due) {
+                if (e.valid) {
+                    schedule(e, from);
+                }
+            }
+        }
+    }
+
+    private void update(Jenkins j, long now) {
+        if (resync || now - lastResync >= TimeUnit.MINUTES.toMillis(RESYNC_MINUTES)) {
+            resync = false;
+            dirty.clear();
+            lastResync = now;
+            long start = System.nanoTime();
+            for (List<Entry> entries : byItem.values()) {
+                entries.forEach(e -> e.valid = false);
+            }
+            queue.clear();
+            byItem.clear();
+            for (TriggeredItem p : j.allItems(TriggeredItem.class)) {
+                index(p, now);
+            }
+            LOGGER.log(Level.FINE, "Indexed {0} triggers in {1}ms", new Object[] {queue.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)});
+            return;
+        }
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            String name = it.next();
+            it.remove();
+            List<Entry> entries = byItem.remove(name);
+            if (entries != null) {
+                // removed from the queue lazily
+                entries.forEach(e -> e.valid = false);
+            }
+            TriggeredItem p = j.getItemByFullName(name, TriggeredItem.class);
+            if (p != null) {
+                index(p, now);
+            }
+        }
+    }
+
+    private void index(TriggeredItem p, long now) {
+        List<Entry> entries = new ArrayList<>();
+        for (Trigger<?> t : p.getTriggers().values()) {
+            if (t == null || t.spec == null || t.tabs == null) {
+                LOGGER.log(Level.WARNING, "The job {0} has a syntactically incorrect config and is missing the cron spec for a trigger", p.getFullName());
+                continue;
+            }
+            Entry e = new Entry(p, t);
+            if (schedule(e, now)) {
+                entries.add(e);
+            }
+        }
+        if (!entries.isEmpty()) {
+            byItem.put(p.getFullName(), entries);
+        }
+    }
+
+    private boolean schedule(Entry e, long from) {
+        e.next = e.trigger.tabs.ceil(from);
+        if (e.next < 0) {
+            // no cron spec, or one that never matches
+            return false;
+        }
+        queue.add(e);
+        return true;
+    }
+
+    void invalidate(String fullName) {
+        if (Trigger.CRON_INDEX) {
+            dirty.add(fullName);
+        }
+    }
+
+    void invalidateAll() {
+        resync = true;
+    }
+
+    /**
+     * Number of triggers currently scheduled.
+     */
+    synchronized int size() {
+        return byItem.values().stream().mapToInt(List::size).sum();
+    }
+
+    private static final class Entry {
+        final TriggeredItem item;
+        final Trigger<?> trigger;
+        long next;
+        boolean valid = true;
+
+        Entry(TriggeredItem item, Trigger<?> trigger) {
+            this.item = item;
+            this.trigger = trigger;
+        }
+    }
+
+    @Extension
+    @Restricted(NoExternalUse.class)
+    public static final class ItemListenerImpl extends ItemListener {
+        @Override
+        public void onCreated(Item item) {
+            get().invalidate(item.getFullName());
+        }
+
+        @Override
+        public void onUpdated(Item item) {
+            get().invalidate(item.getFullName());
+        }
+
+        @Override
+        public void onDeleted(Item item) {
+            if (item instanceof ItemGroup) {
+                get().invalidateAll();
+            } else {
+                get().invalidate(item.getFullName());
+            }
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            // also called for each item inside a renamed folder
+            get().invalidate(oldFullName);
+            get().invalidate(newFullName);
+        }
+
+        @Override
+        public void onLoaded() {
+            get().invalidateAll();
+        }
+    }
+
+    @Extension
+    @Restricted(NoExternalUse.class)
+    public static final class SaveableListenerImpl extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof TriggeredItem) {
+                get().invalidate(((TriggeredItem) o).getFullName());
+            }
+        }
+    }
+}
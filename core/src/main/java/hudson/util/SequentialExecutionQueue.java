@@ -1,12 +1,22 @@
 package hudson.util;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 /**
  * {@link Executor} that collapses two equal {@link Runnable}s into one,
@@ -19,19 +29,35 @@ import java.util.concurrent.ExecutorService;
  * {@link Object#equals(Object)} is used on {@link Runnable} to identify
  * two equal {@link Runnable}s.
  *
+ * <p>
+ * Submission does not lock, so that tens of thousands of distinct {@link Runnable}s can be queued
+ * while others are submitted and run. Distinct {@link Runnable}s are handed to the underlying executors
+ * in the order they were submitted, and one submitted again while running goes to the back of the line,
+ * so that frequently submitted ones cannot starve the others.
+ *
  * @author Kohsuke Kawaguchi
  */
 public class SequentialExecutionQueue implements Executor {
+    private static final Logger LOGGER = Logger.getLogger(SequentialExecutionQueue.class.getName());
+
+    private final Map<Runnable, QueueEntry> entries = new ConcurrentHashMap<>();
+    private volatile ExecutorService executors;
+
     /**
-     * Access is synchronized by {@code Queue.this}
+     * {@link Runnable}s that are currently executing. Useful for trouble-shooting.
      */
-    private final Map<Runnable, QueueEntry> entries = new HashMap<>();
-    private ExecutorService executors;
+    private final Set<QueueEntry> inProgress = ConcurrentHashMap.newKeySet();
 
     /**
-     * {@link Runnable}s that are currently executing. Useful for trouble-shooting.
+     * Number of entries waiting to be run.
      */
-    private final Set<QueueEntry> inProgress = new HashSet<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private volatile int maxBacklog;
+
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
 
     public SequentialExecutionQueue(ExecutorService executors) {
         this.executors = executors;
@@ -40,7 +66,7 @@ public class SequentialExecutionQueue implements Executor {
     /**
      * Gets the base underlying executors.,
      */
-    public synchronized ExecutorService getExecutors() {
+    public ExecutorService getExecutors() {
         return executors;
     }
 
@@ -49,25 +75,76 @@ public class SequentialExecutionQueue implements Executor {
      *
      * <p>
      * The older {@link ExecutorService} will be shut down (but it's still expected to
-     * complete whatever they are doing and scheduled.)
+     * complete whatever they are doing.) If it is a {@link ThreadPoolExecutor}, the tasks
+     * it has not started yet are moved to the new {@link ExecutorService}.
      */
     public synchronized void setExecutors(ExecutorService svc) {
         ExecutorService old = this.executors;
         this.executors = svc;
+        List<Runnable> pending = new ArrayList<>();
+        if (old instanceof ThreadPoolExecutor) {
+            ((ThreadPoolExecutor) old).getQueue().drainTo(pending);
+        }
         // gradually executions will be taken over by a new pool
         old.shutdown();
+        for (Runnable r : pending) {
+            try {
+                svc.execute(r);
+            } catch (RejectedExecutionException x) {
+                LOGGER.log(Level.WARNING, "Failed to move " + r + " to the new executors", x);
+            }
+        }
     }
 
+    /**
+     * Sets the maximum number of distinct {@link Runnable}s waiting to be run, beyond which
+     * {@link #execute(Runnable)} rejects new ones. The bound is approximate under concurrent submissions.
+     * A {@link Runnable} equal to one already submitted is never rejected.
+     *
+     * @param maxBacklog the maximum, or 0 for no limit, the default
+     * @since TODO
+     */
+    public void setMaxBacklog(int maxBacklog) {
+        this.maxBacklog = Math.max(0, maxBacklog);
+    }
 
+    /**
+     * @since TODO
+     */
+    public int getMaxBacklog() {
+        return maxBacklog;
+    }
+
+    /**
+     * @throws RejectedExecutionException if the backlog is full, or if the executors reject the task
+     */
     @Override
-    public synchronized void execute(@NonNull Runnable item) {
-        QueueEntry e = entries.get(item);
-        if (e == null) {
-            e = new QueueEntry(item);
-            entries.put(item, e);
-            e.submit();
-        } else {
-            e.queued = true;
+    public void execute(@NonNull Runnable item) {
+        while (true) {
+            QueueEntry e = entries.get(item);
+            if (e == null) {
+                int max = maxBacklog;
+                if (max > 0 && waiting.get() >= max) {
+                    rejected.increment();
+                    throw new RejectedExecutionException("More than " + max + " tasks waiting, rejecting " + item);
+                }
+                e = new QueueEntry(item);
+                QueueEntry existing = entries.putIfAbsent(item, e);
+                if (existing == null) {
+                    waiting.incrementAndGet();
+                    if (!e.submit()) {
+                        rejected.increment();
+                        throw new RejectedExecutionException("Failed to submit " + item);
+                    }
+                    return;
+                }
+                e = existing;
+            }
+            if (e.requeue()) {
+                return;
+            }
+            // it just completed; help remove it, then start over
+            entries.remove(item, e);
         }
     }
 
@@ -75,7 +152,7 @@ public class SequentialExecutionQueue implements Executor {
      * Returns true if too much time is spent since some {@link Runnable} is submitted into the queue
      * until they get executed.
      */
-    public synchronized boolean isStarving(long threshold) {
+    public boolean isStarving(long threshold) {
         long now = System.currentTimeMillis();
         for (QueueEntry e : entries.values())
             if (now - e.submissionTime > threshold)
@@ -86,7 +163,7 @@ public class SequentialExecutionQueue implements Executor {
     /**
      * Gets {@link Runnable}s that are currently executed by a live thread.
      */
-    public synchronized Set<Runnable> getInProgress() {
+    public Set<Runnable> getInProgress() {
         Set<Runnable> items = new HashSet<>();
         for (QueueEntry entry : inProgress) {
             items.add(entry.item);
@@ -94,41 +171,127 @@ public class SequentialExecutionQueue implements Executor {
         return items;
     }
 
+    /**
+     * Number of distinct {@link Runnable}s waiting to be run.
+     *
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Number of {@link Runnable}s combined with an equal one which was waiting or running, since startup.
+     *
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Number of {@link Runnable}s rejected since startup.
+     *
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Number of executions completed since startup.
+     *
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int RUNNING_QUEUED_AGAIN = 2;
+    private static final int DONE = 3;
+
     private final class QueueEntry implements Runnable {
         private final Runnable item;
-        private boolean queued;
-        private long submissionTime;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private volatile long submissionTime;
 
         private QueueEntry(Runnable item) {
             this.item = item;
-            this.queued = true;
         }
 
-        // Caller must have a lock
-        private void submit() {
+        /**
+         * Hands this entry to the executors, retrying if they are being replaced concurrently.
+         * If they reject it, the entry is removed.
+         */
+        private boolean submit() {
             submissionTime = System.currentTimeMillis();
-            synchronized (SequentialExecutionQueue.this) {
-                executors.submit(this);
+            while (true) {
+                ExecutorService svc = executors;
+                try {
+                    svc.submit(this);
+                    return true;
+                } catch (RejectedExecutionException x) {
+                    if (svc == executors) {
+                        LOGGER.log(Level.FINE, "Executors rejected " + item, x);
+                        state.set(DONE);
+                        waiting.decrementAndGet();
+                        entries.remove(item, this);
+                        return false;
+                    }
+                    // the executors were replaced since; try the new ones
+                }
+            }
+        }
+
+        /**
+         * Requests another execution.
+         *
+         * @return false if this entry completed and another one is needed
+         */
+        private boolean requeue() {
+            while (true) {
+                int s = state.get();
+                if (s == DONE) {
+                    return false;
+                }
+                if (s == RUNNING) {
+                    if (state.compareAndSet(RUNNING, RUNNING_QUEUED_AGAIN)) {
+                        coalesced.increment();
+                        return true;
+                    }
+                } else {
+                    coalesced.increment();
+                    return true;
+                }
             }
         }
 
         @Override
         public void run() {
             try {
-                synchronized (SequentialExecutionQueue.this) {
-                    assert queued;
-                    queued = false;
-                    inProgress.add(this);
-                }
+                state.set(RUNNING);
+                waiting.decrementAndGet();
+                inProgress.add(this);
                 item.run();
             } finally {
-                synchronized (SequentialExecutionQueue.this) {
-                    if (queued)
-                        // another polling for this job is requested while we were doing the polling. do it again.
-                        submit();
-                    else
-                        entries.remove(item);
-                    inProgress.remove(this);
+                inProgress.remove(this);
+                completed.increment();
+                if (state.compareAndSet(RUNNING, DONE)) {
+                    entries.remove(item, this);
+                } else {
+                    // another polling for this job is requested while we were doing the polling. do it again.
+                    state.set(QUEUED);
+                    waiting.incrementAndGet();
+                    if (!submit()) {
+                        LOGGER.log(Level.WARNING, "Executors rejected another execution of {0}", item);
+                        rejected.increment();
+                    }
                 }
             }
         }
@@ -0,0 +1,236 @@
+package jenkins.agents;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.PluginManager;
+import hudson.PluginWrapper;
+import hudson.XmlFile;
+import hudson.model.Computer;
+import hudson.model.TaskListener;
+import hudson.remoting.Channel;
+import hudson.slaves.AbstractCloudSlave;
+import hudson.slaves.ComputerListener;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Sends the JAR files agents usually need to new agents as soon as they connect,
+ * rather than letting their remote class loaders fetch them one by one while the first build runs.
+ *
+ * <p>When {@link #ENABLED}, every JAR file sent to an agent by the remote class loading is recorded, with the number
+ * of times it was sent, and the {@link #MAX_JARS} most frequently sent JAR files which still exist are preloaded
+ * with {@link Channel#preloadJar(ClassLoader, URL...)} when a cloud agent comes online.
+ * Agents keep the JAR files they receive in their JAR cache, keyed by checksum, so a plugin update simply causes the
+ * new version to be sent. Permanent agents are not preloaded, since their JAR cache usually survives reconnections.
+ *
+ * @since TODO
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public final class JarPrefetch extends ComputerListener {
+
+    private static final Logger LOGGER = Logger.getLogger(JarPrefetch.class.getName());
+
+    /**
+     * Whether to preload JAR files on cloud agents when they come online.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static boolean ENABLED = SystemProperties.getBoolean(JarPrefetch.class.getName() + ".enabled");
+
+    /**
+     * Maximum number of JAR files preloaded on each agent.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static int MAX_JARS = SystemProperties.getInteger(JarPrefetch.class.getName() + ".maxJars", 100);
+
+    /** Number of times each JAR file, by absolute path, has been sent to an agent. */
+    private final Map<String, Integer> usage = new ConcurrentHashMap<>();
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+    private volatile boolean loaded;
+    private final Supplier<XmlFile> usageFile;
+
+    public JarPrefetch() {
+        this(() -> new XmlFile(Jenkins.XSTREAM2, new File(Jenkins.get().getRootDir(), JarPrefetch.class.getName() + ".xml")));
+    }
+
+    /**
+     * @param usageFile where the usage of JAR files is saved
+     */
+    JarPrefetch(Supplier<XmlFile> usageFile) {
+        this.usageFile = usageFile;
+    }
+
+    @Override
+    public void preOnline(Computer c, Channel channel, FilePath root, TaskListener listener) {
+        if (!ENABLED) {
+            return;
+        }
+        load();
+        channel.addListener(new Channel.Listener() {
+            @Override
+            public void onJar(Channel channel, File jar) {
+                record(jar);
+            }
+        });
+        if (c.getNode() instanceof AbstractCloudSlave) {
+            List<File> jars = getHotJars();
+            if (!jars.isEmpty()) {
+                RemotingLane.MISC.executor().execute(() -> prefetch(channel, jars, listener));
+            }
+        }
+    }
+
+    void record(File jar) {
+        usage.merge(jar.getAbsolutePath(), 1, Integer::sum);
+        if (saveScheduled.compareAndSet(false, true)) {
+            // agents connecting at once typically fetch the same JAR files, save them together
+            Timer.get().schedule(() -> {
+                saveScheduled.set(false);
+                save();
+            }, 1, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * The JAR files to preload, most frequently sent first.
+     */
+    @NonNull List<File> getHotJars() {
+        List<File> jars = new ArrayList<>();
+        usage.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .map(e -> new File(e.getKey()))
+                .filter(File::isFile)
+                .limit(Math.max(0, MAX_JARS))
+                .forEach(jars::add);
+        return jars;
+    }
+
+    /**
+     * Number of times each JAR file has been sent to an agent.
+     */
+    public @NonNull Map<String, Integer> getUsage() {
+        return new TreeMap<>(usage);
+    }
+
+    private void prefetch(Channel channel, List<File> jars, TaskListener listener) {
+        long start = System.nanoTime();
+        // each class loader is exported separately, so preload the JAR files of each one together
+        Map<ClassLoader, List<URL>> byLoader = new LinkedHashMap<>();
+        for (File jar : jars) {
+            try {
+                URL url = jar.toURI().toURL();
+                ClassLoader loader = classLoaderOf(jar, url);
+                if (loader != null) {
+                    byLoader.computeIfAbsent(loader, k -> new ArrayList<>()).add(url);
+                }
+            } catch (MalformedURLException e) {
+                LOGGER.log(Level.FINE, "Cannot preload " + jar, e);
+            }
+        }
+        int count = 0;
+        for (Map.Entry<ClassLoader, List<URL>> e : byLoader.entrySet()) {
+            try {
+                channel.preloadJar(e.getKey(), e.getValue().toArray(new URL[0]));
+                count += e.getValue().size();
+            } catch (IOException x) {
+                LOGGER.log(Level.FINE, "Failed to preload " + e.getValue() + " on " + channel.getName(), x);
+                if (channel.isClosingOrClosed()) {
+                    return;
+                }
+            } catch (InterruptedException x) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        listener.getLogger().printf("Preloaded %d JAR files in %dms%n", count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Finds the class loader loading classes from the given JAR file: the one of a plugin if the JAR file is part of it,
+     * otherwise the one of core if the JAR file is on its class path.
+     * Preloading a JAR file for another class loader could cause its classes to be defined twice.
+     */
+    private static @CheckForNull ClassLoader classLoaderOf(File jar, URL url) {
+        PluginManager pm = Jenkins.get().getPluginManager();
+        return classLoaderOf(jar, url, pm.rootDir.toPath(), name -> {
+            PluginWrapper plugin = pm.getPlugin(name);
+            return plugin == null || !plugin.isActive() ? null : plugin.classLoader;
+        }, Jenkins.class.getClassLoader());
+    }
+
+    /**
+     * @param pluginsDir where plugins are exploded
+     * @param pluginLoaders the class loader of each active plugin, by short name
+     * @param core the class loader of core
+     */
+    static @CheckForNull ClassLoader classLoaderOf(File jar, URL url, Path pluginsDir, Function<String, ClassLoader> pluginLoaders, ClassLoader core) {
+        Path plugins = pluginsDir.toAbsolutePath();
+        Path path = jar.toPath().toAbsolutePath();
+        if (path.startsWith(plugins) && path.getNameCount() > plugins.getNameCount() + 1) {
+            return pluginLoaders.apply(path.getName(plugins.getNameCount()).toString());
+        }
+        if (core instanceof URLClassLoader && Arrays.asList(((URLClassLoader) core).getURLs()).contains(url)) {
+            return core;
+        }
+        return null;
+    }
+
+    void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            XmlFile file = usageFile.get();
+            if (file.exists()) {
+                try {
+                    Map<?, ?> saved = (Map<?, ?>) file.read();
+                    for (Map.Entry<?, ?> e : saved.entrySet()) {
+                        usage.merge((String) e.getKey(), (Integer) e.getValue(), Integer::sum);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Failed to load " + file, e);
+                }
+            }
+            loaded = true;
+        }
+    }
+
+    synchronized void save() {
+        // forget about JAR files which are gone, such as those of uninstalled plugins
+        usage.keySet().removeIf(path -> !new File(path).isFile());
+        try {
+            usageFile.get().write(new TreeMap<>(usage));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to save JAR usage", e);
+        }
+    }
+}
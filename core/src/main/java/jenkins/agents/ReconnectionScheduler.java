@@ -0,0 +1,331 @@
+package jenkins.agents;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import hudson.Extension;
+import hudson.model.Computer;
+import hudson.model.Label;
+import hudson.model.Node;
+import hudson.model.Queue;
+import hudson.model.TaskListener;
+import hudson.slaves.ComputerListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.model.NodeListener;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Admits the launches of agents, so that reconnecting thousands of agents after a restart
+ * does not saturate the controller with handshakes and class loading.
+ *
+ * <p>Launches are started at most {@link #LAUNCHES_PER_SECOND} per second, with bursts of up to {@link #BURST},
+ * and at most {@link #MAX_CONCURRENT} at once. Agents having buildable items waiting for them in the queue
+ * are launched first. By default there is no limit and launches start right away on {@link RemotingLane#LAUNCH}.
+ *
+ * <p>The time it takes for each agent to come online after its launch has been requested is recorded.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public final class ReconnectionScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(ReconnectionScheduler.class.getName());
+
+    /**
+     * Maximum number of launches started per second. Zero or less means no limit.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static int LAUNCHES_PER_SECOND = SystemProperties.getInteger(ReconnectionScheduler.class.getName() + ".launchesPerSecond", 0);
+
+    /**
+     * Number of launches which may be started at once after a quiet period, when {@link #LAUNCHES_PER_SECOND} is set.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static int BURST = SystemProperties.getInteger(ReconnectionScheduler.class.getName() + ".burst", 10);
+
+    /**
+     * Maximum number of launches running at once. Zero or less means no limit.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static int MAX_CONCURRENT = SystemProperties.getInteger(ReconnectionScheduler.class.getName() + ".maxConcurrent", 0);
+
+    private static final class Holder {
+        static final ReconnectionScheduler INSTANCE = new ReconnectionScheduler(
+                RemotingLane.LAUNCH.executor(), Timer.get(), ReconnectionScheduler::hasQueuedWork);
+    }
+
+    public static @NonNull ReconnectionScheduler get() {
+        return Holder.INSTANCE;
+    }
+
+    private final Executor executor;
+    private final ScheduledExecutorService timer;
+    private final Predicate<String> urgent;
+
+    private final PriorityQueue<Launch<?>> pending = new PriorityQueue<>();
+    private long sequence;
+    private int running;
+
+    private double tokens;
+    private long lastRefill;
+    private boolean refilling;
+    private boolean wakeUpScheduled;
+
+    /** When the launch of each agent not yet online was first requested. Pruned when a launch fails or the agent is deleted. */
+    private final Map<String, Long> requested = new ConcurrentHashMap<>();
+    /** How long each agent took to come online, in milliseconds. Pruned when the agent is deleted. */
+    private final Map<String, Long> timeToOnline = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor runs the launches
+     * @param timer used to wait for the next launch to be admitted
+     * @param urgent whether an agent, given its name, has work waiting for it
+     */
+    ReconnectionScheduler(Executor executor, ScheduledExecutorService timer, Predicate<String> urgent) {
+        this.executor = executor;
+        this.timer = timer;
+        this.urgent = urgent;
+    }
+
+    /**
+     * Schedules the launch of an agent.
+     *
+     * @param name name of the agent
+     * @param task the launch
+     * @return completes once the launch has completed; cancelling it before it has started drops the launch
+     */
+    public <V> @NonNull Future<V> submit(@NonNull String name, @NonNull Callable<V> task) {
+        requested.putIfAbsent(name, System.currentTimeMillis());
+        boolean throttled = LAUNCHES_PER_SECOND > 0 || MAX_CONCURRENT > 0;
+        Launch<V> launch = new Launch<>(name, task, throttled && urgent.test(name));
+        synchronized (this) {
+            launch.sequence = sequence++;
+            pending.add(launch);
+        }
+        dispatch();
+        return launch;
+    }
+
+    /**
+     * Schedules the launch of an agent.
+     *
+     * @see #submit(String, Callable)
+     */
+    public @NonNull Future<?> submit(@NonNull String name, @NonNull Runnable task) {
+        return submit(name, Executors.callable(task));
+    }
+
+    private void dispatch() {
+        List<Launch<?>> ready = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            while (!pending.isEmpty()) {
+                if (pending.peek().isDone()) {
+                    // cancelled while waiting
+                    requested.remove(pending.poll().name);
+                    continue;
+                }
+                if (MAX_CONCURRENT > 0 && running >= MAX_CONCURRENT) {
+                    // dispatched again once a running launch completes
+                    break;
+                }
+                if (!takeToken(now)) {
+                    scheduleWakeUp();
+                    break;
+                }
+                ready.add(pending.poll());
+                running++;
+            }
+        }
+        for (Launch<?> launch : ready) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        launch.run();
+                    } finally {
+                        if (launch.failed) {
+                            // the agent will not come online from this launch
+                            requested.remove(launch.name);
+                        }
+                        completed();
+                    }
+                });
+            } catch (RejectedExecutionException x) {
+                launch.fail(x);
+                requested.remove(launch.name);
+                completed();
+            }
+        }
+    }
+
+    private void completed() {
+        synchronized (this) {
+            running--;
+        }
+        dispatch();
+    }
+
+    private boolean takeToken(long now) {
+        int rate = LAUNCHES_PER_SECOND;
+        if (rate <= 0) {
+            refilling = false;
+            return true;
+        }
+        int burst = Math.max(1, BURST);
+        if (!refilling) {
+            refilling = true;
+            tokens = burst;
+        } else {
+            tokens = Math.min(burst, tokens + (now - lastRefill) * rate / 1e9);
+        }
+        lastRefill = now;
+        if (tokens >= 1) {
+            tokens--;
+            return true;
+        }
+        return false;
+    }
+
+    private void scheduleWakeUp() {
+        if (wakeUpScheduled) {
+            return;
+        }
+        wakeUpScheduled = true;
+        long delay = (long) Math.ceil((1 - tokens) * 1e9 / Math.max(1, LAUNCHES_PER_SECOND));
+        timer.schedule(() -> {
+            synchronized (this) {
+                wakeUpScheduled = false;
+            }
+            dispatch();
+        }, delay, TimeUnit.NANOSECONDS);
+    }
+
+    void online(@NonNull String name) {
+        Long start = requested.remove(name);
+        if (start != null) {
+            long elapsed = System.currentTimeMillis() - start;
+            timeToOnline.put(name, elapsed);
+            LOGGER.log(Level.FINE, "{0} came online {1}ms after its launch was requested", new Object[] {name, elapsed});
+        }
+    }
+
+    void deleted(@NonNull String name) {
+        requested.remove(name);
+        timeToOnline.remove(name);
+    }
+
+    /**
+     * Number of launches waiting to be admitted.
+     */
+    public synchronized int getPending() {
+        return pending.size();
+    }
+
+    /**
+     * Number of launches currently running.
+     */
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /**
+     * How long the given agent took to come online after its launch was last requested, in milliseconds.
+     */
+    public @CheckForNull Long getTimeToOnlineMillis(@NonNull String name) {
+        return timeToOnline.get(name);
+    }
+
+    /**
+     * How long each agent took to come online after its launch was last requested, in milliseconds.
+     */
+    public @NonNull Map<String, Long> getTimeToOnlineMillis() {
+        return new HashMap<>(timeToOnline);
+    }
+
+    /**
+     * Whether buildable items in the queue could run on the given agent.
+     */
+    static boolean hasQueuedWork(String name) {
+        Jenkins j = Jenkins.getInstanceOrNull();
+        Node node = j == null ? null : j.getNode(name);
+        if (node == null) {
+            return false;
+        }
+        for (Queue.BuildableItem bi : j.getQueue().getBuildableItems()) {
+            Label l = bi.getAssignedLabel();
+            if (l == null ? node.getMode() == Node.Mode.NORMAL : l.contains(node)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Launch<V> extends FutureTask<V> implements Comparable<Launch<?>> {
+        private final String name;
+        private final boolean urgent;
+        private long sequence;
+        private volatile boolean failed;
+
+        Launch(String name, Callable<V> task, boolean urgent) {
+            super(task);
+            this.name = name;
+            this.urgent = urgent;
+        }
+
+        void fail(Throwable t) {
+            setException(t);
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            failed = true;
+            super.setException(t);
+        }
+
+        @Override
+        public int compareTo(Launch<?> o) {
+            if (urgent != o.urgent) {
+                return urgent ? -1 : 1;
+            }
+            return Long.compare(sequence, o.sequence);
+        }
+    }
+
+    @Extension
+    @Restricted(NoExternalUse.class)
+    public static final class Listener extends ComputerListener {
+        @Override
+        public void onOnline(Computer c, TaskListener listener) {
+            get().online(c.getName());
+        }
+    }
+
+    @Extension
+    @Restricted(NoExternalUse.class)
+    public static final class Deletions extends NodeListener {
+        @Override
+        protected void onDeleted(@NonNull Node node) {
+            get().deleted(node.getNodeName());
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package jenkins.agents;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Computer;
+import hudson.security.ACL;
+import hudson.util.ClassLoaderSanityThreadFactory;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.ExceptionCatchingThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.security.ImpersonatingExecutorService;
+import jenkins.util.ContextResettingExecutorService;
+import jenkins.util.ErrorLoggingExecutorService;
+import jenkins.util.SystemProperties;
+import jenkins.util.VirtualThreads;
+import net.jcip.annotations.GuardedBy;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Executors for background work related to agents, split by purpose so that a storm of one kind of work
+ * (such as thousands of agents reconnecting at once) cannot exhaust the threads needed by another.
+ *
+ * <p>Like {@link Computer#threadPoolForRemoting}, tasks run as {@link ACL#SYSTEM2} and get their thread name and
+ * context class loader reset afterwards. Unlike it, each lane can be bounded with the system properties
+ * {@code jenkins.agents.RemotingLane.<lane>.maxThreads} and {@code jenkins.agents.RemotingLane.<lane>.queueLimit}
+ * (e.g. {@code jenkins.agents.RemotingLane.launch.maxThreads=50}). Lanes are unbounded by default.
+ * Tasks submitted to a lane whose threads are all busy and whose queue is full overflow onto extra threads
+ * rather than being dropped or run by the submitting thread, which may hold locks the task must not run under.
+ * Only tasks submitted after the lane has been shut down are rejected with a {@link RejectedExecutionException}.
+ *
+ * <p>Like other internal thread pools, lanes run their tasks on virtual threads when {@link VirtualThreads#isEnabled()}.
+ * An unbounded lane then starts a thread for each task.
+ *
+ * <p>{@link Computer#threadPoolForRemoting} itself remains the executor of remoting channels,
+ * which run long-lived tasks and must not be bounded.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public enum RemotingLane {
+    /** Launching agents and setting up their channels. */
+    LAUNCH,
+    /** Node monitoring. */
+    MONITOR,
+    /** Disconnecting agents. */
+    DISCONNECT,
+    /** Anything else. */
+    MISC;
+
+    private final Pool pool;
+    private final ExecutorService executor;
+
+    RemotingLane() {
+        String prefix = RemotingLane.class.getName() + "." + name().toLowerCase(Locale.ENGLISH);
+        int maxThreads = Math.max(1, SystemProperties.getInteger(prefix + ".maxThreads", Integer.MAX_VALUE));
+        int queueLimit = Math.max(1, SystemProperties.getInteger(prefix + ".queueLimit", Integer.MAX_VALUE));
+        pool = new Pool(name().toLowerCase(Locale.ENGLISH), maxThreads, queueLimit,
+                new ExceptionCatchingThreadFactory(
+                        new NamingThreadFactory(
+                                new ClassLoaderSanityThreadFactory(new DaemonThreadFactory(VirtualThreads.baseThreadFactory())),
+                                "Computer.threadPoolForRemoting." + name().toLowerCase(Locale.ENGLISH))));
+        executor = new ContextResettingExecutorService(
+                new ImpersonatingExecutorService(
+                        new ErrorLoggingExecutorService(pool),
+                        ACL.SYSTEM2));
+    }
+
+    /**
+     * The executor of this lane.
+     */
+    public @NonNull ExecutorService executor() {
+        return executor;
+    }
+
+    /**
+     * Number of tasks currently running.
+     */
+    public int getActive() {
+        return pool.getActiveCount();
+    }
+
+    /**
+     * Number of tasks waiting for a thread.
+     */
+    public int getQueued() {
+        return pool.getQueue().size();
+    }
+
+    /**
+     * Number of threads currently in the pool, busy or idle.
+     */
+    public int getPoolSize() {
+        return pool.getPoolSize();
+    }
+
+    /**
+     * Number of tasks run on extra threads since startup because the lane was saturated.
+     */
+    public long getOverflowed() {
+        return pool.getOverflowed();
+    }
+
+    /**
+     * Number of tasks completed since startup.
+     */
+    public long getCompleted() {
+        return pool.completed.get();
+    }
+
+    /**
+     * Average time tasks spent waiting for a thread, in milliseconds.
+     */
+    public double getAverageQueueMillis() {
+        long started = pool.started.get();
+        return started == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(pool.queueNanos.get()) / 1000.0 / started;
+    }
+
+    /**
+     * Average time tasks spent running, in milliseconds.
+     */
+    public double getAverageRunMillis() {
+        long completed = pool.completed.get();
+        return completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(pool.runNanos.get()) / 1000.0 / completed;
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ENGLISH) + " lane[active=" + getActive() + ",queued=" + getQueued()
+                + ",overflowed=" + getOverflowed() + ",completed=" + getCompleted() + "]";
+    }
+
+    /**
+     * Thread pool recording how long tasks wait and run.
+     */
+    static final class Pool extends ThreadPoolExecutor {
+        private static final Logger LOGGER = Logger.getLogger(RemotingLane.class.getName());
+
+        private final String name;
+        private final AtomicLong overflowed = new AtomicLong();
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong queueNanos = new AtomicLong();
+        private final AtomicLong runNanos = new AtomicLong();
+        private final ThreadLocal<Long> startTime = new ThreadLocal<>();
+        @GuardedBy("this")
+        private ExecutorService overflow;
+
+        Pool(String name, int maxThreads, int queueLimit, ThreadFactory threadFactory) {
+            // when unbounded, behave like Executors.newCachedThreadPool
+            super(maxThreads == Integer.MAX_VALUE ? 0 : maxThreads, maxThreads,
+                    60L, TimeUnit.SECONDS,
+                    maxThreads == Integer.MAX_VALUE ? new SynchronousQueue<>() : newQueue(queueLimit),
+                    threadFactory);
+            this.name = name;
+            if (maxThreads != Integer.MAX_VALUE) {
+                allowCoreThreadTimeOut(true);
+            }
+            setRejectedExecutionHandler((r, executor) -> overflow(r));
+        }
+
+        long getOverflowed() {
+            return overflowed.get();
+        }
+
+        private void overflow(Runnable r) {
+            if (isShutdown()) {
+                throw new RejectedExecutionException("Task " + r + " rejected from " + this);
+            }
+            if (overflowed.incrementAndGet() == 1) {
+                LOGGER.log(Level.WARNING, "The {0} lane is saturated, running further tasks on extra threads", name);
+            }
+            LOGGER.log(Level.FINE, "Running {0} on an extra thread of the saturated {1} lane", new Object[] {r, name});
+            overflowExecutor().execute(() -> {
+                long start = System.nanoTime();
+                if (r instanceof Timed) {
+                    queueNanos.addAndGet(start - ((Timed) r).submitted);
+                }
+                started.incrementAndGet();
+                try {
+                    r.run();
+                } finally {
+                    runNanos.addAndGet(System.nanoTime() - start);
+                    completed.incrementAndGet();
+                }
+            });
+        }
+
+        private synchronized ExecutorService overflowExecutor() {
+            if (overflow == null) {
+                overflow = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), getThreadFactory());
+            }
+            return overflow;
+        }
+
+        @Override
+        public void shutdown() {
+            super.shutdown();
+            synchronized (this) {
+                if (overflow != null) {
+                    overflow.shutdown();
+                }
+            }
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            List<Runnable> pending = super.shutdownNow();
+            synchronized (this) {
+                if (overflow != null) {
+                    pending.addAll(overflow.shutdownNow());
+                }
+            }
+            return pending;
+        }
+
+        private static BlockingQueue<Runnable> newQueue(int queueLimit) {
+            return queueLimit == Integer.MAX_VALUE ? new LinkedBlockingQueue<>() : new LinkedBlockingQueue<>(queueLimit);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            super.execute(new Timed(command));
+        }
+
+        @Override
+        protected void beforeExecute(Thread t, Runnable r) {
+            long now = System.nanoTime();
+            if (r instanceof Timed) {
+                queueNanos.addAndGet(now - ((Timed) r).submitted);
+            }
+            started.incrementAndGet();
+            startTime.set(now);
+        }
+
+        @Override
+        protected void afterExecute(Runnable r, Throwable t) {
+            Long start = startTime.get();
+            if (start != null) {
+                runNanos.addAndGet(System.nanoTime() - start);
+                startTime.remove();
+            }
+            completed.incrementAndGet();
+        }
+    }
+
+    private static final class Timed implements Runnable {
+        private final Runnable delegate;
+        private final long submitted = System.nanoTime();
+
+        Timed(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
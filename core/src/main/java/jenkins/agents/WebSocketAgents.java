@@ -131,7 +131,7 @@ public final class WebSocketAgents extends InvisibleAction implements Unprotecte
         @SuppressFBWarnings(value = "RV_RETURN_VALUE_IGNORED_BAD_PRACTICE", justification = "method signature does not permit plumbing through the return value")
         @Override
         protected void opened() {
-            Computer.threadPoolForRemoting.submit(() -> {
+            ReconnectionScheduler.get().submit(agent, () -> {
                 LOGGER.fine(() -> "setting up channel for " + agent);
                 state.fireBeforeChannel(new ChannelBuilder(agent, Computer.threadPoolForRemoting));
                 transport = new Transport();
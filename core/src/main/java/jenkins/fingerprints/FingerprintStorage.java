@@ -33,6 +33,7 @@ import hudson.model.AbstractDescribableImpl;
 import hudson.model.Fingerprint;
 import hudson.model.TaskListener;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Date;
 import jenkins.model.FingerprintFacet;
 import jenkins.model.Jenkins;
@@ -71,6 +72,21 @@ public abstract class FingerprintStorage extends AbstractDescribableImpl<Fingerp
      */
     public abstract void save(Fingerprint fp) throws IOException;
 
+    /**
+     * Saves several fingerprints in the storage at once.
+     * This is used when a build records many fingerprints in one go, such as by {@link hudson.tasks.Fingerprinter}.
+     * The default implementation simply calls {@link #save(Fingerprint)} for each fingerprint;
+     * storage engines backed by an external database may override it to issue a single batched write.
+     *
+     * @throws IOException Save error
+     * @since TODO
+     */
+    public void save(@NonNull Collection<Fingerprint> fps) throws IOException {
+        for (Fingerprint fp : fps) {
+            save(fp);
+        }
+    }
+
     /**
      * Returns the Fingerprint with the given unique ID.
      * The unique ID for a fingerprint is defined by {@link Fingerprint#getHashString()}.
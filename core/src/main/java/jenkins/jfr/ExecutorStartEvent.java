@@ -0,0 +1,64 @@
+package jenkins.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Recorded when the first line of the build log of a task is written,
+ * with how long each phase since its scheduling took.
+ *
+ * @see hudson.model.queue.StartLatency
+ * @since TODO
+ */
+@Name("jenkins.ExecutorStart")
+@Label("Executor Start")
+@Category({"Jenkins", "Queue"})
+@Description("Time from the scheduling of a task to the first line of its build log")
+@StackTrace(false)
+@Restricted(NoExternalUse.class)
+public final class ExecutorStartEvent extends Event {
+    @Label("Task")
+    public String task;
+
+    @Label("Label")
+    public String label;
+
+    @Label("Executor")
+    public String executor;
+
+    @Label("Waiting")
+    @Description("From the scheduling of the task until it becomes buildable")
+    @Timespan(Timespan.MILLISECONDS)
+    public long waiting;
+
+    @Label("Buildable")
+    @Description("From becoming buildable until being assigned an executor")
+    @Timespan(Timespan.MILLISECONDS)
+    public long buildable;
+
+    @Label("Assigned")
+    @Description("From being assigned an executor until the executor thread runs")
+    @Timespan(Timespan.MILLISECONDS)
+    public long assigned;
+
+    @Label("Synchronizing")
+    @Description("Waiting for the other subtasks of the task to start")
+    @Timespan(Timespan.MILLISECONDS)
+    public long synchronizing;
+
+    @Label("Logging")
+    @Description("From then until the first line of the build log")
+    @Timespan(Timespan.MILLISECONDS)
+    public long logging;
+
+    @Label("Total")
+    @Timespan(Timespan.MILLISECONDS)
+    public long total;
+}
@@ -0,0 +1,27 @@
+package jenkins.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Recorded when an {@link hudson.ExtensionList} discovers its extensions, including the wait for its load lock.
+ *
+ * @since TODO
+ */
+@Name("jenkins.ExtensionListLoad")
+@Label("Extension List Load")
+@Category({"Jenkins", "Extensions"})
+@Description("Discovering the implementations of an extension point")
+@Restricted(NoExternalUse.class)
+public final class ExtensionListLoadEvent extends Event {
+    @Label("Extension Point")
+    public Class<?> extensionType;
+
+    @Label("Extensions")
+    public int count;
+}
@@ -0,0 +1,35 @@
+package jenkins.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Recorded for each HTTP request handled by Jenkins, by {@link HttpRequestEventFilter}.
+ *
+ * @since TODO
+ */
+@Name("jenkins.HttpRequest")
+@Label("HTTP Request")
+@Category({"Jenkins", "HTTP"})
+@Description("An HTTP request dispatched through Stapler")
+@StackTrace(false)
+@Threshold("1 ms")
+@Restricted(NoExternalUse.class)
+public final class HttpRequestEvent extends Event {
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    @Description("The path of the request, without its query")
+    public String path;
+
+    @Label("Status")
+    public int status;
+}
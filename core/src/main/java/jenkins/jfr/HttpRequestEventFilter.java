@@ -0,0 +1,51 @@
+package jenkins.jfr;
+
+import java.io.IOException;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Records an {@link HttpRequestEvent} for each request, when Java Flight Recorder records them.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public class HttpRequestEventFilter implements Filter {
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpRequestEvent event = new HttpRequestEvent();
+        if (!event.isEnabled() || !(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        event.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (event.shouldCommit()) {
+                HttpServletRequest req = (HttpServletRequest) request;
+                event.method = req.getMethod();
+                event.path = req.getRequestURI();
+                event.status = ((HttpServletResponse) response).getStatus();
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
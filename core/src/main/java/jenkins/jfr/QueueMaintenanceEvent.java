@@ -0,0 +1,37 @@
+package jenkins.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Recorded for each pass of {@link hudson.model.Queue#maintain()}, including the wait for the queue lock,
+ * with the size of the queue once done.
+ *
+ * @since TODO
+ */
+@Name("jenkins.QueueMaintenance")
+@Label("Queue Maintenance")
+@Category({"Jenkins", "Queue"})
+@Description("A pass of the queue maintenance")
+@StackTrace(false)
+@Restricted(NoExternalUse.class)
+public final class QueueMaintenanceEvent extends Event {
+    @Label("Waiting Items")
+    public int waiting;
+
+    @Label("Blocked Items")
+    public int blocked;
+
+    @Label("Buildable Items")
+    public int buildable;
+
+    @Label("Pending Items")
+    @Description("Items assigned an executor which has not started them yet")
+    public int pending;
+}
@@ -0,0 +1,33 @@
+package jenkins.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Recorded when a {@link hudson.FilePath} performs an operation on the agent holding its file.
+ *
+ * @since TODO
+ */
+@Name("jenkins.RemoteCall")
+@Label("Remote File Operation")
+@Category({"Jenkins", "Remoting"})
+@Description("A file operation performed on an agent")
+@Threshold("1 ms")
+@Restricted(NoExternalUse.class)
+public final class RemoteCallEvent extends Event {
+    @Label("Node")
+    @Description("The channel to the agent")
+    public String node;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Callable")
+    public Class<?> callable;
+}
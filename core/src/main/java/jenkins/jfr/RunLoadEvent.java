@@ -0,0 +1,28 @@
+package jenkins.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Recorded when a build record is loaded lazily by {@link jenkins.model.lazy.AbstractLazyLoadRunMap}.
+ *
+ * @since TODO
+ */
+@Name("jenkins.RunLoad")
+@Label("Run Load")
+@Category({"Jenkins", "Persistence"})
+@Description("Loading a build record from disk")
+@Restricted(NoExternalUse.class)
+public final class RunLoadEvent extends Event {
+    @Label("Directory")
+    public String directory;
+
+    @Label("Run")
+    @Description("The build loaded, if it could be")
+    public String run;
+}
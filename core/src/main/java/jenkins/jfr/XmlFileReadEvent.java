@@ -0,0 +1,35 @@
+package jenkins.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Recorded when an {@link hudson.XmlFile} is read and unmarshalled.
+ *
+ * @since TODO
+ */
+@Name("jenkins.XmlFileRead")
+@Label("XML File Read")
+@Category({"Jenkins", "Persistence"})
+@Description("Reading an object from an XML file")
+@Threshold("1 ms")
+@Restricted(NoExternalUse.class)
+public final class XmlFileReadEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes Read")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+
+    @Label("Type")
+    @Description("The class of the object read")
+    public Class<?> type;
+}
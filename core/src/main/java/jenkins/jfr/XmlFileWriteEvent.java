@@ -0,0 +1,35 @@
+package jenkins.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Recorded when an object is written to an {@link hudson.XmlFile}.
+ *
+ * @since TODO
+ */
+@Name("jenkins.XmlFileWrite")
+@Label("XML File Write")
+@Category({"Jenkins", "Persistence"})
+@Description("Writing an object to an XML file")
+@Threshold("1 ms")
+@Restricted(NoExternalUse.class)
+public final class XmlFileWriteEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes Written")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+
+    @Label("Type")
+    @Description("The class of the object written")
+    public Class<?> type;
+}
@@ -0,0 +1,122 @@
+package jenkins.metrics;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.Computer;
+import hudson.model.Queue;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.slaves.ChannelHealth;
+import hudson.slaves.SlaveComputer;
+import hudson.slaves.WorkspaceList;
+import hudson.triggers.SCMPollingScheduler;
+import hudson.triggers.SCMTrigger;
+import hudson.util.SequentialExecutionQueue;
+import java.util.Locale;
+import jenkins.agents.ReconnectionScheduler;
+import jenkins.agents.RemotingLane;
+import jenkins.model.BuildDirectoryDeleter;
+import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Gauges and counters of core: the queue, executors, agent background work, polling and workspaces.
+ * Metrics which would have a series per item are aggregated, except the round trip time of each agent.
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public class CoreMetricsContributor extends MetricsContributor {
+
+    @Override
+    public void contribute(@NonNull MetricsSink sink) {
+        Jenkins j = Jenkins.get();
+        queue(sink, j.getQueue());
+        computers(sink, j);
+        for (RemotingLane lane : RemotingLane.values()) {
+            String name = lane.name().toLowerCase(Locale.ENGLISH);
+            sink.gauge("jenkins_remoting_lane_active", "Tasks running in the remoting lane", lane.getActive(), "lane", name);
+            sink.gauge("jenkins_remoting_lane_queued", "Tasks waiting for a thread of the remoting lane", lane.getQueued(), "lane", name);
+            sink.counter("jenkins_remoting_lane_overflowed_total", "Tasks run on extra threads because the remoting lane was saturated", lane.getOverflowed(), "lane", name);
+            sink.counter("jenkins_remoting_lane_completed_total", "Tasks completed by the remoting lane", lane.getCompleted(), "lane", name);
+        }
+        BuildDirectoryDeleter deleter = BuildDirectoryDeleter.get();
+        sink.gauge("jenkins_build_directory_deletion_backlog", "Build directories waiting to be deleted", deleter.getBacklog());
+        sink.counter("jenkins_build_directory_deleted_total", "Build directories deleted", deleter.getDirectoriesDeleted());
+        sink.counter("jenkins_build_directory_deleted_bytes_total", "Bytes reclaimed by deleting build directories", deleter.getBytesReclaimed());
+        sink.counter("jenkins_build_directory_deletion_failures_total", "Build directories which could not be deleted", deleter.getFailures());
+        ReconnectionScheduler reconnections = ReconnectionScheduler.get();
+        sink.gauge("jenkins_agent_launches_pending", "Agent launches waiting to be started", reconnections.getPending());
+        sink.gauge("jenkins_agent_launches_running", "Agent launches in progress", reconnections.getRunning());
+        SCMTrigger.DescriptorImpl scm = j.getDescriptorByType(SCMTrigger.DescriptorImpl.class);
+        if (scm != null) {
+            SCMPollingScheduler polling = scm.getPollingScheduler();
+            sink.gauge("jenkins_scm_polling_queue_depth", "Polling requests waiting to run", polling.getQueueDepth());
+            sink.gauge("jenkins_scm_polling_oldest_wait_seconds", "How long the oldest waiting polling request has waited",
+                    polling.getOldestWaitMillis() / 1000.0);
+            SequentialExecutionQueue queue = scm.getPollingQueue();
+            sink.gauge("jenkins_scm_polling_waiting", "Distinct pollings waiting for a thread", queue.getWaiting());
+            sink.gauge("jenkins_scm_polling_running", "Pollings in progress", queue.getInProgress().size());
+            sink.counter("jenkins_scm_polling_coalesced_total", "Polling requests combined with one already waiting or running", queue.getCoalesced());
+            sink.counter("jenkins_scm_polling_rejected_total", "Polling requests skipped because the backlog was full", queue.getRejected());
+            sink.counter("jenkins_scm_polling_completed_total", "Pollings completed", queue.getCompleted());
+        }
+    }
+
+    private static void queue(MetricsSink sink, Queue queue) {
+        int waiting = 0;
+        int blocked = 0;
+        int buildable = 0;
+        int pending = 0;
+        // count all the items, not only those the scraping user can read
+        try (ACLContext ctx = ACL.as2(ACL.SYSTEM2)) {
+            for (Queue.Item item : queue.getItems()) {
+                if (item instanceof Queue.WaitingItem) {
+                    waiting++;
+                } else if (item instanceof Queue.BlockedItem) {
+                    blocked++;
+                } else if (item instanceof Queue.BuildableItem && ((Queue.BuildableItem) item).isPending()) {
+                    pending++;
+                } else {
+                    buildable++;
+                }
+            }
+        }
+        String help = "Items in the build queue";
+        sink.gauge("jenkins_queue_items", help, waiting, "state", "waiting");
+        sink.gauge("jenkins_queue_items", help, blocked, "state", "blocked");
+        sink.gauge("jenkins_queue_items", help, buildable, "state", "buildable");
+        sink.gauge("jenkins_queue_items", help, pending, "state", "pending");
+    }
+
+    private static void computers(MetricsSink sink, Jenkins j) {
+        int executors = 0;
+        int busy = 0;
+        int online = 0;
+        int workspacesInUse = 0;
+        for (Computer c : j.getComputers()) {
+            executors += c.countExecutors();
+            busy += c.countBusy();
+            if (c.isOnline()) {
+                online++;
+            }
+            WorkspaceList.Statistics workspaces = c.getWorkspaceList().getStatistics();
+            workspacesInUse += workspaces.getInUse();
+            if (c instanceof SlaveComputer && c.isOnline()) {
+                ChannelHealth health = ((SlaveComputer) c).getChannelHealth();
+                if (health.getPings() > 0) {
+                    sink.gauge("jenkins_agent_round_trip_seconds", "Average round trip time of the pings of the agent",
+                            health.getAverageRoundTripMillis() / 1000.0, "node", c.getName());
+                }
+            }
+        }
+        sink.gauge("jenkins_executors", "Executors of the online and offline nodes", executors);
+        sink.gauge("jenkins_executors_busy", "Executors running a build", busy);
+        sink.gauge("jenkins_nodes_online", "Nodes which are online", online);
+        sink.gauge("jenkins_workspaces_in_use", "Workspaces currently leased", workspacesInUse);
+        // not summed over the current computers, which would decrease when one is removed
+        sink.counter("jenkins_workspace_waits_total", "Workspace acquisitions which had to wait for a release", WorkspaceList.getAllWaits());
+        sink.counter("jenkins_workspace_wait_seconds_total", "Time spent waiting for workspaces",
+                WorkspaceList.getAllWaitMillis() / 1000.0);
+    }
+}
@@ -0,0 +1,32 @@
+package jenkins.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.Beta;
+
+/**
+ * A count which only goes up, such as a number of requests.
+ * Incrementing it from many threads at once does not contend.
+ *
+ * @see MetricsRegistry#counter
+ * @since TODO
+ */
+@Restricted(Beta.class)
+public final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void inc() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
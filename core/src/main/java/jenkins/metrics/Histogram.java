@@ -0,0 +1,88 @@
+package jenkins.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.Beta;
+
+/**
+ * The distribution of observed values, such as durations, in fixed buckets.
+ * Each bucket and the sum are striped, so that observing values from many threads at once does not contend.
+ *
+ * @see MetricsRegistry#histogram
+ * @since TODO
+ */
+@Restricted(Beta.class)
+public final class Histogram {
+
+    /**
+     * Default bucket bounds, suited to durations in seconds.
+     */
+    static final double[] DURATION_BUCKETS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+
+    private final double[] bounds;
+    /** The count of each bucket, not cumulative; the last bucket holds values above all the bounds. */
+    private final LongAdder[] buckets;
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram(double[] bounds) {
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) {
+                throw new IllegalArgumentException("Bucket bounds must be increasing");
+            }
+        }
+        this.bounds = bounds.clone();
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void observe(double value) {
+        int bucket = 0;
+        while (bucket < bounds.length && value > bounds[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sum.add(value);
+    }
+
+    /**
+     * Observes a duration, in seconds.
+     *
+     * @param nanos as measured with {@link System#nanoTime()}
+     */
+    public void observeNanos(long nanos) {
+        observe((double) nanos / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    double[] getBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * The cumulative count of each bucket, the last one being the total count.
+     */
+    long[] getCumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            counts[i] = total;
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (LongAdder bucket : buckets) {
+            total += bucket.sum();
+        }
+        return total;
+    }
+
+    public double getSum() {
+        return sum.sum();
+    }
+}
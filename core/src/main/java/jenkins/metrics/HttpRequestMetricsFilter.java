@@ -0,0 +1,59 @@
+package jenkins.metrics;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Records the duration of HTTP requests in {@code jenkins_http_request_seconds}, by method.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public class HttpRequestMetricsFilter implements Filter {
+
+    private static final String NAME = "jenkins_http_request_seconds";
+    private static final String HELP = "Duration of HTTP requests";
+
+    /** Histograms of the usual methods, so that arbitrary methods do not create series. */
+    private static final Map<String, Histogram> METHODS = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private static final Histogram OTHER = MetricsRegistry.get().histogram(NAME, HELP, "method", "other");
+
+    static {
+        for (String method : new String[] {"GET", "HEAD", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"}) {
+            METHODS.put(method, MetricsRegistry.get().histogram(NAME, HELP, "method", method.toLowerCase(Locale.ENGLISH)));
+        }
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Histogram histogram = null;
+            if (request instanceof HttpServletRequest) {
+                histogram = METHODS.get(((HttpServletRequest) request).getMethod());
+            }
+            (histogram == null ? OTHER : histogram).observeNanos(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,49 @@
+package jenkins.metrics;
+
+import hudson.Extension;
+import hudson.model.RootAction;
+import java.io.IOException;
+import java.io.Writer;
+import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+import org.kohsuke.stapler.verb.GET;
+
+/**
+ * Serves the {@link MetricsRegistry} at {@code /coreMetrics/} in the Prometheus text format,
+ * to users with {@link Jenkins#SYSTEM_READ}.
+ *
+ * @since TODO
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public class MetricsAction implements RootAction {
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return null;
+    }
+
+    @Override
+    public String getUrlName() {
+        return "coreMetrics";
+    }
+
+    @GET
+    public void doIndex(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+        PrometheusText text = new PrometheusText();
+        MetricsRegistry.get().collect(text, MetricsContributor.all());
+        rsp.setContentType(PrometheusText.CONTENT_TYPE);
+        try (Writer w = rsp.getWriter()) {
+            text.writeTo(w);
+        }
+    }
+}
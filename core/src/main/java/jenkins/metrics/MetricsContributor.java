@@ -0,0 +1,25 @@
+package jenkins.metrics;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.ExtensionList;
+import hudson.ExtensionPoint;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.Beta;
+
+/**
+ * Contributes metrics computed each time they are collected, such as the size of a queue,
+ * in addition to the {@link Counter}s and {@link Histogram}s of the {@link MetricsRegistry}.
+ *
+ * <p>Collection happens on each scrape of the metrics endpoint, so contributions should be cheap and should not block.
+ *
+ * @since TODO
+ */
+@Restricted(Beta.class)
+public abstract class MetricsContributor implements ExtensionPoint {
+
+    public abstract void contribute(@NonNull MetricsSink sink);
+
+    public static ExtensionList<MetricsContributor> all() {
+        return ExtensionList.lookup(MetricsContributor.class);
+    }
+}
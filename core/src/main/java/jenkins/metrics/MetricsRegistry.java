@@ -0,0 +1,161 @@
+package jenkins.metrics;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.Beta;
+
+/**
+ * The metrics of Jenkins, exposed in the Prometheus text format by {@link MetricsAction}.
+ *
+ * <p>{@link Counter}s and {@link Histogram}s are registered once, typically in a static field, and then updated
+ * without locking. Gauges are computed when the metrics are collected, either from a registered function or by a
+ * {@link MetricsContributor}.
+ *
+ * <p>Metric and label names must follow the Prometheus conventions, such as {@code jenkins_queue_items}.
+ * Labels are given as alternating names and values, and each distinct set of labels is a separate series.
+ *
+ * @since TODO
+ */
+@Restricted(Beta.class)
+public final class MetricsRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(MetricsRegistry.class.getName());
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final Pattern LABEL = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+
+    private final Map<Series, Object> series = new ConcurrentHashMap<>();
+
+    /** The type of each metric name, so that a name is not registered with two types. */
+    private final Map<String, Class<?>> types = new ConcurrentHashMap<>();
+
+    MetricsRegistry() {
+    }
+
+    public static @NonNull MetricsRegistry get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets or registers a counter.
+     */
+    public @NonNull Counter counter(@NonNull String name, @NonNull String help, @NonNull String... labels) {
+        return register(name, help, labels, Counter.class, s -> new Counter());
+    }
+
+    /**
+     * Gets or registers a histogram of durations in seconds.
+     */
+    public @NonNull Histogram histogram(@NonNull String name, @NonNull String help, @NonNull String... labels) {
+        return histogram(name, help, Histogram.DURATION_BUCKETS, labels);
+    }
+
+    /**
+     * Gets or registers a histogram.
+     *
+     * @param bounds the increasing upper bounds of the buckets; only used when registering
+     */
+    public @NonNull Histogram histogram(@NonNull String name, @NonNull String help, @NonNull double[] bounds, @NonNull String... labels) {
+        return register(name, help, labels, Histogram.class, s -> new Histogram(bounds));
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge previously registered with the same name and labels.
+     *
+     * @param value computes the value when metrics are collected; should be cheap, and is referenced forever
+     */
+    public void gauge(@NonNull String name, @NonNull String help, @NonNull DoubleSupplier value, @NonNull String... labels) {
+        Series s = series(name, help, labels, DoubleSupplier.class);
+        series.put(s, value);
+    }
+
+    private <T> T register(String name, String help, String[] labels, Class<T> type, Function<Series, T> create) {
+        return type.cast(series.computeIfAbsent(series(name, help, labels, type), create::apply));
+    }
+
+    private Series series(String name, String help, String[] labels, Class<?> type) {
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be pairs of names and values: " + Arrays.toString(labels));
+        }
+        for (int i = 0; i < labels.length; i += 2) {
+            if (!LABEL.matcher(labels[i]).matches()) {
+                throw new IllegalArgumentException("Invalid label name: " + labels[i]);
+            }
+        }
+        Class<?> existing = types.putIfAbsent(name, type);
+        if (existing != null && existing != type) {
+            throw new IllegalArgumentException(name + " is already registered as a " + existing.getSimpleName());
+        }
+        return new Series(name, help, labels.clone());
+    }
+
+    /**
+     * Collects all the metrics, including those of the {@link MetricsContributor}s.
+     */
+    void collect(@NonNull PrometheusText out, @NonNull Iterable<? extends MetricsContributor> contributors) {
+        for (Map.Entry<Series, Object> e : series.entrySet()) {
+            Series s = e.getKey();
+            Object metric = e.getValue();
+            if (metric instanceof Counter) {
+                out.counter(s.name, s.help, ((Counter) metric).get(), s.labels);
+            } else if (metric instanceof Histogram) {
+                out.histogram(s.name, s.help, (Histogram) metric, s.labels);
+            } else {
+                double value;
+                try {
+                    value = ((DoubleSupplier) metric).getAsDouble();
+                } catch (RuntimeException x) {
+                    LOGGER.log(Level.WARNING, "Failed to compute " + s.name, x);
+                    continue;
+                }
+                out.gauge(s.name, s.help, value, s.labels);
+            }
+        }
+        for (MetricsContributor contributor : contributors) {
+            try {
+                contributor.contribute(out);
+            } catch (RuntimeException x) {
+                LOGGER.log(Level.WARNING, "Failed to collect metrics from " + contributor, x);
+            }
+        }
+    }
+
+    private static final class Series {
+        final String name;
+        final String help;
+        final String[] labels;
+
+        Series(String name, String help, String[] labels) {
+            this.name = name;
+            this.help = help;
+            this.labels = labels;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Series)) {
+                return false;
+            }
+            Series that = (Series) o;
+            return name.equals(that.name) && Arrays.equals(labels, that.labels);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + Arrays.hashCode(labels);
+        }
+    }
+}
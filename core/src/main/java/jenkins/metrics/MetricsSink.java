@@ -0,0 +1,28 @@
+package jenkins.metrics;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.Beta;
+
+/**
+ * Receives the values of metrics computed when they are collected.
+ *
+ * <p>Metric and label names must follow the Prometheus conventions, such as {@code jenkins_queue_items}.
+ * Labels are given as alternating names and values.
+ *
+ * @see MetricsContributor
+ * @since TODO
+ */
+@Restricted(Beta.class)
+public interface MetricsSink {
+
+    /**
+     * A value which can go up and down, such as a number of items.
+     */
+    void gauge(@NonNull String name, @NonNull String help, double value, @NonNull String... labels);
+
+    /**
+     * A value which only goes up, such as a number of requests since startup.
+     */
+    void counter(@NonNull String name, @NonNull String help, double value, @NonNull String... labels);
+}
@@ -0,0 +1,136 @@
+package jenkins.metrics;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Formats metrics in the Prometheus text exposition format, version 0.0.4, grouped and sorted by name.
+ */
+final class PrometheusText implements MetricsSink {
+
+    private static final Logger LOGGER = Logger.getLogger(PrometheusText.class.getName());
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final Map<String, Family> families = new TreeMap<>();
+
+    private static final class Family {
+        final String type;
+        final String help;
+        final StringBuilder samples = new StringBuilder();
+
+        Family(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+    }
+
+    @Override
+    public void gauge(@NonNull String name, @NonNull String help, double value, @NonNull String... labels) {
+        Family f = family(name, help, "gauge");
+        if (f != null) {
+            sample(f, name, labels, null, value);
+        }
+    }
+
+    @Override
+    public void counter(@NonNull String name, @NonNull String help, double value, @NonNull String... labels) {
+        Family f = family(name, help, "counter");
+        if (f != null) {
+            sample(f, name, labels, null, value);
+        }
+    }
+
+    void histogram(@NonNull String name, @NonNull String help, @NonNull Histogram histogram, @NonNull String... labels) {
+        Family f = family(name, help, "histogram");
+        if (f == null) {
+            return;
+        }
+        double[] bounds = histogram.getBounds();
+        long[] counts = histogram.getCumulativeCounts();
+        for (int i = 0; i < bounds.length; i++) {
+            sample(f, name + "_bucket", labels, format(bounds[i]), counts[i]);
+        }
+        long count = counts[counts.length - 1];
+        sample(f, name + "_bucket", labels, "+Inf", count);
+        sample(f, name + "_sum", labels, null, histogram.getSum());
+        sample(f, name + "_count", labels, null, count);
+    }
+
+    private Family family(String name, String help, String type) {
+        Family f = families.computeIfAbsent(name, n -> new Family(type, help));
+        if (!f.type.equals(type)) {
+            LOGGER.log(Level.FINE, "Ignoring {0} {1} already reported as a {2}", new Object[] {type, name, f.type});
+            return null;
+        }
+        return f;
+    }
+
+    private static void sample(Family f, String name, String[] labels, String le, double value) {
+        StringBuilder b = f.samples.append(name);
+        if (labels.length > 0 || le != null) {
+            b.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) {
+                    b.append(',');
+                }
+                b.append(labels[i]).append("=\"");
+                escape(b, labels[i + 1], true);
+                b.append('"');
+            }
+            if (le != null) {
+                if (labels.length > 0) {
+                    b.append(',');
+                }
+                b.append("le=\"").append(le).append('"');
+            }
+            b.append('}');
+        }
+        b.append(' ').append(format(value)).append('\n');
+    }
+
+    static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static void escape(StringBuilder b, String s, boolean quotes) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\') {
+                b.append("\\\\");
+            } else if (c == '\n') {
+                b.append("\\n");
+            } else if (c == '"' && quotes) {
+                b.append("\\\"");
+            } else {
+                b.append(c);
+            }
+        }
+    }
+
+    void writeTo(@NonNull Writer w) throws IOException {
+        StringBuilder b = new StringBuilder();
+        for (Map.Entry<String, Family> e : families.entrySet()) {
+            Family f = e.getValue();
+            b.setLength(0);
+            b.append("# HELP ").append(e.getKey()).append(' ');
+            escape(b, f.help, false);
+            b.append("\n# TYPE ").append(e.getKey()).append(' ').append(f.type).append('\n');
+            w.append(b).append(f.samples);
+        }
+    }
+}
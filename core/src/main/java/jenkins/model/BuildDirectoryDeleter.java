@@ -0,0 +1,327 @@
+package jenkins.model;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import hudson.Util;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Run;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Reclaims the disk space of deleted builds in the background.
+ *
+ * <p>{@link Run#delete()} atomically renames the build directory out of the way
+ * (so the build disappears from its job right away) and, when {@link #ASYNC} is enabled,
+ * hands the renamed directory over to this class instead of deleting it inline.
+ * Directories are then removed one at a time by a single background thread,
+ * optionally throttled to {@link #MAX_FILES_PER_SECOND} so that discarding a large
+ * number of builds at once does not saturate the disk.
+ *
+ * <p>Scheduled directories are first moved into {@code $JENKINS_HOME/builds-trash}, and whatever is
+ * left there when Jenkins stops is deleted after the next startup. If the build directory is on
+ * another file system than {@code $JENKINS_HOME}, so that it cannot be moved atomically, it is
+ * deleted where it is, and is left behind if Jenkins stops first.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public final class BuildDirectoryDeleter {
+
+    private static final Logger LOGGER = Logger.getLogger(BuildDirectoryDeleter.class.getName());
+
+    /**
+     * Whether {@link Run#delete()} should reclaim disk space in the background.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static boolean ASYNC = SystemProperties.getBoolean(BuildDirectoryDeleter.class.getName() + ".async");
+
+    /**
+     * Upper bound on the number of files and directories removed per second by the background thread.
+     * Zero or a negative value disables throttling.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static int MAX_FILES_PER_SECOND = SystemProperties.getInteger(BuildDirectoryDeleter.class.getName() + ".maxFilesPerSecond", 0);
+
+    static final String TRASH = "builds-trash";
+
+    private static final BuildDirectoryDeleter INSTANCE = new BuildDirectoryDeleter(() -> {
+        Jenkins j = Jenkins.getInstanceOrNull();
+        return j == null ? null : new File(j.getRootDir(), TRASH);
+    }, System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+
+    public static @NonNull BuildDirectoryDeleter get() {
+        return INSTANCE;
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            new NamingThreadFactory(new DaemonThreadFactory(), "BuildDirectoryDeleter"));
+
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final AtomicLong directoriesDeleted = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /** Start of the current one second throttling window, in {@link #clock} units. Only used by the worker thread. */
+    private long windowStart;
+    /** Number of paths removed in the current throttling window. Only used by the worker thread. */
+    private int windowCount;
+
+    private final Supplier<File> trash;
+    private final LongSupplier clock;
+    private final Sleeper sleeper;
+    private volatile boolean swept;
+    private final AtomicLong trashed = new AtomicLong();
+
+    /**
+     * Sleeps for the given number of nanoseconds when throttling.
+     */
+    interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    /**
+     * @param trash the trash directory, or null if there is none
+     * @param clock as {@link System#nanoTime()}
+     */
+    BuildDirectoryDeleter(@NonNull Supplier<File> trash, @NonNull LongSupplier clock, @NonNull Sleeper sleeper) {
+        this.trash = trash;
+        this.clock = clock;
+        this.sleeper = sleeper;
+    }
+
+    @Initializer(after = InitMilestone.JOB_CONFIG_ADAPTED)
+    public static void sweepTrash() {
+        get().sweep();
+    }
+
+    /**
+     * Schedules the deletion of what is left in the trash directory since before the last restart, unless done already.
+     * Waits for a sweep in progress, so that a caller cannot move a directory into the trash while it is being listed.
+     */
+    void sweep() {
+        if (swept) {
+            return;
+        }
+        synchronized (this) {
+            File dir = trash.get();
+            if (swept || dir == null) {
+                return;
+            }
+            File[] leftovers = dir.listFiles();
+            if (leftovers != null) {
+                for (File leftover : leftovers) {
+                    LOGGER.log(Level.FINE, "Deleting {0} left over from before the last restart", leftover);
+                    enqueue(leftover);
+                }
+            }
+            swept = true;
+        }
+    }
+
+    /**
+     * Schedules the given directory for deletion.
+     * The directory must already have been moved out of the way of anything that might still use it.
+     */
+    public void schedule(@NonNull File dir) {
+        sweep();
+        enqueue(moveToTrash(dir));
+    }
+
+    private File moveToTrash(File dir) {
+        File trashDir = trash.get();
+        if (trashDir == null) {
+            return dir;
+        }
+        File target = new File(trashDir, System.currentTimeMillis() + "-" + trashed.incrementAndGet() + dir.getName());
+        try {
+            Files.createDirectories(trashDir.toPath());
+            Files.move(dir.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        } catch (IOException | UnsupportedOperationException e) {
+            // such as when the build directory is on another file system
+            LOGGER.log(Level.FINE, "Could not move " + dir + " to " + trashDir + ", deleting it in place", e);
+            return dir;
+        }
+    }
+
+    private void enqueue(File dir) {
+        backlog.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                long bytes = delete(dir.toPath());
+                directoriesDeleted.incrementAndGet();
+                bytesReclaimed.addAndGet(bytes);
+                LOGGER.log(Level.FINE, "Deleted {0}, reclaiming {1} bytes", new Object[] {dir, bytes});
+            } catch (IOException | RuntimeException e) {
+                failures.incrementAndGet();
+                LOGGER.log(Level.WARNING, "Failed to delete " + dir, e);
+                // some user reported that they see some left-over .xyz files in the workspace,
+                // so just to make sure we've really deleted it, schedule the deletion on VM exit, too.
+                if (dir.exists()) {
+                    dir.deleteOnExit();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                backlog.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Number of directories waiting to be deleted, including the one currently being deleted.
+     */
+    public int getBacklog() {
+        return backlog.get();
+    }
+
+    /**
+     * Number of directories fully deleted since startup.
+     */
+    public long getDirectoriesDeleted() {
+        return directoriesDeleted.get();
+    }
+
+    /**
+     * Total size of the regular files deleted since startup.
+     */
+    public long getBytesReclaimed() {
+        return bytesReclaimed.get();
+    }
+
+    /**
+     * Number of directories which could not be deleted completely.
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Waits until all directories scheduled so far have been processed.
+     * Intended for tests.
+     */
+    void awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (backlog.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private long delete(Path dir) throws IOException, InterruptedException {
+        AtomicLong bytes = new AtomicLong();
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    throttle();
+                    Files.deleteIfExists(file);
+                    if (attrs.isRegularFile()) {
+                        bytes.addAndGet(attrs.size());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path d, IOException exc) throws IOException {
+                    if (exc != null) {
+                        throw exc;
+                    }
+                    throttle();
+                    Files.deleteIfExists(d);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (NoSuchFileException e) {
+            // already gone
+        } catch (IOException e) {
+            // fall back to the robust deletion, which retries and fixes permissions
+            LOGGER.log(Level.FINE, "Retrying deletion of " + dir, e);
+            long remaining = sizeOf(dir);
+            Util.deleteRecursive(dir.toFile());
+            bytes.addAndGet(remaining);
+        } catch (ThrottleInterruptedException e) {
+            throw (InterruptedException) e.getCause();
+        }
+        return bytes.get();
+    }
+
+    /**
+     * Total size of the regular files left in a directory which could not be deleted in one pass.
+     */
+    private static long sizeOf(Path dir) {
+        AtomicLong bytes = new AtomicLong();
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        bytes.addAndGet(attrs.size());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to measure " + dir, e);
+        }
+        return bytes.get();
+    }
+
+    private void throttle() {
+        int max = MAX_FILES_PER_SECOND;
+        if (max <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (now - windowStart >= TimeUnit.SECONDS.toNanos(1)) {
+            windowStart = now;
+            windowCount = 0;
+        }
+        if (++windowCount > max) {
+            long sleep = TimeUnit.SECONDS.toNanos(1) - (now - windowStart);
+            try {
+                sleeper.sleep(sleep);
+            } catch (InterruptedException e) {
+                throw new ThrottleInterruptedException(e);
+            }
+            windowStart = clock.getAsLong();
+            windowCount = 1;
+        }
+    }
+
+    /**
+     * Tunnels an {@link InterruptedException} through {@link java.nio.file.FileVisitor} callbacks.
+     */
+    private static final class ThrottleInterruptedException extends RuntimeException {
+        ThrottleInterruptedException(InterruptedException cause) {
+            super(cause);
+        }
+    }
+}
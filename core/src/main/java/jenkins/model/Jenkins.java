@@ -507,6 +507,10 @@ public class Jenkins extends AbstractCIBase implements DirectlyModifiableTopLeve
     private transient Future<DependencyGraph> scheduledFutureDependencyGraph;
     private transient Future<DependencyGraph> calculatingFutureDependencyGraph;
     private transient Object dependencyGraphLock = new Object();
+    /** Projects to update in the dependency graph by the scheduled calculation, guarded by {@link #dependencyGraphLock}. */
+    private transient Set<AbstractProject> dependencyGraphChanges = new HashSet<>();
+    /** Whether the scheduled calculation must build the dependency graph again from scratch, guarded by {@link #dependencyGraphLock}. */
+    private transient boolean dependencyGraphFullRebuild;
 
     /**
      * Currently active Views tab bar.
@@ -1690,6 +1694,13 @@ public class Jenkins extends AbstractCIBase implements DirectlyModifiableTopLeve
         updateComputerList(AUTOMATIC_AGENT_LAUNCH);
     }
 
+    /**
+     * @see #updateComputers(Collection, Collection, boolean)
+     */
+    protected void updateComputers(@NonNull Collection<? extends Node> updated, @NonNull Collection<? extends Node> removed) {
+        updateComputers(updated, removed, AUTOMATIC_AGENT_LAUNCH);
+    }
+
     /** @deprecated Use {@link SCMListener#all} instead. */
     @Deprecated
     public CopyOnWriteList<SCMListener> getSCMListeners() {
@@ -5107,6 +5118,7 @@ public class Jenkins extends AbstractCIBase implements DirectlyModifiableTopLeve
      */
     public Future<DependencyGraph> rebuildDependencyGraphAsync() {
         synchronized (dependencyGraphLock) {
+            dependencyGraphFullRebuild = true;
             // Collect calls to this method to avoid unnecessary calculation of the dependency graph
             if (scheduledFutureDependencyGraph != null) {
                 return scheduledFutureDependencyGraph;
@@ -5116,6 +5128,28 @@ public class Jenkins extends AbstractCIBase implements DirectlyModifiableTopLeve
         }
     }
 
+    /**
+     * Updates the dependency graph asynchronously after the given item was saved or deleted.
+     * Only the dependencies declared by that item are computed again if {@link DependencyGraph#INCREMENTAL},
+     * otherwise this is the same as {@link #rebuildDependencyGraphAsync()}.
+     *
+     * @since TODO
+     */
+    @Restricted(NoExternalUse.class)
+    public Future<DependencyGraph> rebuildDependencyGraphAsync(@NonNull Item changed) {
+        if (!DependencyGraph.INCREMENTAL || !(changed instanceof AbstractProject) || changed instanceof ItemGroup) {
+            // the items of a group may have been added or removed too
+            return rebuildDependencyGraphAsync();
+        }
+        synchronized (dependencyGraphLock) {
+            dependencyGraphChanges.add((AbstractProject) changed);
+            if (scheduledFutureDependencyGraph != null) {
+                return scheduledFutureDependencyGraph;
+            }
+            return scheduledFutureDependencyGraph = scheduleCalculationOfFutureDependencyGraph(500, TimeUnit.MILLISECONDS);
+        }
+    }
+
     private Future<DependencyGraph> scheduleCalculationOfFutureDependencyGraph(int delay, TimeUnit unit) {
         return Timer.get().schedule(() -> {
             // Wait for the currently running calculation to finish without blocking rebuildDependencyGraphAsync()
@@ -5130,13 +5164,24 @@ public class Jenkins extends AbstractCIBase implements DirectlyModifiableTopLeve
                 temp.get();
             }
 
+            Set<AbstractProject> changes;
+            boolean full;
             synchronized (dependencyGraphLock) {
                 // Scheduled future becomes the currently calculating future
                 calculatingFutureDependencyGraph = scheduledFutureDependencyGraph;
                 scheduledFutureDependencyGraph = null;
+                changes = dependencyGraphChanges;
+                dependencyGraphChanges = new HashSet<>();
+                full = dependencyGraphFullRebuild;
+                dependencyGraphFullRebuild = false;
             }
 
-            rebuildDependencyGraph();
+            DependencyGraph current = dependencyGraph;
+            if (full || current == null || !current.isUpdatable()) {
+                rebuildDependencyGraph();
+            } else if (!changes.isEmpty()) {
+                dependencyGraph = current.update(changes);
+            }
 
             synchronized (dependencyGraphLock) {
                 calculatingFutureDependencyGraph = null;
@@ -163,7 +163,7 @@ public class Nodes implements PersistenceRoot {
                     @Override
                     public void run() {
                         nodes.compute(node.getNodeName(), (ignoredNodeName, ignoredNode) -> old);
-                        jenkins.updateComputerList();
+                        jenkins.updateComputers(old == null ? List.of() : List.of(old), List.of(node));
                         jenkins.trimLabels(node, old);
                     }
                 });
@@ -254,7 +254,7 @@ public class Nodes implements PersistenceRoot {
                 Util.deleteRecursive(new File(getRootDir(), oldOne.getNodeName()));
             }
             Queue.withLock(() -> {
-                jenkins.updateComputerList();
+                jenkins.updateComputers(List.of(newOne), List.of(oldOne));
                 jenkins.trimLabels(oldOne, newOne);
             });
             NodeListener.fireOnUpdated(oldOne, newOne);
@@ -291,7 +291,7 @@ public class Nodes implements PersistenceRoot {
             Util.deleteRecursive(new File(getRootDir(), node.getNodeName()));
 
             if (match.get()) {
-                jenkins.updateComputerList();
+                jenkins.updateComputers(List.of(), List.of(node));
                 jenkins.trimLabels(node);
             }
             NodeListener.fireOnDeleted(node);
@@ -400,7 +400,9 @@ public class Nodes implements PersistenceRoot {
 
     public void load(File dir) throws IOException {
         Node n = load(dir, nodes);
-        jenkins.updateComputerList();
+        if (n != null) {
+            jenkins.updateComputers(List.of(n), List.of());
+        }
         jenkins.trimLabels(n);
     }
 
@@ -409,7 +411,7 @@ public class Nodes implements PersistenceRoot {
             AtomicBoolean match = new AtomicBoolean();
             Queue.withLock(() -> match.set(node == nodes.remove(node.getNodeName())));
             if (match.get()) {
-                jenkins.updateComputerList();
+                jenkins.updateComputers(List.of(), List.of(node));
                 jenkins.trimLabels(node);
             }
         }
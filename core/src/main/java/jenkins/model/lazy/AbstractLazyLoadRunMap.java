@@ -53,6 +53,7 @@ import java.util.function.IntConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
+import jenkins.jfr.RunLoadEvent;
 import jenkins.util.MemoryReductionUtil;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.Beta;
@@ -699,8 +700,15 @@ public abstract class AbstractLazyLoadRunMap<R> extends AbstractMap<Integer, R>
      */
     private R load(File dataDir, Index editInPlace) {
         assert Thread.holdsLock(this);
+        RunLoadEvent event = new RunLoadEvent();
+        event.begin();
         try {
             R r = retrieve(dataDir);
+            if (event.shouldCommit()) {
+                event.directory = dataDir.getPath();
+                event.run = r == null ? null : r.toString();
+                event.commit();
+            }
             if (r == null) {
                 LOGGER.fine(() -> "nothing in " + dataDir);
                 return null;
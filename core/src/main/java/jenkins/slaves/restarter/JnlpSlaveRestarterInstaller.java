@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.logging.Logger;
+import jenkins.agents.RemotingLane;
 import jenkins.security.MasterToSlaveCallable;
 
 /**
@@ -42,7 +43,7 @@ public class JnlpSlaveRestarterInstaller extends ComputerListener implements Ser
     @Override
     public void onOnline(final Computer c, final TaskListener listener) throws IOException, InterruptedException {
         if (FORCE_INSTALL || c.getNode() instanceof DumbSlave) {
-            Computer.threadPoolForRemoting.submit(new Install(c, listener));
+            RemotingLane.MISC.executor().submit(new Install(c, listener));
         }
     }
 
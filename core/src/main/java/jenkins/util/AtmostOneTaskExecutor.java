@@ -10,6 +10,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jenkins.security.ImpersonatingExecutorService;
@@ -72,14 +73,19 @@ public class AtmostOneTaskExecutor<V> {
     }
 
     public AtmostOneTaskExecutor(Callable<V> task) {
-        this(new ImpersonatingExecutorService(new AtmostOneThreadExecutor(new NamingThreadFactory(
-                        new DaemonThreadFactory(),
+        this(new ImpersonatingExecutorService(newExecutor(new NamingThreadFactory(
+                        new DaemonThreadFactory(VirtualThreads.baseThreadFactory()),
                         String.format("AtmostOneTaskExecutor[%s]", task)
                 )), ACL.SYSTEM2),
                 task
         );
     }
 
+    private static ExecutorService newExecutor(ThreadFactory threadFactory) {
+        // a virtual thread is not worth keeping around between tasks
+        return VirtualThreads.isEnabled() ? VirtualThreads.newThreadPerTaskExecutor(threadFactory) : new AtmostOneThreadExecutor(threadFactory);
+    }
+
     public synchronized Future<V> submit() {
         if (pending == null) {
             pending = new CompletableFuture<>();
@@ -6,6 +6,8 @@ import hudson.util.ClassLoaderSanityThreadFactory;
 import hudson.util.DaemonThreadFactory;
 import hudson.util.NamingThreadFactory;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import jenkins.security.ImpersonatingScheduledExecutorService;
 
 /**
@@ -41,11 +43,14 @@ public class Timer {
     @NonNull
     public static synchronized ScheduledExecutorService get() {
         if (executorService == null) {
-            // corePoolSize is set to 10, but will only be created if needed.
-            // ScheduledThreadPoolExecutor "acts as a fixed-sized pool using corePoolSize threads"
+            ThreadFactory threadFactory = new NamingThreadFactory(new ClassLoaderSanityThreadFactory(new DaemonThreadFactory(VirtualThreads.baseThreadFactory())), "jenkins.util.Timer");
             // TODO consider also wrapping in ContextResettingExecutorService
             executorService = new ImpersonatingScheduledExecutorService(
-                    new ErrorLoggingScheduledThreadPoolExecutor(10, new NamingThreadFactory(new ClassLoaderSanityThreadFactory(new DaemonThreadFactory()), "jenkins.util.Timer")),
+                    VirtualThreads.isEnabled()
+                            ? new VirtualThreadScheduledExecutor(threadFactory)
+                            // corePoolSize is set to 10, but will only be created if needed.
+                            // ScheduledThreadPoolExecutor "acts as a fixed-sized pool using corePoolSize threads"
+                            : new ErrorLoggingScheduledThreadPoolExecutor(10, threadFactory),
                     ACL.SYSTEM2);
         }
         return executorService;
@@ -66,4 +71,23 @@ public class Timer {
      */
     private Timer() {}
 
+    /**
+     * Has no limit on the number of threads, so that tasks blocking on I/O never delay other due tasks.
+     * A thread is started whenever a task is scheduled or starts running, so there is always one waiting for the next
+     * due task, and threads idle for a minute exit.
+     */
+    private static final class VirtualThreadScheduledExecutor extends ErrorLoggingScheduledThreadPoolExecutor {
+        VirtualThreadScheduledExecutor(ThreadFactory threadFactory) {
+            super(Integer.MAX_VALUE, threadFactory);
+            setKeepAliveTime(1, TimeUnit.MINUTES);
+            allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        protected void beforeExecute(Thread t, Runnable r) {
+            super.beforeExecute(t, r);
+            prestartCoreThread();
+        }
+    }
+
 }
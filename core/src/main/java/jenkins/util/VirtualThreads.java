@@ -0,0 +1,137 @@
+package jenkins.util;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Access to virtual threads when Jenkins runs on Java 21 or newer.
+ *
+ * <p>Jenkins is built for Java 17, so the API is looked up reflectively.
+ * Callers should fall back to platform threads when {@link #newThreadFactory()} returns {@code null}.
+ *
+ * <p>When {@link #ENABLED} is set, the internal thread pools whose tasks mostly block on remoting or disk I/O
+ * (such as {@link Timer}, {@link hudson.model.Computer#threadPoolForRemoting} and SCM polling) create their threads
+ * with {@link #baseThreadFactory()} and thus run on virtual threads. Since virtual threads are cheap, those pools
+ * then no longer limit the number of tasks running at once, see {@link #isEnabled()}.
+ * Code running in these pools should avoid blocking while holding a monitor, which pins the virtual thread
+ * to its carrier thread on Java versions before 24.
+ *
+ * @since TODO
+ */
+@Restricted(NoExternalUse.class)
+public final class VirtualThreads {
+
+    private static final Logger LOGGER = Logger.getLogger(VirtualThreads.class.getName());
+
+    /**
+     * Whether internal thread pools should use virtual threads when the JVM supports them.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Accessible via System Groovy Scripts")
+    public static boolean ENABLED = SystemProperties.getBoolean(VirtualThreads.class.getName() + ".enabled");
+
+    private static final Method OF_VIRTUAL;
+    private static final Method FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method factory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            // fails on Java 19 and 20 unless preview features are enabled
+            factory.invoke(ofVirtual.invoke(null));
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (NoSuchMethodException | ClassNotFoundException e) {
+            LOGGER.log(Level.FINE, "Virtual threads are not available on Java " + System.getProperty("java.specification.version"));
+            ofVirtual = null;
+        } catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Virtual threads are not usable", e);
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+        if (ENABLED && ofVirtual == null) {
+            LOGGER.log(Level.WARNING, "Virtual threads were requested but are not supported by this JVM, using platform threads");
+        }
+    }
+
+    private VirtualThreads() {}
+
+    /**
+     * Whether virtual threads can be created on this JVM.
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Whether internal thread pools run on virtual threads: {@link #ENABLED} and supported by this JVM.
+     * Those pools should then start a thread for each task, for instance with {@link #newThreadPerTaskExecutor},
+     * rather than keeping a fixed number of threads.
+     */
+    public static boolean isEnabled() {
+        return ENABLED && OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates an executor starting a new thread for each task, with no limit on the number of tasks running at once.
+     * Meant to be used with virtual threads, when {@link #isEnabled()}.
+     *
+     * @param threadFactory typically wrapping {@link #baseThreadFactory()}
+     */
+    public static @NonNull ExecutorService newThreadPerTaskExecutor(@NonNull ThreadFactory threadFactory) {
+        if (NEW_THREAD_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                LOGGER.log(Level.WARNING, "Failed to create a thread per task executor", e);
+            }
+        }
+        // idle threads are reused for a while, otherwise equivalent
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * Creates a factory of virtual threads, or returns {@code null} if they are not supported.
+     * The resulting threads can be named and configured with the usual wrappers
+     * such as {@link hudson.util.NamingThreadFactory}.
+     */
+    public static @CheckForNull ThreadFactory newThreadFactory() {
+        if (OF_VIRTUAL == null) {
+            return null;
+        }
+        try {
+            return (ThreadFactory) FACTORY.invoke(OF_VIRTUAL.invoke(null));
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            LOGGER.log(Level.WARNING, "Failed to create a virtual thread factory", e);
+            return null;
+        }
+    }
+
+    /**
+     * The factory to be wrapped by internal thread pools:
+     * virtual threads if {@link #ENABLED} and supported, otherwise {@link Executors#defaultThreadFactory()}.
+     */
+    public static @NonNull ThreadFactory baseThreadFactory() {
+        if (isEnabled()) {
+            ThreadFactory factory = newThreadFactory();
+            if (factory != null) {
+                return factory;
+            }
+        }
+        return Executors.defaultThreadFactory();
+    }
+}
@@ -41,6 +41,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.kohsuke.accmod.Restricted;
@@ -58,15 +63,30 @@ public class PathRemover {
     }
 
     public static PathRemover newFilteredRobustRemover(@NonNull PathChecker pathChecker, int maxRetries, boolean gcAfterFailedRemove, long waitBetweenRetries) {
-        return new PathRemover(new PausingGCRetryStrategy(Math.max(maxRetries, 0), gcAfterFailedRemove, waitBetweenRetries), pathChecker);
+        return newFilteredRobustRemover(pathChecker, maxRetries, gcAfterFailedRemove, waitBetweenRetries, 1);
+    }
+
+    /**
+     * Like {@link #newFilteredRobustRemover(PathChecker, int, boolean, long)},
+     * but removes directory trees using up to {@code parallelism} threads.
+     * A value of 1 or less removes trees sequentially on the calling thread.
+     */
+    public static PathRemover newFilteredRobustRemover(@NonNull PathChecker pathChecker, int maxRetries, boolean gcAfterFailedRemove, long waitBetweenRetries, int parallelism) {
+        return new PathRemover(new PausingGCRetryStrategy(Math.max(maxRetries, 0), gcAfterFailedRemove, waitBetweenRetries), pathChecker, parallelism);
     }
 
     private final RetryStrategy retryStrategy;
     private final PathChecker pathChecker;
+    private final int parallelism;
 
     private PathRemover(@NonNull RetryStrategy retryStrategy, @NonNull PathChecker pathChecker) {
+        this(retryStrategy, pathChecker, 1);
+    }
+
+    private PathRemover(@NonNull RetryStrategy retryStrategy, @NonNull PathChecker pathChecker, int parallelism) {
         this.retryStrategy = retryStrategy;
         this.pathChecker = pathChecker;
+        this.parallelism = Math.max(parallelism, 1);
     }
 
     public void forceRemoveFile(@NonNull Path path) throws IOException {
@@ -216,6 +236,9 @@ public class PathRemover {
 
     private List<IOException> tryRemoveDirectoryContents(@NonNull Path path) {
         Path normalized = path.normalize();
+        if (parallelism > 1) {
+            return tryRemoveDirectoryContentsInParallel(normalized);
+        }
         List<IOException> accumulatedErrors = new ArrayList<>();
         if (!Files.isDirectory(normalized)) return accumulatedErrors;
         try (DirectoryStream<Path> children = Files.newDirectoryStream(normalized)) {
@@ -228,6 +251,91 @@ public class PathRemover {
         return accumulatedErrors;
     }
 
+    private List<IOException> tryRemoveDirectoryContentsInParallel(@NonNull Path path) {
+        if (!Files.isDirectory(path)) return new ArrayList<>();
+        ForkJoinPool pool = POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+        return pool.invoke(new RemoveDirectoryContentsTask(path, new AtomicBoolean()));
+    }
+
+    /**
+     * Pools used by parallel removals, by parallelism. Their threads end when idle.
+     */
+    private static final ConcurrentMap<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * Removes the contents of a directory, forking a subtask for each subdirectory.
+     * Plain files are removed in one batch by the task owning their directory,
+     * and a subdirectory is only removed once its own contents have been removed.
+     *
+     * <p>As in the sequential removal, nothing more is removed once the {@link PathChecker} refuses a path:
+     * the tasks of one removal share a flag which they check before each removal, and each task waits for
+     * all of its subtasks, so that the {@link SecurityException} only reaches the caller once they all stopped.
+     */
+    private final class RemoveDirectoryContentsTask extends RecursiveTask<List<IOException>> {
+        private final Path dir;
+        private final AtomicBoolean refused;
+
+        RemoveDirectoryContentsTask(@NonNull Path dir, @NonNull AtomicBoolean refused) {
+            this.dir = dir;
+            this.refused = refused;
+        }
+
+        @Override
+        protected List<IOException> compute() {
+            List<IOException> accumulatedErrors = new ArrayList<>();
+            List<Path> subdirectories = new ArrayList<>();
+            List<RemoveDirectoryContentsTask> subtasks = new ArrayList<>();
+            SecurityException refusal = null;
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(dir)) {
+                for (Path child : children) {
+                    if (refused.get()) {
+                        break;
+                    }
+                    if (!Util.isSymlink(child) && Files.isDirectory(child)) {
+                        RemoveDirectoryContentsTask subtask = new RemoveDirectoryContentsTask(child, refused);
+                        subtask.fork();
+                        subdirectories.add(child);
+                        subtasks.add(subtask);
+                    } else {
+                        remove(child, accumulatedErrors);
+                    }
+                }
+            } catch (IOException e) {
+                accumulatedErrors.add(e);
+            } catch (SecurityException e) {
+                refusal = e;
+            }
+            for (int i = 0; i < subtasks.size(); i++) {
+                try {
+                    accumulatedErrors.addAll(subtasks.get(i).join());
+                    if (refusal == null) {
+                        remove(subdirectories.get(i), accumulatedErrors);
+                    }
+                } catch (SecurityException e) {
+                    if (refusal == null) {
+                        refusal = e;
+                    }
+                }
+            }
+            if (refusal != null) {
+                throw refusal;
+            }
+            return accumulatedErrors;
+        }
+
+        private void remove(Path path, List<IOException> accumulatedErrors) {
+            if (refused.get()) {
+                return;
+            }
+            try {
+                tryRemoveFile(path).ifPresent(accumulatedErrors::add);
+            } catch (SecurityException e) {
+                refused.set(true);
+                throw e;
+            }
+        }
+    }
+
     private void removeOrMakeRemovableThenRemove(@NonNull Path path) throws IOException {
         pathChecker.check(path);
         try {
@@ -0,0 +1,96 @@
+package hudson.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class ResourceIndexTest {
+
+    @Test
+    public void readersShareWritersExclude() {
+        Resource a = new Resource("a");
+        Resource a1 = new Resource(a, "a1");
+        ResourceIndex index = new ResourceIndex();
+
+        ResourceIndex.Entry reading = index.add(new ResourceList().r(a));
+        assertNull(index.getConflict(new ResourceList().r(a1)));
+        assertEquals(a1, index.getConflict(new ResourceList().w(a1)));
+
+        index.remove(reading);
+        ResourceIndex.Entry writing = index.add(new ResourceList().w(a1));
+        assertEquals(a1, index.getConflict(new ResourceList().r(a)));
+        assertNull(index.getConflict(new ResourceList().r(new Resource(a, "a2"))));
+
+        index.remove(writing);
+        assertNull(index.getConflict(new ResourceList().w(a)));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void concurrentWrites() {
+        Resource c = new Resource(null, "c", 2);
+        ResourceIndex index = new ResourceIndex();
+        index.add(new ResourceList().w(c));
+        assertNull(index.getConflict(new ResourceList().w(c)));
+        index.add(new ResourceList().w(c));
+        assertNotNull(index.getConflict(new ResourceList().w(c)));
+    }
+
+    @Test
+    public void modifiedWhileInUse() {
+        ResourceIndex index = new ResourceIndex();
+        ResourceList list = new ResourceList().r(new Resource("a"));
+        ResourceIndex.Entry entry = index.add(list);
+        list.w(new Resource("b"));
+        index.remove(entry);
+        assertEquals(0, index.size());
+    }
+
+    /**
+     * Compares the conflicts found by the index with those found against the union of the lists in use.
+     */
+    @Test
+    public void sameConflictsAsUnion() {
+        Random entropy = new Random(0);
+        ResourceIndex index = new ResourceIndex();
+        List<Resource> resources = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Resource parent = i < 5 || entropy.nextBoolean() ? null : resources.get(entropy.nextInt(resources.size()));
+            resources.add(new Resource(parent, "R" + i, 1 + entropy.nextInt(3)));
+        }
+        List<ResourceList> inUse = new ArrayList<>();
+        List<ResourceIndex.Entry> entries = new ArrayList<>();
+        for (int round = 0; round < 2000; round++) {
+            ResourceList list = randomList(entropy, resources);
+            ResourceList union = ResourceList.union(inUse);
+            assertEquals(list.toString(), union.isCollidingWith(list), index.getConflict(list) != null);
+            if (!inUse.isEmpty() && entropy.nextInt(3) == 0) {
+                int i = entropy.nextInt(inUse.size());
+                inUse.remove(i);
+                index.remove(entries.remove(i));
+            } else if (inUse.size() < 10) {
+                inUse.add(list);
+                entries.add(index.add(list));
+            }
+        }
+    }
+
+    private static ResourceList randomList(Random entropy, List<Resource> resources) {
+        ResourceList list = new ResourceList();
+        int n = 1 + entropy.nextInt(3);
+        for (int i = 0; i < n; i++) {
+            Resource r = resources.get(entropy.nextInt(resources.size()));
+            if (entropy.nextInt(4) == 0) {
+                list.w(r);
+            } else {
+                list.r(r);
+            }
+        }
+        return list;
+    }
+}
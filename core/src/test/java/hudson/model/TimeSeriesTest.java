@@ -24,9 +24,11 @@
 
 package hudson.model;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Random;
 import org.junit.Test;
 
 /**
@@ -50,4 +52,26 @@ public class TimeSeriesTest {
         for (int i = 0; i < 100; i++)
         ts.update(1);
     }
+
+    @Test
+    public void historyMatchesMovingAverage() {
+        TimeSeries ts = new TimeSeries(0, 0.5f, 50);
+        float[] expected = {0};
+        Random r = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            // long constant runs keep the history unallocated, then grow it
+            float data = i < 100 || i % 70 > 30 ? 0 : r.nextInt(5);
+            ts.update(data);
+
+            float[] e = new float[Math.min(expected.length + 1, 50)];
+            System.arraycopy(expected, 0, e, 1, e.length - 1);
+            e[0] = expected[0] * 0.5f + data * 0.5f;
+            expected = e;
+
+            assertArrayEquals(expected, ts.getHistory(), 0f);
+            assertEquals(expected.length, ts.size());
+            assertEquals(expected[0], ts.getLatest(), 0f);
+            assertEquals(expected[expected.length - 1], ts.get(ts.size() - 1), 0f);
+        }
+    }
 }
@@ -33,12 +33,16 @@ import static org.junit.Assert.assertThrows;
 
 import antlr.ANTLRException;
 import java.text.DateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.Locale;
+import java.util.Random;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 import org.jvnet.hudson.test.Issue;
 
@@ -353,4 +357,86 @@ public class CronTabTest {
         cal.set(Calendar.MONTH, Calendar.NOVEMBER);
         new CronTab("0 0 31 * *").ceil(cal); // would infinite loop
     }
+
+    @Test
+    public void listCeilMatchesCheck() throws Exception {
+        String[] specs = {"H/15 * * * *", "0 9 * * 1-5", "*/7 3,15 1-10 * *", "TZ=Asia/Tokyo\n30 2 * * *\n@hourly", "# comment only"};
+        for (String spec : specs) {
+            CronTabList tabs = CronTabList.create(spec, Hash.from("seed"));
+            Calendar cal = new GregorianCalendar(2024, Calendar.JANUARY, 8, 0, 0);
+            long end = cal.getTimeInMillis() + 8 * 24 * 60 * 60 * 1000L;
+            long next = tabs.ceil(cal.getTimeInMillis());
+            for (; cal.getTimeInMillis() < end; cal.add(Calendar.MINUTE, 1)) {
+                if (tabs.check(cal)) {
+                    assertEquals(spec, next, cal.getTimeInMillis());
+                    next = tabs.ceil(cal.getTimeInMillis() + 60 * 1000L);
+                }
+            }
+            if (next >= 0) {
+                assertThat(spec, next >= end);
+            }
+        }
+        assertEquals(-1, CronTabList.create("0 0 31 2 *").ceil(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void ceilMatchesCalendarCeil() throws Exception {
+        String[] specs = {"0,30 * * * *", "15,45 3 * * *", "*/7 3,15 1-10 * *", "0 9 * * 1-5", "0 0 29 2 *", "0 0 13 * 5", "59 23 31 12 *", "H H(0-7) * * H", "0 0 31 2 *"};
+        Random random = new Random(0);
+        for (String spec : specs) {
+            CronTab tab = new CronTab(spec, 1, Hash.from("seed"), "UTC");
+            for (int i = 0; i < 100; i++) {
+                long t = 1577836800000L + (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(6 * 365)) / 60000 * 60000;
+                Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"), Locale.US);
+                cal.setTimeInMillis(t);
+                long expected;
+                try {
+                    expected = tab.ceil(cal).getTimeInMillis();
+                } catch (RareOrImpossibleDateException e) {
+                    expected = -1;
+                }
+                assertEquals(spec + " at " + t, expected, tab.ceil(t, ZoneId.of("UTC")));
+            }
+        }
+    }
+
+    @Test
+    public void ceilAndFloorAcrossDaylightSavingTime() throws Exception {
+        CronTabList tabs = CronTabList.create("TZ=America/New_York\n30 2 * * *\n45 1 * * *\n*/20 0 * * 0", Hash.from("seed"));
+        ZoneId zone = ZoneId.of("America/New_York");
+        Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"), Locale.US);
+        for (LocalDateTime transition : new LocalDateTime[] {LocalDateTime.of(2024, 3, 10, 2, 0), LocalDateTime.of(2024, 11, 3, 1, 0)}) {
+            long start = transition.atZone(zone).toInstant().toEpochMilli() - TimeUnit.HOURS.toMillis(3);
+            long end = start + TimeUnit.HOURS.toMillis(6);
+            for (long t = start; t < end; t += TimeUnit.MINUTES.toMillis(1)) {
+                long next = t;
+                for (cal.setTimeInMillis(next); !tabs.check(cal); cal.setTimeInMillis(next)) {
+                    next += TimeUnit.MINUTES.toMillis(1);
+                }
+                long previous = t;
+                for (cal.setTimeInMillis(previous); !tabs.check(cal); cal.setTimeInMillis(previous)) {
+                    previous -= TimeUnit.MINUTES.toMillis(1);
+                }
+                assertEquals("ceil of " + t, next, tabs.ceil(t));
+                assertEquals("floor of " + t, previous, tabs.floor(t));
+            }
+        }
+    }
+
+    @Test
+    public void cronMinuteMatchesCalendar() throws Exception {
+        List<CronTabList> lists = new ArrayList<>();
+        for (String spec : new String[] {"H/15 * * * *", "0 9 * * 1-5", "TZ=Asia/Tokyo\n30 2 * * *", "TZ=America/New_York\nH H * * *\n*/5 23 * * *"}) {
+            lists.add(CronTabList.create(spec, Hash.from("seed")));
+        }
+        Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("Europe/Paris"), Locale.US);
+        cal.set(2024, Calendar.MARCH, 29, 0, 0, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        for (int i = 0; i < 3 * 24 * 60; i++, cal.add(Calendar.MINUTE, 1)) {
+            CronMinute minute = new CronMinute(cal);
+            for (CronTabList tabs : lists) {
+                assertEquals(cal.getTime().toString(), tabs.check(cal), tabs.check(minute));
+            }
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package hudson.slaves;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ChannelHealthTest {
+
+    private static final long INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
+    @Test
+    public void histogram() {
+        ChannelHealth health = new ChannelHealth();
+        assertThat(health.getLastRoundTripMillis(), is(-1L));
+        assertThat(health.getAverageRoundTripMillis(), is(-1L));
+        health.onPing(0);
+        health.onPing(3);
+        health.onPing(5);
+        health.onPing(60_000);
+        long[] histogram = health.getHistogram();
+        assertThat(histogram.length, is(ChannelHealth.getBucketBounds().length + 1));
+        assertThat(histogram[0], is(1L));
+        assertThat(histogram[2], is(2L));
+        assertThat(histogram[histogram.length - 1], is(1L));
+        assertThat(health.getPings(), is(4L));
+        assertThat(health.getLastRoundTripMillis(), is(60_000L));
+    }
+
+    @Test
+    public void takeAverageRoundTrip() {
+        ChannelHealth health = new ChannelHealth();
+        assertThat(health.hasUnreportedRoundTrips(), is(false));
+        assertThat(health.takeAverageRoundTrip(), is(-1L));
+        health.onPing(10);
+        health.onPing(20);
+        assertThat(health.hasUnreportedRoundTrips(), is(true));
+        assertThat(health.takeAverageRoundTrip(), is(15L));
+        assertThat(health.hasUnreportedRoundTrips(), is(false));
+        assertThat(health.takeAverageRoundTrip(), is(-1L));
+    }
+
+    @Test
+    public void idleAgentsArePingedLessOften() {
+        ChannelHealth health = new ChannelHealth();
+        health.onConnected(0);
+        long[] expected = {INTERVAL, 2 * INTERVAL, 4 * INTERVAL, 4 * INTERVAL};
+        for (long e : expected) {
+            health.onPing(10);
+            assertThat(health.nextInterval(INTERVAL, true, 0), is(e));
+        }
+        health.onPing(10);
+        assertThat("busy agents are pinged as configured", health.nextInterval(INTERVAL, false, 0), is(INTERVAL));
+    }
+
+    @Test
+    public void slowPingsTightenTheInterval() {
+        ChannelHealth health = new ChannelHealth();
+        health.onConnected(0);
+        for (int i = 0; i < 5; i++) {
+            health.onPing(10);
+            health.nextInterval(INTERVAL, true, 0);
+        }
+        health.onPing(50);
+        assertThat("still fast enough", health.isSlow(), is(false));
+        health.onPing(1000);
+        assertThat(health.isSlow(), is(true));
+        assertThat(health.nextInterval(INTERVAL, true, 0), is(INTERVAL / ChannelHealth.INTERVAL_FACTOR));
+        health.onPing(10);
+        assertThat(health.isSlow(), is(false));
+        assertThat(health.nextInterval(INTERVAL, true, 0), is(2 * INTERVAL / ChannelHealth.INTERVAL_FACTOR));
+    }
+
+    @Test
+    public void flappingAgentsArePingedMoreOften() {
+        ChannelHealth health = new ChannelHealth();
+        long now = 0;
+        for (int i = 0; i < 3; i++) {
+            now += TimeUnit.MINUTES.toMillis(10);
+            health.onConnected(now);
+        }
+        assertThat(health.isFlapping(), is(true));
+        health.onPing(10);
+        assertThat(health.nextInterval(INTERVAL, true, now), is(INTERVAL / ChannelHealth.INTERVAL_FACTOR));
+
+        now += TimeUnit.HOURS.toMillis(1);
+        assertThat(health.nextInterval(INTERVAL, true, now), is(INTERVAL / ChannelHealth.INTERVAL_FACTOR * 2));
+        assertThat(health.isFlapping(), is(false));
+    }
+}
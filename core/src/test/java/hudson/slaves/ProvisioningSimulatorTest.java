@@ -0,0 +1,41 @@
+package hudson.slaves;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+import hudson.model.LoadStatistics.LoadStatisticsSnapshot;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ProvisioningSimulatorTest {
+
+    /**
+     * Four weeks of one job at a time, with a burst of 20 jobs every weekday between 9:00 and 9:30.
+     */
+    @Test
+    public void predictiveProvisioningAnticipatesRecurringBursts() {
+        Calendar cal = Calendar.getInstance();
+        cal.set(2024, Calendar.JANUARY, 1, 0, 0, 0);
+        long start = cal.getTimeInMillis();
+        long interval = TimeUnit.MINUTES.toMillis(1);
+        List<LoadStatisticsSnapshot> trace = new ArrayList<>();
+        for (long t = start; t < start + TimeUnit.DAYS.toMillis(28); t += interval) {
+            cal.setTimeInMillis(t);
+            int day = cal.get(Calendar.DAY_OF_WEEK);
+            int minute = cal.get(Calendar.HOUR_OF_DAY) * 60 + cal.get(Calendar.MINUTE);
+            boolean burst = day != Calendar.SATURDAY && day != Calendar.SUNDAY && minute >= 9 * 60 && minute < 9 * 60 + 30;
+            trace.add(LoadStatisticsSnapshot.builder().withQueueLength(burst ? 20 : 1).build());
+        }
+
+        ProvisioningSimulator simulator = new ProvisioningSimulator(TimeUnit.MINUTES.toMillis(5), TimeUnit.MINUTES.toMillis(10));
+        ProvisioningSimulator.Result reactive = simulator.run(trace, start, interval, ProvisioningSimulator.reactive());
+        ProvisioningSimulator.Result predictive = simulator.run(trace, start, interval, ProvisioningSimulator.predictive(TimeUnit.MINUTES.toMillis(5)));
+
+        // only the bursts of the first week are not anticipated
+        assertThat(predictive.getWaitingMillis(), lessThan(reactive.getWaitingMillis() / 3));
+        assertThat(predictive.getIdleMillis(), lessThan(reactive.getIdleMillis() * 2));
+    }
+}
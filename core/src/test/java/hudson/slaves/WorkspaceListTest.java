@@ -0,0 +1,112 @@
+package hudson.slaves;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import hudson.FilePath;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class WorkspaceListTest {
+
+    private final WorkspaceList list = new WorkspaceList();
+    private final FilePath ws = new FilePath(new File("/jenkins/workspace/job"));
+
+    @Test
+    public void allocateAddsSuffixes() throws Exception {
+        WorkspaceList.Lease first = list.allocate(ws);
+        WorkspaceList.Lease second = list.allocate(ws);
+        WorkspaceList.Lease third = list.allocate(ws);
+        assertThat(first.path, is(ws));
+        assertThat(second.path, is(ws.withSuffix(WorkspaceList.COMBINATOR + 2)));
+        assertThat(third.path, is(ws.withSuffix(WorkspaceList.COMBINATOR + 3)));
+        second.release();
+        assertThat(list.allocate(ws).path, is(second.path));
+
+        WorkspaceList.Statistics statistics = list.getStatistics();
+        assertThat(statistics.getInUse(), is(3));
+        assertThat(statistics.getAcquisitions(), is(4L));
+        assertThat(statistics.getMaxSuffix(), is(3));
+        assertThat(statistics.getWaits(), is(0L));
+    }
+
+    @Test
+    public void tryAcquire() throws Exception {
+        Object context = new Object();
+        WorkspaceList.Lease lease = list.tryAcquire(ws, false, context);
+        assertThat(lease, notNullValue());
+        assertThat(list.tryAcquire(ws, false, new Object()), nullValue());
+        WorkspaceList.Lease shared = list.tryAcquire(ws, false, context);
+        assertThat(shared, notNullValue());
+        lease.release();
+        assertThat(list.tryAcquire(ws, false, new Object()), nullValue());
+        shared.release();
+        assertThat(list.tryAcquire(ws, false, new Object()), notNullValue());
+    }
+
+    @Test
+    public void acquireWaitsForRelease() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            long allWaits = WorkspaceList.getAllWaits();
+            WorkspaceList.Lease lease = list.acquire(ws);
+            CountDownLatch waiting = new CountDownLatch(1);
+            Future<WorkspaceList.Lease> next = executor.submit(() -> {
+                waiting.countDown();
+                return list.acquire(ws);
+            });
+            waiting.await();
+            Thread.sleep(100);
+            assertThat(next.isDone(), is(false));
+            lease.release();
+            assertThat(next.get(10, TimeUnit.SECONDS).path, is(ws));
+            WorkspaceList.Statistics statistics = list.getStatistics();
+            assertThat(statistics.getWaits(), is(1L));
+            assertThat(statistics.getMaxWaitMillis(), greaterThanOrEqualTo(50L));
+            assertThat("also counted across computers", WorkspaceList.getAllWaits(), greaterThanOrEqualTo(allWaits + 1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void concurrentAllocations() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<WorkspaceList.Lease>> leases = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                FilePath base = ws.sibling("job" + i % 8);
+                leases.add(executor.submit(() -> {
+                    start.await();
+                    return list.allocate(base);
+                }));
+            }
+            start.countDown();
+            Set<FilePath> paths = new HashSet<>();
+            for (Future<WorkspaceList.Lease> lease : leases) {
+                paths.add(lease.get(10, TimeUnit.SECONDS).path);
+            }
+            assertThat(paths.size(), is(64));
+            assertThat(list.getStatistics().getMaxSuffix(), is(8));
+            for (Future<WorkspaceList.Lease> lease : leases) {
+                lease.get().release();
+            }
+            assertThat(list.getStatistics().getInUse(), is(0));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package hudson.tasks;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import hudson.Util;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FindRecordsTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void parallelDigestsMatchSequentialOnes() throws Exception {
+        File dir = tmp.newFolder();
+        Random random = new Random(42);
+        // empty, and around the 64KiB buffer used to read the files
+        int[] sizes = {0, 1, 64 * 1024 - 1, 64 * 1024, 64 * 1024 + 1, 3 * 1024 * 1024 + 17};
+        for (int i = 0; i < sizes.length; i++) {
+            byte[] content = new byte[sizes[i]];
+            random.nextBytes(content);
+            Files.write(new File(dir, "file" + i).toPath(), content);
+        }
+        // many more files than threads
+        for (int i = 0; i < 40; i++) {
+            Files.writeString(new File(dir, "small" + i).toPath(), "content " + i);
+        }
+
+        List<String> sequentialPaths = null;
+        for (int threads : new int[] {1, 4, 0}) {
+            List<Fingerprinter.Record> records = new Fingerprinter.FindRecords("**", null, true, true, 0, threads).invoke(dir, null);
+            assertThat(records.size(), is(sizes.length + 40));
+            List<String> paths = new ArrayList<>();
+            for (Fingerprinter.Record r : records) {
+                assertThat(r.relativePath, r.md5sum, is(Util.getDigestOf(new File(dir, r.relativePath))));
+                paths.add(r.relativePath);
+            }
+            if (sequentialPaths == null) {
+                sequentialPaths = paths;
+            } else {
+                assertThat("records are in the same order with " + threads + " threads", paths, is(sequentialPaths));
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package hudson.triggers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SCMPollingSchedulerTest {
+
+    private ExecutorService executor;
+    private ScheduledExecutorService timer;
+    private int maxConcurrent;
+    private int minInterval;
+    private int jitter;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        timer = Executors.newSingleThreadScheduledExecutor();
+        maxConcurrent = SCMPollingScheduler.MAX_CONCURRENT_PER_REPOSITORY;
+        minInterval = SCMPollingScheduler.MIN_INTERVAL_SECONDS;
+        jitter = SCMPollingScheduler.JITTER_SECONDS;
+        SCMPollingScheduler.JITTER_SECONDS = 0;
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        timer.shutdownNow();
+        SCMPollingScheduler.MAX_CONCURRENT_PER_REPOSITORY = maxConcurrent;
+        SCMPollingScheduler.MIN_INTERVAL_SECONDS = minInterval;
+        SCMPollingScheduler.JITTER_SECONDS = jitter;
+    }
+
+    @Test
+    void mergesRequestsAndLimitsConcurrencyPerRepository() throws Exception {
+        SCMPollingScheduler.MAX_CONCURRENT_PER_REPOSITORY = 2;
+        // keeps the repository, and its statistics, until the next round could start
+        SCMPollingScheduler.MIN_INTERVAL_SECONDS = 60;
+        SCMPollingScheduler scheduler = new SCMPollingScheduler(() -> executor, timer);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxSeen = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(6);
+        List<Runnable> runners = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            runners.add(() -> {
+                maxSeen.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                concurrent.decrementAndGet();
+                done.countDown();
+            });
+        }
+        synchronized (scheduler) {
+            // hold the round until all the requests are in
+            for (Runnable r : runners) {
+                scheduler.submit("repo", r);
+            }
+            scheduler.submit("repo", runners.get(0));
+            scheduler.submit("repo", runners.get(1));
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(maxSeen.get(), lessThanOrEqualTo(2));
+
+        List<SCMPollingScheduler.RepositoryStatistics> statistics = scheduler.getStatistics();
+        assertThat(statistics, hasSize(1));
+        SCMPollingScheduler.RepositoryStatistics s = statistics.get(0);
+        assertThat(s.getKey(), is("repo"));
+        assertThat(s.getRequests(), is(8L));
+        assertThat(s.getRounds(), is(1L));
+        assertThat(s.getQueueDepth(), is(0));
+    }
+
+    @Test
+    void roundsAreSpaced() throws Exception {
+        SCMPollingScheduler.MIN_INTERVAL_SECONDS = 1;
+        SCMPollingScheduler scheduler = new SCMPollingScheduler(() -> executor, timer);
+        List<Long> starts = new ArrayList<>();
+        CountDownLatch first = new CountDownLatch(1);
+        CountDownLatch second = new CountDownLatch(1);
+        scheduler.submit("repo", () -> {
+            starts.add(System.nanoTime());
+            first.countDown();
+        });
+        assertThat(first.await(10, TimeUnit.SECONDS), is(true));
+        scheduler.submit("repo", () -> {
+            starts.add(System.nanoTime());
+            second.countDown();
+        });
+        assertThat(second.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(starts.get(1) - starts.get(0)), greaterThanOrEqualTo(900L));
+    }
+
+    @Test
+    void requestedWhilePollingPollsAgain() throws Exception {
+        SCMPollingScheduler.MIN_INTERVAL_SECONDS = 0;
+        SCMPollingScheduler scheduler = new SCMPollingScheduler(() -> executor, timer);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch twice = new CountDownLatch(2);
+        Runnable runner = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            twice.countDown();
+        };
+        scheduler.submit("repo", runner);
+        assertThat(started.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(scheduler.getInProgress(), hasSize(1));
+        scheduler.submit("repo", runner);
+        scheduler.submit("repo", runner);
+        assertThat(scheduler.getQueueDepth(), is(1));
+        release.countDown();
+        assertThat(twice.await(10, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    void forgetsIdleRepositories() throws Exception {
+        SCMPollingScheduler.MIN_INTERVAL_SECONDS = 1;
+        SCMPollingScheduler scheduler = new SCMPollingScheduler(() -> executor, timer);
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.submit("repo", done::countDown);
+        assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+        assertThat("kept until the next round could start", scheduler.getStatistics(), hasSize(1));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!scheduler.getStatistics().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(scheduler.getStatistics(), empty());
+
+        CountDownLatch again = new CountDownLatch(1);
+        scheduler.submit("repo", again::countDown);
+        assertThat(again.await(10, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    void rejectedSchedulingIsRetried() throws Exception {
+        SCMPollingScheduler.MIN_INTERVAL_SECONDS = 0;
+        AtomicBoolean reject = new AtomicBoolean(true);
+        ScheduledExecutorService rejectingTimer = new ScheduledThreadPoolExecutor(1) {
+            @Override
+            public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+                if (reject.getAndSet(false)) {
+                    throw new RejectedExecutionException();
+                }
+                return super.schedule(command, delay, unit);
+            }
+        };
+        try {
+            SCMPollingScheduler scheduler = new SCMPollingScheduler(() -> executor, rejectingTimer);
+            CountDownLatch done = new CountDownLatch(2);
+            scheduler.submit("repo", done::countDown);
+            assertThat(scheduler.getQueueDepth(), is(1));
+            scheduler.submit("repo", done::countDown);
+            assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+        } finally {
+            rejectingTimer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package hudson.triggers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.concurrent.ExecutorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TriggerCronThreadsTest {
+
+    @AfterEach
+    void tearDown() {
+        Trigger.cronExecutor(0);
+    }
+
+    @Test
+    void executorFollowsCronThreads() {
+        assertThat(Trigger.cronExecutor(0), nullValue());
+        ExecutorService two = Trigger.cronExecutor(2);
+        assertThat(Trigger.cronExecutor(2), sameInstance(two));
+
+        ExecutorService four = Trigger.cronExecutor(4);
+        assertThat(four, not(sameInstance(two)));
+        assertThat("the previous executor lets its triggers complete", two.isShutdown(), is(true));
+        assertThat(four.isShutdown(), is(false));
+
+        assertThat(Trigger.cronExecutor(0), nullValue());
+        assertThat(four.isShutdown(), is(true));
+    }
+}
@@ -0,0 +1,209 @@
+package hudson.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class SequentialExecutionQueueTest {
+
+    private final List<ExecutorService> executors = new ArrayList<>();
+    private final Set<Integer> running = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger overlaps = new AtomicInteger();
+    private final ConcurrentHashMap<Integer, AtomicInteger> runs = new ConcurrentHashMap<>();
+
+    private ExecutorService newExecutor(int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        executors.add(executor);
+        return executor;
+    }
+
+    @After
+    public void shutdown() {
+        for (ExecutorService executor : executors) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Equal to the other tasks with the same key.
+     */
+    private final class Task implements Runnable {
+        private final int key;
+        private final CountDownLatch started;
+        private final CountDownLatch proceed;
+
+        Task(int key) {
+            this(key, null, null);
+        }
+
+        Task(int key, CountDownLatch started, CountDownLatch proceed) {
+            this.key = key;
+            this.started = started;
+            this.proceed = proceed;
+        }
+
+        @Override
+        public void run() {
+            if (!running.add(key)) {
+                overlaps.incrementAndGet();
+            }
+            try {
+                if (started != null) {
+                    started.countDown();
+                    proceed.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.remove(key);
+                runs.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Task && ((Task) o).key == key;
+        }
+
+        @Override
+        public int hashCode() {
+            return key;
+        }
+    }
+
+    private static void awaitCompletion(SequentialExecutionQueue queue, long completed) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (queue.getCompleted() < completed) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("only " + queue.getCompleted() + " of " + completed + " tasks completed");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Waits until no task is waiting or running, and none completed for a while.
+     */
+    private static void awaitIdle(SequentialExecutionQueue queue) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        long completed = -1;
+        while (queue.getWaiting() > 0 || !queue.getInProgress().isEmpty() || queue.getCompleted() != completed) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("still busy after " + queue.getCompleted() + " tasks");
+            }
+            completed = queue.getCompleted();
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void coalescesWhileWaitingAndRunning() throws Exception {
+        SequentialExecutionQueue queue = new SequentialExecutionQueue(newExecutor(4));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        queue.execute(new Task(1, started, proceed));
+        started.await();
+        for (int i = 0; i < 10; i++) {
+            queue.execute(new Task(1));
+        }
+        assertThat(queue.getInProgress().size(), is(1));
+        assertThat(queue.getWaiting(), is(0));
+        proceed.countDown();
+        awaitCompletion(queue, 2);
+        assertThat(runs.get(1).get(), is(2));
+        // all but the first, including the one which runs it again
+        assertThat(queue.getCoalesced(), is(10L));
+        assertThat(overlaps.get(), is(0));
+    }
+
+    @Test
+    public void manyKeys() throws Exception {
+        SequentialExecutionQueue queue = new SequentialExecutionQueue(newExecutor(4));
+        ExecutorService submitters = newExecutor(8);
+        int keys = 50000;
+        List<Future<?>> submissions = new ArrayList<>();
+        for (int s = 0; s < 8; s++) {
+            int offset = s;
+            submissions.add(submitters.submit(() -> {
+                // each key is submitted by two threads
+                for (int k = offset % 4; k < keys; k += 4) {
+                    queue.execute(new Task(k));
+                }
+            }));
+        }
+        for (Future<?> submission : submissions) {
+            submission.get(60, TimeUnit.SECONDS);
+        }
+        // each submission either runs or is combined with another, which may then run again
+        awaitCompletion(queue, 2L * keys - queue.getCoalesced());
+        awaitIdle(queue);
+        assertThat(runs.size(), is(keys));
+        long total = 0;
+        for (AtomicInteger count : runs.values()) {
+            total += count.get();
+        }
+        assertThat(total, is(queue.getCompleted()));
+        assertThat(total + queue.getCoalesced(), greaterThanOrEqualTo(2L * keys));
+        assertThat(total, lessThanOrEqualTo(2L * keys));
+        assertThat(overlaps.get(), is(0));
+        assertThat(queue.getWaiting(), is(0));
+    }
+
+    @Test
+    public void boundedBacklog() throws Exception {
+        SequentialExecutionQueue queue = new SequentialExecutionQueue(newExecutor(1));
+        queue.setMaxBacklog(2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        queue.execute(new Task(0, started, proceed));
+        started.await();
+        queue.execute(new Task(1));
+        queue.execute(new Task(2));
+        assertThrows(RejectedExecutionException.class, () -> queue.execute(new Task(3)));
+        // equal to a waiting one
+        queue.execute(new Task(2));
+        assertThat(queue.getRejected(), is(1L));
+        assertThat(queue.getWaiting(), is(2));
+        proceed.countDown();
+        awaitCompletion(queue, 3);
+        assertThat(runs.keySet(), is(Set.of(0, 1, 2)));
+    }
+
+    @Test
+    public void resizingMovesWaitingTasks() throws Exception {
+        SequentialExecutionQueue queue = new SequentialExecutionQueue(newExecutor(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        queue.execute(new Task(0, started, proceed));
+        started.await();
+        for (int k = 1; k <= 10; k++) {
+            queue.execute(new Task(k));
+        }
+        queue.setExecutors(newExecutor(2));
+        // the tasks run on the new executors while the first one still blocks the old one
+        awaitCompletion(queue, 10);
+        assertThat(runs.size(), is(10));
+        assertThat(queue.getInProgress().size(), is(1));
+        queue.execute(new Task(0));
+        proceed.countDown();
+        awaitCompletion(queue, 12);
+        assertThat(runs.get(0).get(), is(2));
+        assertThat(overlaps.get(), is(0));
+    }
+}
@@ -0,0 +1,110 @@
+package jenkins.agents;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import hudson.XmlFile;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JarPrefetchTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private int maxJars;
+
+    @Before
+    public void setUp() {
+        maxJars = JarPrefetch.MAX_JARS;
+    }
+
+    @After
+    public void tearDown() {
+        JarPrefetch.MAX_JARS = maxJars;
+    }
+
+    @Test
+    public void hotJarsMostUsedFirst() throws Exception {
+        File a = tmp.newFile("a.jar");
+        File b = tmp.newFile("b.jar");
+        File c = tmp.newFile("c.jar");
+        File missing = new File(tmp.getRoot(), "missing.jar");
+        JarPrefetch prefetch = loaded(Map.of(a.getAbsolutePath(), 3, b.getAbsolutePath(), 3, c.getAbsolutePath(), 5, missing.getAbsolutePath(), 10));
+
+        JarPrefetch.MAX_JARS = 100;
+        assertThat("JAR files which are gone are skipped, ties broken by path", prefetch.getHotJars(), contains(c, a, b));
+        JarPrefetch.MAX_JARS = 2;
+        assertThat(prefetch.getHotJars(), contains(c, a));
+        JarPrefetch.MAX_JARS = 0;
+        assertThat(prefetch.getHotJars().isEmpty(), is(true));
+    }
+
+    @Test
+    public void classLoaderOf() throws Exception {
+        Path plugins = tmp.newFolder("plugins").toPath();
+        File pluginJar = jar(plugins.resolve("active/WEB-INF/lib/active.jar"));
+        File inactiveJar = jar(plugins.resolve("inactive/WEB-INF/lib/inactive.jar"));
+        File coreJar = tmp.newFile("core.jar");
+        File unknownJar = tmp.newFile("unknown.jar");
+        ClassLoader pluginLoader = new URLClassLoader(new URL[0]);
+        try (URLClassLoader core = new URLClassLoader(new URL[] {coreJar.toURI().toURL()})) {
+            assertThat(classLoaderOf(pluginJar, plugins, pluginLoader, core), sameInstance(pluginLoader));
+            assertThat(classLoaderOf(inactiveJar, plugins, pluginLoader, core), nullValue());
+            assertThat(classLoaderOf(coreJar, plugins, pluginLoader, core), sameInstance(core));
+            assertThat(classLoaderOf(unknownJar, plugins, pluginLoader, core), nullValue());
+            assertThat("not part of a plugin", classLoaderOf(jar(plugins.resolve("active.jar")), plugins, pluginLoader, core), nullValue());
+        }
+    }
+
+    @Test
+    public void saveAndLoad() throws Exception {
+        File a = tmp.newFile("a.jar");
+        File b = tmp.newFile("b.jar");
+        File gone = tmp.newFile("gone.jar");
+        File file = new File(tmp.getRoot(), "usage.xml");
+        JarPrefetch prefetch = loaded(file, Map.of(a.getAbsolutePath(), 1, b.getAbsolutePath(), 7, gone.getAbsolutePath(), 2));
+        Files.delete(gone.toPath());
+        prefetch.save();
+
+        JarPrefetch reloaded = new JarPrefetch(() -> new XmlFile(file));
+        reloaded.load();
+        Map<String, Integer> expected = new TreeMap<>(Map.of(a.getAbsolutePath(), 1, b.getAbsolutePath(), 7));
+        assertThat(reloaded.getUsage(), is(expected));
+        assertThat(prefetch.getUsage(), is(expected));
+    }
+
+    private JarPrefetch loaded(Map<String, Integer> usage) throws IOException {
+        return loaded(new File(tmp.getRoot(), "usage.xml"), usage);
+    }
+
+    private static JarPrefetch loaded(File file, Map<String, Integer> usage) throws IOException {
+        new XmlFile(file).write(new TreeMap<>(usage));
+        JarPrefetch prefetch = new JarPrefetch(() -> new XmlFile(file));
+        prefetch.load();
+        return prefetch;
+    }
+
+    private static File jar(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        return Files.createFile(path).toFile();
+    }
+
+    private static ClassLoader classLoaderOf(File jar, Path plugins, ClassLoader pluginLoader, ClassLoader core) throws IOException {
+        return JarPrefetch.classLoaderOf(jar, jar.toURI().toURL(), plugins, name -> name.equals("active") ? pluginLoader : null, core);
+    }
+}
@@ -0,0 +1,186 @@
+package jenkins.agents;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReconnectionSchedulerTest {
+
+    private ExecutorService executor;
+    private ScheduledExecutorService timer;
+    private int launchesPerSecond;
+    private int burst;
+    private int maxConcurrent;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        timer = Executors.newSingleThreadScheduledExecutor();
+        launchesPerSecond = ReconnectionScheduler.LAUNCHES_PER_SECOND;
+        burst = ReconnectionScheduler.BURST;
+        maxConcurrent = ReconnectionScheduler.MAX_CONCURRENT;
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        timer.shutdownNow();
+        ReconnectionScheduler.LAUNCHES_PER_SECOND = launchesPerSecond;
+        ReconnectionScheduler.BURST = burst;
+        ReconnectionScheduler.MAX_CONCURRENT = maxConcurrent;
+    }
+
+    @Test
+    public void unlimitedByDefault() throws Exception {
+        ReconnectionScheduler.LAUNCHES_PER_SECOND = 0;
+        ReconnectionScheduler.MAX_CONCURRENT = 0;
+        ReconnectionScheduler scheduler = new ReconnectionScheduler(executor, timer, name -> false);
+        CountDownLatch started = new CountDownLatch(20);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(scheduler.submit("agent" + i, () -> {
+                started.countDown();
+                release.await();
+                return null;
+            }));
+        }
+        assertThat(started.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(scheduler.getRunning(), is(20));
+        release.countDown();
+        for (Future<?> f : futures) {
+            f.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void rateLimited() throws Exception {
+        ReconnectionScheduler.LAUNCHES_PER_SECOND = 10;
+        ReconnectionScheduler.BURST = 2;
+        ReconnectionScheduler.MAX_CONCURRENT = 0;
+        ReconnectionScheduler scheduler = new ReconnectionScheduler(executor, timer, name -> false);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(scheduler.submit("agent" + i, () -> {}));
+        }
+        assertThat("only the burst is admitted right away", scheduler.getPending(), greaterThanOrEqualTo(3));
+        for (Future<?> f : futures) {
+            f.get(10, TimeUnit.SECONDS);
+        }
+        // 2 right away, then one every 100ms
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), greaterThanOrEqualTo(350L));
+    }
+
+    @Test
+    public void concurrencyLimitedAndUrgentFirst() throws Exception {
+        ReconnectionScheduler.LAUNCHES_PER_SECOND = 0;
+        ReconnectionScheduler.MAX_CONCURRENT = 1;
+        ReconnectionScheduler scheduler = new ReconnectionScheduler(executor, timer, name -> name.startsWith("urgent"));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxSeen = new AtomicInteger();
+        List<String> order = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        futures.add(scheduler.submit("first", () -> {
+            release.await();
+            return null;
+        }));
+        for (String name : new String[] {"idle1", "urgent1", "idle2", "urgent2"}) {
+            futures.add(scheduler.submit(name, () -> {
+                maxSeen.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                synchronized (order) {
+                    order.add(name);
+                }
+                concurrent.decrementAndGet();
+            }));
+        }
+        assertThat(scheduler.getPending(), is(4));
+        release.countDown();
+        for (Future<?> f : futures) {
+            f.get(10, TimeUnit.SECONDS);
+        }
+        assertThat(order, contains("urgent1", "urgent2", "idle1", "idle2"));
+        assertThat(maxSeen.get(), lessThanOrEqualTo(1));
+    }
+
+    @Test
+    public void cancelledWhilePending() throws Exception {
+        ReconnectionScheduler.LAUNCHES_PER_SECOND = 0;
+        ReconnectionScheduler.MAX_CONCURRENT = 1;
+        ReconnectionScheduler scheduler = new ReconnectionScheduler(executor, timer, name -> false);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> first = scheduler.submit("first", () -> {
+            release.await();
+            return null;
+        });
+        AtomicInteger ran = new AtomicInteger();
+        Future<?> cancelled = scheduler.submit("cancelled", ran::incrementAndGet);
+        Future<?> last = scheduler.submit("last", ran::incrementAndGet);
+        cancelled.cancel(false);
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        last.get(10, TimeUnit.SECONDS);
+        assertThat(ran.get(), is(1));
+    }
+
+    @Test
+    public void timeToOnline() {
+        ReconnectionScheduler scheduler = new ReconnectionScheduler(executor, timer, name -> false);
+        scheduler.online("agent");
+        assertThat("not launched through the scheduler", scheduler.getTimeToOnlineMillis("agent"), nullValue());
+        scheduler.submit("agent", () -> {});
+        scheduler.online("agent");
+        assertThat(scheduler.getTimeToOnlineMillis("agent"), notNullValue());
+        assertThat(scheduler.getTimeToOnlineMillis().keySet(), contains("agent"));
+    }
+
+    @Test
+    public void timeToOnlineForgottenAfterFailureOrDeletion() throws Exception {
+        ReconnectionScheduler scheduler = new ReconnectionScheduler(executor, timer, name -> false);
+        Future<?> failed = scheduler.submit("agent", (Runnable) () -> {
+            throw new IllegalStateException("cannot launch");
+        });
+        assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+        // let the launch complete
+        awaitRunning(scheduler, 0);
+        scheduler.online("agent");
+        assertThat("the failed launch does not count", scheduler.getTimeToOnlineMillis("agent"), nullValue());
+
+        scheduler.submit("agent", () -> {}).get(10, TimeUnit.SECONDS);
+        scheduler.online("agent");
+        assertThat(scheduler.getTimeToOnlineMillis("agent"), notNullValue());
+        scheduler.submit("other", () -> {}).get(10, TimeUnit.SECONDS);
+        scheduler.deleted("agent");
+        scheduler.deleted("other");
+        assertThat(scheduler.getTimeToOnlineMillis().isEmpty(), is(true));
+        // a new agent with the same name is measured from its own launch
+        scheduler.online("other");
+        assertThat(scheduler.getTimeToOnlineMillis("other"), nullValue());
+    }
+
+    private static void awaitRunning(ReconnectionScheduler scheduler, int running) throws InterruptedException {
+        while (scheduler.getRunning() != running) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package jenkins.agents;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThrows;
+
+import hudson.security.ACL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import jenkins.model.Jenkins;
+import org.junit.Test;
+
+public class RemotingLaneTest {
+
+    @Test
+    public void runsAsSystemAndCountsTasks() throws Exception {
+        long completed = RemotingLane.MISC.getCompleted();
+
+        assertThat(RemotingLane.MISC.executor().submit(() -> Jenkins.getAuthentication2() == ACL.SYSTEM2).get(), is(true));
+        assertThat(RemotingLane.MISC.executor().submit(() -> Thread.currentThread().getName()).get(),
+                startsWith("Computer.threadPoolForRemoting.misc"));
+
+        // afterExecute runs after the future is completed
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (RemotingLane.MISC.getCompleted() < completed + 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(RemotingLane.MISC.getCompleted(), is(completed + 2));
+        assertThat(RemotingLane.MISC.getOverflowed(), is(0L));
+    }
+
+    @Test
+    public void saturatedLaneOverflows() throws Exception {
+        RemotingLane.Pool pool = new RemotingLane.Pool("test", 1, 1, Executors.defaultThreadFactory());
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            pool.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertThat(started.await(10, TimeUnit.SECONDS), is(true));
+            Future<Thread> queued = pool.submit(Thread::currentThread);
+            Future<Thread> overflowed = pool.submit(Thread::currentThread);
+            assertThat("neither dropped nor run by the submitting thread, even while the lane is busy",
+                    overflowed.get(10, TimeUnit.SECONDS), not(sameInstance(Thread.currentThread())));
+            assertThat(queued.isDone(), is(false));
+            assertThat(pool.getOverflowed(), is(1L));
+            release.countDown();
+            assertThat(queued.get(10, TimeUnit.SECONDS), not(sameInstance(Thread.currentThread())));
+        } finally {
+            pool.shutdown();
+        }
+        assertThrows(RejectedExecutionException.class, () -> pool.execute(() -> {}));
+        assertThat(pool.getOverflowed(), is(1L));
+    }
+}
@@ -0,0 +1,55 @@
+package jenkins.jfr;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import hudson.XmlFile;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class XmlFileEventTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void readAndWrite() throws Exception {
+        File f = new File(tmp.getRoot(), "config.xml");
+        XmlFile xml = new XmlFile(f);
+        Path dump = tmp.newFile("recording.jfr").toPath();
+        try (Recording recording = new Recording()) {
+            recording.enable(XmlFileWriteEvent.class).withoutThreshold();
+            recording.enable(XmlFileReadEvent.class).withoutThreshold();
+            recording.start();
+            xml.write(new ArrayList<>(List.of("a", "b")));
+            xml.read();
+            recording.stop();
+            recording.dump(dump);
+        }
+        List<RecordedEvent> written = new ArrayList<>();
+        List<RecordedEvent> read = new ArrayList<>();
+        for (RecordedEvent e : RecordingFile.readAllEvents(dump)) {
+            if (e.getEventType().getName().equals("jenkins.XmlFileWrite")) {
+                written.add(e);
+            } else if (e.getEventType().getName().equals("jenkins.XmlFileRead")) {
+                read.add(e);
+            }
+        }
+        assertThat(written, hasSize(1));
+        assertThat(read, hasSize(1));
+        assertThat(written.get(0).getString("path"), is(f.getPath()));
+        assertThat(written.get(0).getLong("bytes"), is(f.length()));
+        assertThat(read.get(0).getLong("bytes"), greaterThan(0L));
+        assertThat(read.get(0).getClass("type").getName(), is(ArrayList.class.getName()));
+    }
+}
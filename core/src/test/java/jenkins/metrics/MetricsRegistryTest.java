@@ -0,0 +1,114 @@
+package jenkins.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThrows;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    private String scrape(MetricsContributor... contributors) throws Exception {
+        PrometheusText text = new PrometheusText();
+        registry.collect(text, List.of(contributors));
+        StringWriter w = new StringWriter();
+        text.writeTo(w);
+        return w.toString();
+    }
+
+    @Test
+    public void counters() throws Exception {
+        Counter get = registry.counter("http_requests_total", "Requests", "method", "get");
+        assertThat(registry.counter("http_requests_total", "Requests", "method", "get"), sameInstance(get));
+        Counter post = registry.counter("http_requests_total", "Requests", "method", "post");
+        get.inc();
+        get.add(2);
+        post.inc();
+        String text = scrape();
+        assertThat(text, startsWith("# HELP http_requests_total Requests\n# TYPE http_requests_total counter\n"));
+        // the order of the series of a metric is unspecified
+        assertThat(text, containsString("http_requests_total{method=\"get\"} 3\n"));
+        assertThat(text, containsString("http_requests_total{method=\"post\"} 1\n"));
+    }
+
+    @Test
+    public void histogram() throws Exception {
+        Histogram h = registry.histogram("latency_seconds", "Latency", new double[] {0.1, 1});
+        h.observe(0.05);
+        h.observe(0.1);
+        h.observe(0.5);
+        h.observe(3);
+        assertThat(h.getCount(), is(4L));
+        assertThat(scrape(), is(
+                "# HELP latency_seconds Latency\n"
+                        + "# TYPE latency_seconds histogram\n"
+                        + "latency_seconds_bucket{le=\"0.1\"} 2\n"
+                        + "latency_seconds_bucket{le=\"1\"} 3\n"
+                        + "latency_seconds_bucket{le=\"+Inf\"} 4\n"
+                        + "latency_seconds_sum 3.65\n"
+                        + "latency_seconds_count 4\n"));
+    }
+
+    @Test
+    public void gaugesAndContributors() throws Exception {
+        registry.gauge("b_gauge", "Second", () -> 1.5);
+        registry.gauge("b_gauge", "Second", () -> 2.5);
+        MetricsContributor contributor = new MetricsContributor() {
+            @Override
+            public void contribute(MetricsSink sink) {
+                sink.gauge("a_gauge", "First\nline", 7, "path", "C:\\\"x\"\n");
+                sink.counter("a_gauge", "Ignored, already a gauge", 1);
+            }
+        };
+        assertThat(scrape(contributor), is(
+                "# HELP a_gauge First\\nline\n"
+                        + "# TYPE a_gauge gauge\n"
+                        + "a_gauge{path=\"C:\\\\\\\"x\\\"\\n\"} 7\n"
+                        + "# HELP b_gauge Second\n"
+                        + "# TYPE b_gauge gauge\n"
+                        + "b_gauge 2.5\n"));
+    }
+
+    @Test
+    public void invalidRegistrations() {
+        registry.counter("requests_total", "Requests");
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("requests_total", "Requests"));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("requests-total", "Requests"));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("requests_total", "Requests", "method"));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("requests_total", "Requests", "0method", "get"));
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("sizes", "Sizes", new double[] {2, 1}));
+    }
+
+    @Test
+    public void concurrentObservations() throws Exception {
+        Histogram h = registry.histogram("work_seconds", "Work");
+        Counter c = registry.counter("work_total", "Work");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 8; i++) {
+                executor.submit(() -> {
+                    for (int j = 0; j < 10000; j++) {
+                        h.observe(0.002);
+                        c.inc();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS), is(true));
+        }
+        assertThat(h.getCount(), is(80000L));
+        assertThat(c.get(), is(80000L));
+        assertThat(scrape(), containsString("work_seconds_bucket{le=\"0.0025\"} 80000\n"));
+    }
+}
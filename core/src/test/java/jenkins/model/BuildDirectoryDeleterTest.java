@@ -0,0 +1,143 @@
+package jenkins.model;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BuildDirectoryDeleterTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private BuildDirectoryDeleter newDeleter(File trash) {
+        return new BuildDirectoryDeleter(() -> trash, System::nanoTime, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    @Test
+    public void deletesScheduledDirectoriesAndTracksReclaimedBytes() throws Exception {
+        File dir = tmp.newFolder(".42");
+        Path nested = Files.createDirectories(dir.toPath().resolve("archive/target"));
+        Files.write(nested.resolve("a.jar"), new byte[1000]);
+        Files.writeString(dir.toPath().resolve("log"), "Started\n", StandardCharsets.UTF_8);
+
+        BuildDirectoryDeleter deleter = newDeleter(null);
+        deleter.schedule(dir);
+        deleter.awaitIdle(10, TimeUnit.SECONDS);
+
+        assertThat(dir.exists(), is(false));
+        assertThat(deleter.getBacklog(), is(0));
+        assertThat(deleter.getDirectoriesDeleted(), is(1L));
+        assertThat(deleter.getBytesReclaimed(), is(1008L));
+        assertThat(deleter.getFailures(), is(0L));
+    }
+
+    @Test
+    public void movesToTrashAndSweepsLeftovers() throws Exception {
+        File trash = new File(tmp.getRoot(), BuildDirectoryDeleter.TRASH);
+        // left over by a previous run which stopped before deleting it
+        File leftover = new File(trash, "1-1.7");
+        Files.createDirectories(leftover.toPath());
+        Files.write(leftover.toPath().resolve("log"), new byte[10]);
+        File dir = tmp.newFolder(".8");
+        Files.write(dir.toPath().resolve("log"), new byte[20]);
+
+        BuildDirectoryDeleter deleter = newDeleter(trash);
+        deleter.schedule(dir);
+        // the build directory is out of the way right away
+        assertThat(dir.exists(), is(false));
+        deleter.awaitIdle(10, TimeUnit.SECONDS);
+
+        assertThat(leftover.exists(), is(false));
+        assertThat(trash.list(), emptyArray());
+        assertThat(deleter.getDirectoriesDeleted(), is(2L));
+        assertThat(deleter.getBytesReclaimed(), is(30L));
+    }
+
+    @Test
+    public void concurrentSchedulingDoesNotSweepTwice() throws Exception {
+        File trash = new File(tmp.getRoot(), BuildDirectoryDeleter.TRASH);
+        for (int i = 0; i < 50; i++) {
+            Files.createDirectories(trash.toPath().resolve("1-" + i + ".7"));
+        }
+        List<File> dirs = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            dirs.add(tmp.newFolder("." + i));
+        }
+
+        BuildDirectoryDeleter deleter = newDeleter(trash);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (File dir : dirs) {
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                deleter.schedule(dir);
+            });
+            t.start();
+            threads.add(t);
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        deleter.awaitIdle(10, TimeUnit.SECONDS);
+
+        // a directory moved into the trash during the sweep would be deleted twice, failing the second time
+        assertThat(trash.list(), emptyArray());
+        assertThat(deleter.getDirectoriesDeleted(), is(58L));
+        assertThat(deleter.getFailures(), is(0L));
+    }
+
+    @Test
+    public void throttlesDeletion() throws Exception {
+        File dir = tmp.newFolder(".43");
+        for (int i = 0; i < 9; i++) {
+            Files.writeString(dir.toPath().resolve("file" + i), "x", StandardCharsets.UTF_8);
+        }
+
+        AtomicLong clock = new AtomicLong();
+        List<Long> sleeps = new CopyOnWriteArrayList<>();
+        BuildDirectoryDeleter deleter = new BuildDirectoryDeleter(() -> null, clock::get, nanos -> {
+            sleeps.add(nanos);
+            clock.addAndGet(nanos);
+        });
+        int old = BuildDirectoryDeleter.MAX_FILES_PER_SECOND;
+        BuildDirectoryDeleter.MAX_FILES_PER_SECOND = 4;
+        try {
+            deleter.schedule(dir);
+            deleter.awaitIdle(10, TimeUnit.SECONDS);
+        } finally {
+            BuildDirectoryDeleter.MAX_FILES_PER_SECOND = old;
+        }
+        // 10 paths at 4 per second wait for the end of two windows
+        long second = TimeUnit.SECONDS.toNanos(1);
+        assertThat(sleeps, contains(second, second));
+        assertThat(dir.exists(), is(false));
+    }
+
+    @Test
+    public void missingDirectoryIsNotAFailure() throws Exception {
+        BuildDirectoryDeleter deleter = newDeleter(null);
+        deleter.schedule(new File(tmp.getRoot(), "does-not-exist"));
+        deleter.awaitIdle(10, TimeUnit.SECONDS);
+        assertThat(deleter.getFailures(), is(0L));
+    }
+}
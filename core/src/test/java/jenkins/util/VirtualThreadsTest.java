@@ -0,0 +1,73 @@
+package jenkins.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void supportedFromJava21() {
+        assertThat(VirtualThreads.isSupported(), is(Runtime.version().feature() >= 21));
+        if (!VirtualThreads.isSupported()) {
+            assertThat(VirtualThreads.newThreadFactory(), nullValue());
+        }
+    }
+
+    @Test
+    public void baseThreadFactory() throws Exception {
+        boolean old = VirtualThreads.ENABLED;
+        try {
+            VirtualThreads.ENABLED = false;
+            assertThat(isVirtual(VirtualThreads.baseThreadFactory().newThread(() -> {})), is(false));
+            VirtualThreads.ENABLED = true;
+            Thread t = VirtualThreads.baseThreadFactory().newThread(() -> {});
+            assertThat(isVirtual(t), is(VirtualThreads.isSupported()));
+            AtomicBoolean ran = new AtomicBoolean();
+            t = VirtualThreads.baseThreadFactory().newThread(() -> ran.set(true));
+            t.start();
+            t.join();
+            assertThat(ran.get(), is(true));
+        } finally {
+            VirtualThreads.ENABLED = old;
+        }
+    }
+
+    @Test
+    public void threadPerTaskExecutor() throws Exception {
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor(VirtualThreads.baseThreadFactory());
+        try {
+            CountDownLatch started = new CountDownLatch(50);
+            CountDownLatch release = new CountDownLatch(1);
+            for (int i = 0; i < 50; i++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            assertThat("all tasks run at once", started.await(10, TimeUnit.SECONDS), is(true));
+            release.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+    }
+
+    private static boolean isVirtual(Thread t) throws Exception {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(t);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
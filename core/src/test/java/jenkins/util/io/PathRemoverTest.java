@@ -31,6 +31,7 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThrows;
@@ -56,10 +57,14 @@ import java.nio.file.spi.FileSystemProvider;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -383,6 +388,108 @@ public class PathRemoverTest {
         }
     }
 
+    @Test
+    public void testForceRemoveRecursive_Parallel() throws IOException {
+        File dir = tmp.newFolder();
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                File d = new File(dir, "d" + i + "/d" + j);
+                mkdirs(d);
+                for (int k = 0; k < 10; k++) {
+                    files.add(new File(d, "f" + k));
+                }
+            }
+            files.add(new File(dir, "f" + i));
+        }
+        touchWithFileName(files.toArray(new File[0]));
+
+        PathRemover remover = PathRemover.newFilteredRobustRemover(PathRemover.PathChecker.ALLOW_ALL, 0, false, 0, 4);
+        remover.forceRemoveRecursive(dir.toPath());
+
+        assertFalse(dir.exists());
+    }
+
+    @Test
+    public void testForceRemoveRecursive_ParallelContainsSymbolicLinks() throws IOException {
+        assumeFalse(Functions.isWindows());
+        File folder = tmp.newFolder();
+        File d1 = new File(folder, "d1");
+        File d1f1 = new File(d1, "d1f1");
+        File f2 = new File(folder, "f2");
+        mkdirs(d1);
+        touchWithFileName(d1f1, f2);
+        Path path = tmp.newFolder().toPath();
+        Files.createDirectories(path.resolve("sub"));
+        Files.createSymbolicLink(path.resolve("sub/sym-dir"), d1.toPath());
+        Files.createSymbolicLink(path.resolve("sym-file"), f2.toPath());
+
+        PathRemover remover = PathRemover.newFilteredRobustRemover(PathRemover.PathChecker.ALLOW_ALL, 0, false, 0, 4);
+        remover.forceRemoveRecursive(path);
+
+        assertTrue("Unable to delete directory: " + path, Files.notExists(path));
+        for (File file : Arrays.asList(d1, d1f1, f2)) {
+            assertTrue("Should not have deleted target: " + file, file.exists());
+        }
+    }
+
+    @Test
+    public void testForceRemoveRecursive_ParallelChecksPaths() throws IOException {
+        File dir = tmp.newFolder();
+        File d1 = new File(dir, "d1");
+        File d2 = new File(dir, "d2");
+        File d1f1 = new File(d1, "d1f1");
+        File d2f2 = new File(d2, "protected");
+        mkdirs(d1, d2);
+        touchWithFileName(d1f1, d2f2);
+
+        PathRemover remover = PathRemover.newFilteredRobustRemover(path -> {
+            if (path.getFileName().toString().equals("protected")) {
+                throw new SecurityException("not allowed to delete " + path);
+            }
+        }, 0, false, 0, 4);
+        assertThrows(SecurityException.class, () -> remover.forceRemoveRecursive(dir.toPath()));
+        assertTrue(d2f2.exists());
+    }
+
+    @Test
+    public void testForceRemoveRecursive_ParallelStopsWhenRefused() throws Exception {
+        File dir = tmp.newFolder();
+        for (int i = 0; i < 20; i++) {
+            File d = new File(dir, "d" + i);
+            mkdirs(d);
+            for (int k = 0; k < 20; k++) {
+                touchWithFileName(new File(d, "f" + k));
+            }
+        }
+        touchWithFileName(new File(dir, "d0/protected"));
+
+        AtomicBoolean refused = new AtomicBoolean();
+        AtomicInteger checkedAfterRefusal = new AtomicInteger();
+        PathRemover remover = PathRemover.newFilteredRobustRemover(path -> {
+            if (refused.get()) {
+                checkedAfterRefusal.incrementAndGet();
+            }
+            if (path.getFileName().toString().equals("protected")) {
+                refused.set(true);
+                throw new SecurityException("not allowed to delete " + path);
+            }
+        }, 0, false, 0, 4);
+        assertThrows(SecurityException.class, () -> remover.forceRemoveRecursive(dir.toPath()));
+        int checked = checkedAfterRefusal.get();
+        Set<Path> remaining;
+        try (Stream<Path> paths = Files.walk(dir.toPath())) {
+            remaining = paths.collect(Collectors.toSet());
+        }
+        // nothing is removed after the caller was told about the refusal
+        Thread.sleep(200);
+        assertEquals(checked, checkedAfterRefusal.get());
+        try (Stream<Path> paths = Files.walk(dir.toPath())) {
+            assertEquals(remaining, paths.collect(Collectors.toSet()));
+        }
+        assertTrue(new File(dir, "d0/protected").exists());
+    }
+
     @Test
     @Issue("JENKINS-55448")
     public void testForceRemoveRecursive_ContainsDotPath() throws IOException {
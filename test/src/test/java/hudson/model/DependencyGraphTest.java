@@ -33,8 +33,10 @@ import hudson.security.ACL;
 import hudson.security.ACLContext;
 import hudson.tasks.BuildTrigger;
 import hudson.tasks.MailMessageIdAction;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import jenkins.model.DependencyDeclarer;
 import org.junit.Rule;
@@ -180,6 +182,78 @@ public class DependencyGraphTest {
 
     }
 
+    @Test
+    public void incrementalUpdateMatchesRebuild() throws Exception {
+        boolean incremental = DependencyGraph.INCREMENTAL;
+        DependencyGraph.INCREMENTAL = true;
+        try {
+            FreeStyleProject a = j.createFreeStyleProject("a");
+            FreeStyleProject b = j.createFreeStyleProject("b");
+            FreeStyleProject c = j.createFreeStyleProject("c");
+            FreeStyleProject d = j.createFreeStyleProject("d");
+            depends(a, b);
+            depends(b, c);
+            // let the rebuild scheduled by the creation of the projects complete, so that the next one is an update
+            j.jenkins.getFutureDependencyGraph().get();
+            j.jenkins.rebuildDependencyGraph();
+            DependencyGraph g = j.jenkins.getDependencyGraph();
+            assertEquals(Set.of(b, c), g.getTransitiveDownstream(a));
+            assertEquals(Set.of(a), g.getTransitiveUpstream(b));
+            Set<AbstractProject> downstream = g.getTransitiveDownstream(a);
+            assertTrue(downstream.contains(c));
+            downstream.add(d);
+            assertEquals("callers get their own copy", Set.of(b, c), g.getTransitiveDownstream(a));
+
+            depends(c, d);
+            g = j.jenkins.rebuildDependencyGraphAsync(c).get();
+            assertEquals(List.of(d), g.getDownstream(c));
+            assertEquals(Set.of(b, c, d), g.getTransitiveDownstream(a));
+            assertEquals(Set.of(a, b, c), g.getTransitiveUpstream(d));
+            assertEquals(Set.of(a), g.getTransitiveUpstream(b));
+
+            b.delete();
+            g = j.jenkins.getFutureDependencyGraph().get();
+            assertEquals(List.of(), g.getDownstream(a));
+            assertEquals(Set.of(), g.getTransitiveDownstream(a));
+            assertEquals(Set.of(c), g.getTransitiveUpstream(d));
+
+            DependencyGraph rebuilt = new DependencyGraph();
+            rebuilt.build();
+            for (FreeStyleProject p : List.of(a, c, d)) {
+                assertEquals(rebuilt.getDownstream(p), g.getDownstream(p));
+                assertEquals(rebuilt.getUpstream(p), g.getUpstream(p));
+            }
+        } finally {
+            DependencyGraph.INCREMENTAL = incremental;
+        }
+    }
+
+    @Test
+    public void parallelBuildMatchesSequential() throws Exception {
+        List<FreeStyleProject> projects = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            projects.add(j.createFreeStyleProject("p" + i));
+        }
+        for (int i = 0; i < 20; i++) {
+            depends(projects.get(i), projects.get((i + 1) % 20), projects.get((i * 7) % 20));
+        }
+        DependencyGraph sequential = new DependencyGraph();
+        sequential.build();
+        int parallelism = DependencyGraph.PARALLELISM;
+        DependencyGraph.PARALLELISM = 4;
+        try {
+            DependencyGraph parallel = new DependencyGraph();
+            parallel.build();
+            for (FreeStyleProject p : projects) {
+                assertEquals(sequential.getDownstream(p), parallel.getDownstream(p));
+                assertEquals(sequential.getUpstream(p), parallel.getUpstream(p));
+                assertEquals(sequential.getTransitiveDownstream(p), parallel.getTransitiveDownstream(p));
+            }
+        } finally {
+            DependencyGraph.PARALLELISM = parallelism;
+        }
+    }
+
     private void depends(FreeStyleProject a, FreeStyleProject... downstreams) {
         a.getPublishersList().add(new BuildTrigger(Arrays.asList(downstreams), Result.SUCCESS));
     }
@@ -19,6 +19,8 @@ import hudson.slaves.DumbSlave;
 import hudson.slaves.RetentionStrategy;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -180,6 +182,31 @@ public class LabelLoadStatisticsQueueLengthTest {
                 altLabelQueueLength > 0f);
     }
 
+    /**
+     * Verify that the snapshots computed for all labels at once match those computed label by label.
+     */
+    @Test
+    public void labelSnapshotsMatchPerLabelSnapshots() throws Exception {
+        FreeStyleProject project = createTestProject();
+        project.setAssignedLabel(Label.get(LABEL_STRING));
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(project.scheduleBuild2(0, CAUSE,
+                    new ParametersAction(new StringParameterValue(
+                            PARAMETER_NAME, String.valueOf(i)))));
+        }
+        maintainQueueAndForceRunOfLoadStatisticsUpdater(project);
+
+        List<Queue.BuildableItem> bis = j.getInstance().getQueue().getBuildableItems();
+        Map<Label, LoadStatistics.LoadStatisticsSnapshot> snapshots =
+                LoadStatisticsUpdater.computeLabelSnapshots(j.getInstance().getLabels(), bis);
+        assertEquals(j.getInstance().getLabels().size(), snapshots.size());
+        for (Map.Entry<Label, LoadStatistics.LoadStatisticsSnapshot> e : snapshots.entrySet()) {
+            assertEquals(e.getKey().getName(), e.getKey().loadStatistics.computeSnapshot(bis), e.getValue());
+        }
+        assertEquals(3, snapshots.get(Label.get(LABEL_STRING)).getQueueLength());
+        assertEquals(0, snapshots.get(Label.get(ALT_LABEL_STRING)).getQueueLength());
+    }
+
     private FreeStyleProject createTestProject() throws IOException {
         FreeStyleProject project = j.createFreeStyleProject(PROJECT_NAME);
         // In order to queue multiple builds of the job it needs to be
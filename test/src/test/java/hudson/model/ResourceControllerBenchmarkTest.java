@@ -0,0 +1,113 @@
+package hudson.model;
+
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares finding resource conflicts against the union of the resource lists in use,
+ * as {@link ResourceController} used to, with finding them in a {@link ResourceIndex},
+ * with thousands of activities in progress.
+ */
+public class ResourceControllerBenchmarkTest {
+    @Test
+    public void runBenchmark() throws Exception {
+        // run the minimum possible number of iterations
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .mode(Mode.AverageTime)
+                .forks(1)
+                .result("jmh-report.json")
+                .resultFormat(ResultFormatType.JSON)
+                .operationsPerInvocation(1)
+                .threads(1)
+                .warmupForks(0)
+                .warmupIterations(0)
+                .measurementBatchSize(1)
+                .measurementIterations(1)
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .shouldFailOnError(true)
+                .include(ResourceControllerBenchmarkTest.class.getName() + ".*");
+        new Runner(options.build()).run();
+        assertTrue(Files.exists(Paths.get("jmh-report.json")));
+    }
+
+    @State(Scope.Benchmark)
+    public static class StateImpl {
+        @Param({"100", "5000"})
+        int activities;
+
+        final List<ResourceList> inUse = new ArrayList<>();
+        final List<ResourceList> requests = new ArrayList<>();
+        final ResourceIndex index = new ResourceIndex();
+
+        @Setup
+        public void setup() {
+            Random entropy = new Random(0);
+            // a workspace and a lock of its own for each activity, and a few shared locks
+            Resource workspaces = new Resource("workspaces");
+            List<Resource> locks = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                locks.add(new Resource(null, "lock" + i, activities));
+            }
+            for (int i = 0; i < activities; i++) {
+                ResourceList list = new ResourceList()
+                        .w(new Resource(workspaces, "ws" + i))
+                        .w(new Resource("job" + i))
+                        .w(locks.get(entropy.nextInt(locks.size())));
+                inUse.add(list);
+                index.add(list);
+            }
+            for (int i = 0; i < 100; i++) {
+                int n = entropy.nextInt(2 * activities);
+                requests.add(new ResourceList()
+                        .w(new Resource(workspaces, "ws" + n))
+                        .w(new Resource("job" + n))
+                        .w(locks.get(entropy.nextInt(locks.size()))));
+            }
+        }
+    }
+
+    @Benchmark
+    public void conflictWithUnion(StateImpl state, Blackhole blackhole) {
+        ResourceList union = ResourceList.union(state.inUse);
+        for (ResourceList request : state.requests) {
+            blackhole.consume(union.isCollidingWith(request));
+        }
+    }
+
+    @Benchmark
+    public void conflictWithIndex(StateImpl state, Blackhole blackhole) {
+        for (ResourceList request : state.requests) {
+            blackhole.consume(state.index.getConflict(request));
+        }
+    }
+
+    @Benchmark
+    public void completeWithUnion(StateImpl state, Blackhole blackhole) {
+        // recomputing the union once an activity completes
+        blackhole.consume(ResourceList.union(state.inUse.subList(1, state.inUse.size())));
+    }
+
+    @Benchmark
+    public void completeWithIndex(StateImpl state) {
+        ResourceList list = state.inUse.get(0);
+        state.index.remove(state.index.add(list));
+    }
+}
@@ -30,6 +30,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import hudson.FilePath;
+import hudson.XmlFile;
 import hudson.remoting.VirtualChannel;
 import hudson.scm.NullSCM;
 import hudson.slaves.DumbSlave;
@@ -204,6 +205,50 @@ public class WorkspaceCleanupThreadTest {
         assertFalse("libs directory should be cleaned up as well", libsWs.exists());
     }
 
+    @Test
+    public void keepLeasedWorkspace() throws Exception {
+        FreeStyleProject p = r.createFreeStyleProject();
+        FilePath ws = createOldWorkspaceOn(r.jenkins, p);
+        createOldWorkspaceOn(r.createOnlineSlave(), p);
+
+        WorkspaceList.Lease lease = r.jenkins.toComputer().getWorkspaceList().acquire(ws);
+        try {
+            performCleanup();
+            assertTrue("a workspace in use is kept", ws.exists());
+        } finally {
+            lease.release();
+        }
+
+        performCleanup();
+        assertFalse(ws.exists());
+    }
+
+    @Test
+    public void resumeInterruptedCleanup() throws Exception {
+        FreeStyleProject p = r.createFreeStyleProject();
+        FilePath ws1 = createOldWorkspaceOn(r.jenkins, p);
+        DumbSlave s1 = r.createOnlineSlave();
+        FilePath ws2 = createOldWorkspaceOn(s1, p);
+        createOldWorkspaceOn(r.createOnlineSlave(), p);
+
+        // pretend a previous run processed the built-in node before Jenkins was restarted
+        XmlFile progressFile = new XmlFile(Jenkins.XSTREAM2, new File(r.jenkins.getRootDir(), WorkspaceCleanupThread.class.getName() + ".progress.xml"));
+        WorkspaceCleanupThread.Progress progress = new WorkspaceCleanupThread.Progress();
+        progress.started = System.currentTimeMillis();
+        progress.completedNodes.add(r.jenkins.getNodeName());
+        progressFile.write(progress);
+
+        performCleanup();
+
+        assertTrue(ws1.exists()); // skipped - already processed
+        assertFalse(ws2.exists());
+        assertFalse("progress is discarded once the clean-up completes", progressFile.exists());
+
+        performCleanup();
+
+        assertFalse(ws1.exists());
+    }
+
     private FilePath createOldWorkspaceOn(Node slave, FreeStyleProject p) throws Exception {
         p.setAssignedNode(slave);
         FreeStyleBuild b1 = r.buildAndAssertSuccess(p);
@@ -0,0 +1,43 @@
+package hudson.model.queue;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import hudson.model.FreeStyleProject;
+import java.util.List;
+import net.sf.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+public class StartLatencyTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void recordsPhasesOfBuilds() throws Exception {
+        FreeStyleProject p = j.createFreeStyleProject();
+        j.buildAndAssertSuccess(p);
+        j.buildAndAssertSuccess(p);
+
+        List<StartLatency.Histograms> labels = j.jenkins.getQueue().getStartLatency().getLabels();
+        assertThat(labels, hasSize(1));
+        StartLatency.Histograms h = labels.get(0);
+        assertThat(h.getLabel(), is(""));
+        for (StartLatency.Phase phase : StartLatency.Phase.values()) {
+            StartLatency.Histogram histogram = h.getPhase(phase);
+            assertThat(phase.toString(), histogram.getCount(), is(2L));
+            long inBuckets = 0;
+            for (long count : histogram.getBuckets()) {
+                inBuckets += count;
+            }
+            assertThat(phase.toString(), inBuckets, is(2L));
+        }
+
+        JSONObject json = j.getJSON("queue/startLatency/api/json?depth=2").getJSONObject();
+        assertThat(json.getJSONArray("labels").size(), is(1));
+        assertThat(json.getJSONArray("bucketBounds").isEmpty(), is(false));
+    }
+}
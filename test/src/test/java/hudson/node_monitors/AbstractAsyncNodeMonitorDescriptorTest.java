@@ -0,0 +1,183 @@
+package hudson.node_monitors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import hudson.ExtensionList;
+import hudson.model.Computer;
+import hudson.model.ComputerSet;
+import hudson.remoting.Callable;
+import hudson.remoting.Channel;
+import hudson.remoting.Request;
+import hudson.remoting.Response;
+import hudson.slaves.ComputerListener;
+import hudson.slaves.DumbSlave;
+import hudson.slaves.SlaveComputer;
+import hudson.util.DescribableList;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import jenkins.security.MasterToSlaveCallable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+public class AbstractAsyncNodeMonitorDescriptorTest {
+
+    private static final List<Class<? extends NodeMonitor>> MONITORS = List.of(ArchitectureMonitor.class, ClockMonitor.class, DiskSpaceMonitor.class, TemporarySpaceMonitor.class, ResponseTimeMonitor.class);
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Test
+    public void combinedAndStaggeredProbes() throws Exception {
+        DumbSlave s = j.createOnlineSlave();
+        SlaveComputer c = s.getComputer();
+        DescribableList<NodeMonitor, ?> monitors = ComputerSet.getMonitors();
+        // let the round triggered by the agent coming online complete, so that it does not send probes of its own
+        while (!MONITORS.stream().allMatch(type -> monitors.get(type).data(c) != null)) {
+            Thread.sleep(100);
+        }
+
+        boolean oldCombine = AbstractAsyncNodeMonitorDescriptor.COMBINE_PROBES;
+        int oldStagger = AbstractAsyncNodeMonitorDescriptor.STAGGER_SECONDS;
+        AbstractAsyncNodeMonitorDescriptor.COMBINE_PROBES = true;
+        AbstractAsyncNodeMonitorDescriptor.STAGGER_SECONDS = 1;
+        try {
+            // when each batch of probes was sent to the agent
+            List<Long> batches = new CopyOnWriteArrayList<>();
+            Channel ch = c.getChannel();
+            ch.addListener(new Channel.Listener() {
+                @Override
+                public void onResponse(Channel channel, Request<?, ?> req, Response<?, ?> rsp, long totalTime) {
+                    if (req.toString().contains(CombinedProbes.class.getName() + "$Probes@")) {
+                        batches.add(System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(totalTime));
+                    }
+                }
+            });
+
+            long start = System.currentTimeMillis();
+            // trigger all monitors together so that their probes end up in the same batch
+            Thread[] threads = new Thread[monitors.size()];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = monitors.get(i).triggerUpdate();
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+            for (Class<? extends NodeMonitor> type : MONITORS) {
+                NodeMonitor m = monitors.get(type);
+                assertNotNull(type.getName(), m.data(c));
+            }
+
+            assertThat("the probes of all monitors are sent to the agent in one remote call", batches, hasSize(1));
+            long slot = AbstractAsyncNodeMonitorDescriptor.slot(c, 1000);
+            assertThat(slot, greaterThanOrEqualTo(0L));
+            assertThat(slot, lessThan(1000L));
+            assertThat("probes wait for the slot of the agent, then for other probes to join them",
+                    batches, contains(greaterThanOrEqualTo(start + slot + CombinedProbes.LINGER_MILLIS)));
+        } finally {
+            AbstractAsyncNodeMonitorDescriptor.COMBINE_PROBES = oldCombine;
+            AbstractAsyncNodeMonitorDescriptor.STAGGER_SECONDS = oldStagger;
+        }
+    }
+
+    @Test
+    public void adaptiveSkipping() throws Exception {
+        // only the rounds triggered by the test
+        ExtensionList.lookup(ComputerListener.class).remove(ExtensionList.lookupSingleton(NodeMonitorUpdater.class));
+        int oldMaxSkipped = AbstractAsyncNodeMonitorDescriptor.MAX_SKIPPED_ROUNDS;
+        AbstractAsyncNodeMonitorDescriptor.MAX_SKIPPED_ROUNDS = 2;
+        try {
+            DumbSlave s = j.createOnlineSlave();
+            SlaveComputer c = s.getComputer();
+            StableMonitor.DescriptorImpl d = ExtensionList.lookupSingleton(StableMonitor.DescriptorImpl.class);
+            StableMonitor.value = 1;
+
+            round(d, c, 1, 1);
+            // unchanged, so skipped once
+            round(d, c, 2, 1);
+            round(d, c, 2, 1);
+            // then twice, which is the cap
+            round(d, c, 3, 1);
+            round(d, c, 3, 1);
+            round(d, c, 3, 1);
+            round(d, c, 4, 1);
+            round(d, c, 4, 1);
+            round(d, c, 4, 1);
+
+            // changed, so probed again right away
+            StableMonitor.value = 2;
+            round(d, c, 5, 2);
+            round(d, c, 6, 2);
+            StableMonitor.value = 3;
+            // the previous value is reported while skipped
+            round(d, c, 6, 2);
+            round(d, c, 7, 3);
+            round(d, c, 8, 3);
+
+            // a skip was due, but the agent has reconnected
+            c.disconnect(null).get();
+            c.connect(false).get();
+            j.waitOnline(s);
+            round(d, c, 9, 3);
+            round(d, c, 9, 3);
+        } finally {
+            AbstractAsyncNodeMonitorDescriptor.MAX_SKIPPED_ROUNDS = oldMaxSkipped;
+        }
+    }
+
+    /**
+     * Runs a round of monitoring.
+     *
+     * @param probes the number of probes expected to have been sent to the agent so far
+     * @param value the value expected to be reported for the agent
+     */
+    private static void round(StableMonitor.DescriptorImpl d, SlaveComputer c, int probes, int value) throws InterruptedException {
+        d.triggerUpdate().join();
+        assertEquals("probes", probes, StableMonitor.probes.get());
+        assertEquals("value", Integer.valueOf(value), d.getLastValue(c));
+    }
+
+    public static final class StableMonitor extends NodeMonitor {
+        /** The value returned by the next probes. */
+        static volatile int value;
+        /** Number of probes sent to agents. */
+        static final AtomicInteger probes = new AtomicInteger();
+
+        @TestExtension("adaptiveSkipping")
+        public static final class DescriptorImpl extends AbstractAsyncNodeMonitorDescriptor<Integer> {
+            @Override
+            protected Callable<Integer, IOException> createCallable(Computer c) {
+                if (!(c instanceof SlaveComputer)) {
+                    return null;
+                }
+                probes.incrementAndGet();
+                return new Probe(value);
+            }
+        }
+
+        private static final class Probe extends MasterToSlaveCallable<Integer, IOException> {
+            private final int value;
+
+            Probe(int value) {
+                this.value = value;
+            }
+
+            @Override
+            public Integer call() {
+                return value;
+            }
+
+            private static final long serialVersionUID = 1L;
+        }
+    }
+}
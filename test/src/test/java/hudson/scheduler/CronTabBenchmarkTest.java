@@ -0,0 +1,134 @@
+package hudson.scheduler;
+
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares checking cron tabs and computing their next run with {@link Calendar}
+ * against doing so with {@link CronMinute} and the bit masks.
+ */
+public class CronTabBenchmarkTest {
+    @Test
+    public void runBenchmark() throws Exception {
+        // run the minimum possible number of iterations
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .mode(Mode.AverageTime)
+                .forks(1)
+                .result("jmh-report.json")
+                .resultFormat(ResultFormatType.JSON)
+                .operationsPerInvocation(1)
+                .threads(1)
+                .warmupForks(0)
+                .warmupIterations(0)
+                .measurementBatchSize(1)
+                .measurementIterations(1)
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .shouldFailOnError(true)
+                .include(CronTabBenchmarkTest.class.getName() + ".*");
+        new Runner(options.build()).run();
+        assertTrue(Files.exists(Paths.get("jmh-report.json")));
+    }
+
+    private static final String[] SPECS = {
+        "H/15 * * * *",
+        "H H * * *",
+        "H H(0-7) * * 1-5",
+        "0 9 * * 1-5",
+        "TZ=Asia/Tokyo\nH 2 * * *",
+        "TZ=America/New_York\nH/30 8-18 * * 1-5\nH 0 1 * *",
+        "0 0 13 * 5",
+    };
+
+    @State(Scope.Benchmark)
+    public static class StateImpl {
+        final List<CronTabList> lists = new ArrayList<>();
+        final List<CronTab> tabs = new ArrayList<>();
+        final Calendar cal = new GregorianCalendar(Locale.US);
+
+        @Setup
+        public void setup() {
+            // as many triggers as a large instance would have, with distinct hashes
+            for (int i = 0; i < 1000; i++) {
+                String spec = SPECS[i % SPECS.length];
+                Hash hash = Hash.from("job" + i);
+                lists.add(CronTabList.create(spec, hash));
+                String timezone = null;
+                for (String line : spec.split("\n")) {
+                    if (line.startsWith("TZ=")) {
+                        timezone = line.substring(3);
+                    } else {
+                        tabs.add(new CronTab(line, 1, hash, timezone));
+                    }
+                }
+            }
+            cal.set(2024, Calendar.MARCH, 8, 9, 30, 0);
+            cal.set(Calendar.MILLISECOND, 0);
+        }
+    }
+
+    @Benchmark
+    public void checkCalendar(StateImpl state, Blackhole blackhole) {
+        for (CronTabList tabs : state.lists) {
+            blackhole.consume(tabs.check(state.cal));
+        }
+    }
+
+    @Benchmark
+    public void checkCronMinute(StateImpl state, Blackhole blackhole) {
+        CronMinute minute = new CronMinute(state.cal);
+        for (CronTabList tabs : state.lists) {
+            blackhole.consume(tabs.check(minute));
+        }
+    }
+
+    @Benchmark
+    public void ceilCalendar(StateImpl state, Blackhole blackhole) {
+        for (CronTab tab : state.tabs) {
+            Calendar cal = tab.getTimeZone() == null ? new GregorianCalendar(Locale.US) : new GregorianCalendar(tab.getTimeZone(), Locale.US);
+            cal.setTimeInMillis(state.cal.getTimeInMillis());
+            blackhole.consume(tab.ceil(cal));
+        }
+    }
+
+    @Benchmark
+    public void ceilBitMasks(StateImpl state, Blackhole blackhole) {
+        for (CronTabList tabs : state.lists) {
+            blackhole.consume(tabs.ceil(state.cal.getTimeInMillis()));
+        }
+    }
+
+    @Benchmark
+    public void floorCalendar(StateImpl state, Blackhole blackhole) {
+        for (CronTab tab : state.tabs) {
+            Calendar cal = tab.getTimeZone() == null ? new GregorianCalendar(Locale.US) : new GregorianCalendar(tab.getTimeZone(), Locale.US);
+            cal.setTimeInMillis(state.cal.getTimeInMillis());
+            blackhole.consume(tab.floor(cal));
+        }
+    }
+
+    @Benchmark
+    public void floorBitMasks(StateImpl state, Blackhole blackhole) {
+        for (CronTabList tabs : state.lists) {
+            blackhole.consume(tabs.floor(state.cal.getTimeInMillis()));
+        }
+    }
+}
@@ -45,17 +45,21 @@ import hudson.model.AbstractProject;
 import hudson.model.BuildListener;
 import hudson.model.Fingerprint;
 import hudson.model.FingerprintCleanupThread;
+import hudson.model.FingerprintCleanupThreadTest;
 import hudson.model.FreeStyleBuild;
 import hudson.model.FreeStyleProject;
 import hudson.model.Result;
 import hudson.util.RunList;
 import hudson.util.StreamTaskListener;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import jenkins.fingerprints.GlobalFingerprintConfiguration;
 import jenkins.model.Jenkins;
 import org.junit.BeforeClass;
 import org.junit.Rule;
@@ -380,6 +384,42 @@ public class FingerprinterTest {
     }
 
 
+    @Test
+    public void fingerprintsSavedInOneBatchPerBuild() throws Exception {
+        BatchRecordingFingerprintStorage storage = new BatchRecordingFingerprintStorage();
+        GlobalFingerprintConfiguration.get().setStorage(storage);
+        // identical files share a fingerprint
+        FreeStyleProject p = createFreeStyleProjectWithFingerprints(
+                new String[] {doubleContents[0], doubleContents[1], doubleContents[0]}, new String[] {"a.txt", "b.txt", "c.txt"});
+
+        j.buildAndAssertSuccess(p);
+        j.buildAndAssertSuccess(p);
+
+        String a = Util.getDigestOf(doubleContents[0] + System.lineSeparator());
+        String b = Util.getDigestOf(doubleContents[1] + System.lineSeparator());
+        assertThat(storage.batches, hasSize(2));
+        for (List<String> batch : storage.batches) {
+            assertThat(batch, containsInAnyOrder(a, b));
+        }
+        Fingerprint.RangeSet usages = j.jenkins._getFingerprint(a).getRangeSet(p);
+        assertTrue(usages.includes(1));
+        assertTrue(usages.includes(2));
+    }
+
+    private static final class BatchRecordingFingerprintStorage extends FingerprintCleanupThreadTest.TestExternalFingerprintStorage {
+        final List<List<String>> batches = new ArrayList<>();
+
+        @Override
+        public void save(Collection<Fingerprint> fps) throws IOException {
+            List<String> batch = new ArrayList<>();
+            for (Fingerprint fp : fps) {
+                batch.add(fp.getHashString());
+            }
+            batches.add(batch);
+            super.save(fps);
+        }
+    }
+
     private FreeStyleProject createFreeStyleProjectWithFingerprints(String[] contents, String[] files) throws Exception {
         FreeStyleProject project = j.createFreeStyleProject();
 
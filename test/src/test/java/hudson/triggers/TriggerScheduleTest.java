@@ -0,0 +1,186 @@
+package hudson.triggers;
+
+import static org.junit.Assert.assertEquals;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.scheduler.CronTabList;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.MockFolder;
+import org.jvnet.hudson.test.TestExtension;
+
+public class TriggerScheduleTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    /** Triggers run by {@link TriggerSchedule#check} or {@link Trigger#checkTriggers} from the test thread. */
+    private static final List<String> fired = Collections.synchronizedList(new ArrayList<>());
+    private static volatile Thread testThread;
+
+    private boolean cronIndex;
+    private int resyncMinutes;
+    /** A minute in the future, so that the real cron thread never runs the triggers nor reschedules them past it. */
+    private Calendar cal;
+
+    @Before
+    public void setUp() {
+        cronIndex = Trigger.CRON_INDEX;
+        resyncMinutes = TriggerSchedule.RESYNC_MINUTES;
+        Trigger.CRON_INDEX = true;
+        testThread = Thread.currentThread();
+        cal = new GregorianCalendar(new GregorianCalendar().get(Calendar.YEAR) + 2, Calendar.JANUARY, 1, 3, 0);
+    }
+
+    @After
+    public void tearDown() {
+        Trigger.CRON_INDEX = cronIndex;
+        TriggerSchedule.RESYNC_MINUTES = resyncMinutes;
+        testThread = null;
+    }
+
+    @Test
+    public void firesLikeCheckTriggers() throws Exception {
+        FreeStyleProject a = j.createFreeStyleProject("a");
+        a.addTrigger(new RecordingTrigger("*/2 3 1 1 *"));
+        FreeStyleProject b = j.createFreeStyleProject("b");
+        b.addTrigger(new RecordingTrigger("*/5 3 1 1 *"));
+        MockFolder f = j.createFolder("f");
+        FreeStyleProject d = f.createProject(FreeStyleProject.class, "d");
+        d.addTrigger(new RecordingTrigger("* 3 1 1 *"));
+
+        // 03:00
+        assertEquals(List.of("a", "b", "f/d"), tick());
+        assertEquals(List.of("f/d"), tick());
+        assertEquals(List.of("a", "f/d"), tick());
+        tick();
+        tick();
+        assertEquals(List.of("b", "f/d"), tick());
+
+        // 03:06, reconfigured
+        replaceTrigger(a, "*/3 3 1 1 *");
+        assertEquals(List.of("a", "f/d"), tick());
+        assertEquals(List.of("f/d"), tick());
+        assertEquals("no longer on the previous schedule", List.of("f/d"), tick());
+
+        // 03:09, renamed then reconfigured, which would run it twice if the entries of its previous name were kept
+        b.renameTo("c");
+        replaceTrigger(b, "*/5 3 1 1 *");
+        assertEquals(List.of("f/d"), tick());
+        assertEquals(List.of("c", "f/d"), tick());
+
+        // 03:11, deleted, including a folder
+        a.delete();
+        f.delete();
+        assertEquals(List.of(), tick());
+        assertEquals(List.of(), tick());
+    }
+
+    private void replaceTrigger(FreeStyleProject p, String spec) throws Exception {
+        p.removeTrigger(j.jenkins.getDescriptorByType(RecordingTrigger.DescriptorImpl.class));
+        p.addTrigger(new RecordingTrigger(spec));
+    }
+
+    @Test
+    public void resyncsTriggersChangedWithoutSaving() throws Exception {
+        TriggerSchedule.RESYNC_MINUTES = 1;
+        FreeStyleProject a = j.createFreeStyleProject("a");
+        RecordingTrigger t = new RecordingTrigger("0 3 1 1 *");
+        a.addTrigger(t);
+        assertEquals(List.of("a"), tick());
+        t.respec("*/2 3 1 1 *");
+        assertEquals(List.of(), tick());
+        assertEquals(List.of("a"), tick());
+    }
+
+    @Test
+    public void skipsSynchronouslyPolledTriggers() throws Exception {
+        SCMTrigger.DescriptorImpl scmd = j.jenkins.getDescriptorByType(SCMTrigger.DescriptorImpl.class);
+        FreeStyleProject a = j.createFreeStyleProject("a");
+        a.addTrigger(new RecordingSCMTrigger("* 3 1 1 *"));
+        assertEquals(List.of("a (scm)"), tick());
+        scmd.synchronousPolling = true;
+        try {
+            // run by checkSynchronousPolling on its own threads instead
+            assertEquals(List.of(), tick());
+        } finally {
+            scmd.synchronousPolling = false;
+        }
+        assertEquals(List.of("a (scm)"), tick());
+    }
+
+    /**
+     * Checks the current minute with the index, then by scanning all the items, and moves on to the next minute.
+     *
+     * @return the triggers which fired
+     */
+    private List<String> tick() {
+        List<String> indexed = fire(() -> TriggerSchedule.get().check(cal));
+        List<String> scanned = fire(() -> Trigger.checkTriggers(cal));
+        assertEquals("at " + cal.getTime(), scanned, indexed);
+        cal.add(Calendar.MINUTE, 1);
+        return indexed;
+    }
+
+    private static List<String> fire(Runnable check) {
+        fired.clear();
+        check.run();
+        List<String> result = new ArrayList<>(fired);
+        Collections.sort(result);
+        return result;
+    }
+
+    public static final class RecordingTrigger extends Trigger<Item> {
+        RecordingTrigger(String spec) {
+            super(spec);
+        }
+
+        /**
+         * Changes the schedule without saving the item.
+         */
+        void respec(String spec) {
+            tabs = CronTabList.create(spec);
+        }
+
+        @Override
+        public void run() {
+            if (Thread.currentThread() == testThread) {
+                fired.add(job.getFullName());
+            }
+        }
+
+        @TestExtension
+        public static final class DescriptorImpl extends TriggerDescriptor {
+            @Override
+            public boolean isApplicable(Item item) {
+                return true;
+            }
+        }
+    }
+
+    public static final class RecordingSCMTrigger extends SCMTrigger {
+        RecordingSCMTrigger(String spec) {
+            super(spec);
+        }
+
+        @Override
+        public void run() {
+            if (Thread.currentThread() == testThread) {
+                fired.add(job.getFullName() + " (scm)");
+            }
+        }
+
+        @TestExtension("skipsSynchronouslyPolledTriggers")
+        public static final class DescriptorImpl extends SCMTrigger.DescriptorImpl {
+        }
+    }
+}
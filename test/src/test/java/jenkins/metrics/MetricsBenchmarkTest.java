@@ -0,0 +1,103 @@
+package jenkins.metrics;
+
+import static org.junit.Assert.assertTrue;
+
+import hudson.XmlFile;
+import hudson.util.XStream2;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the cost of recording a duration in a {@link Histogram}, alone and from many threads at once,
+ * next to one of the operations it is recorded for, writing a small {@link XmlFile},
+ * so that the overhead of the instrumentation can be compared with the work it measures.
+ */
+public class MetricsBenchmarkTest {
+    @Test
+    public void runBenchmark() throws Exception {
+        // run the minimum possible number of iterations
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .mode(Mode.AverageTime)
+                .forks(1)
+                .result("jmh-report.json")
+                .resultFormat(ResultFormatType.JSON)
+                .operationsPerInvocation(1)
+                .warmupForks(0)
+                .warmupIterations(0)
+                .measurementBatchSize(1)
+                .measurementIterations(1)
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .shouldFailOnError(true)
+                .include(MetricsBenchmarkTest.class.getName() + ".*");
+        new Runner(options.build()).run();
+        assertTrue(Files.exists(Paths.get("jmh-report.json")));
+    }
+
+    @State(Scope.Benchmark)
+    public static class StateImpl {
+        final Histogram histogram = MetricsRegistry.get().histogram("jenkins_benchmark_seconds", "Benchmark");
+        final Counter counter = MetricsRegistry.get().counter("jenkins_benchmark_total", "Benchmark");
+        final List<String> config = new ArrayList<>();
+        File dir;
+        XmlFile file;
+
+        @Setup
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("metrics").toFile();
+            file = new XmlFile(new XStream2(), new File(dir, "config.xml"));
+            for (int i = 0; i < 20; i++) {
+                config.add("value" + i);
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file.getFile().toPath());
+            Files.deleteIfExists(dir.toPath());
+        }
+    }
+
+    @Benchmark
+    public void observe(StateImpl state) {
+        long start = System.nanoTime();
+        state.histogram.observeNanos(System.nanoTime() - start);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void observeContended(StateImpl state) {
+        long start = System.nanoTime();
+        state.histogram.observeNanos(System.nanoTime() - start);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void incrementContended(StateImpl state) {
+        state.counter.inc();
+    }
+
+    /**
+     * Includes an observation of {@code jenkins_xml_file_write_seconds}.
+     */
+    @Benchmark
+    public void writeXmlFile(StateImpl state) throws IOException {
+        state.file.write(state.config);
+    }
+}
@@ -0,0 +1,79 @@
+package jenkins.model;
+
+import static org.junit.Assert.assertTrue;
+
+import hudson.model.Node;
+import hudson.slaves.DumbSlave;
+import hudson.slaves.JNLPLauncher;
+import hudson.slaves.RetentionStrategy;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import jenkins.benchmark.jmh.JmhBenchmarkState;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the cost of reconciling computers after a single node change with many agents defined.
+ */
+public class NodesBenchmarkTest {
+    @Test
+    public void runBenchmark() throws Exception {
+        // run the minimum possible number of iterations
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .mode(Mode.AverageTime)
+                .forks(1)
+                .result("jmh-report.json")
+                .resultFormat(ResultFormatType.JSON)
+                .operationsPerInvocation(1)
+                .threads(1)
+                .warmupForks(0)
+                .warmupIterations(0)
+                .measurementBatchSize(1)
+                .measurementIterations(1)
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .shouldFailOnError(true)
+                .include(NodesBenchmarkTest.class.getName() + ".*");
+        new Runner(options.build()).run();
+        assertTrue(Files.exists(Paths.get("jmh-report.json")));
+    }
+
+    @JmhBenchmark
+    public static class ComputerReconciliationBenchmark {
+        public static class StateImpl extends JmhBenchmarkState {
+            static final int NODES = 5000;
+
+            DumbSlave changed;
+
+            @Override
+            public void setup() throws Exception {
+                List<Node> nodes = new ArrayList<>(NODES);
+                for (int i = 0; i < NODES; i++) {
+                    DumbSlave agent = new DumbSlave("agent" + i, "/tmp/agent" + i, new JNLPLauncher());
+                    agent.setRetentionStrategy(RetentionStrategy.NOOP);
+                    nodes.add(agent);
+                }
+                getJenkins().setNodes(nodes);
+                changed = (DumbSlave) getJenkins().getNode("agent0");
+            }
+        }
+
+        @Benchmark
+        public void fullUpdate(StateImpl state) {
+            state.getJenkins().updateComputerList();
+        }
+
+        @Benchmark
+        public void incrementalUpdate(StateImpl state) {
+            state.getJenkins().updateComputers(List.of(state.changed), List.of());
+        }
+    }
+}
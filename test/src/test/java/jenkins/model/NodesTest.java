@@ -144,6 +144,32 @@ public class NodesTest {
         assertNotNull(r.jenkins.getNode("foo"));
     }
 
+    @Test
+    public void removeNodeShouldRemoveComputer() throws Exception {
+        Node node = r.createSlave("foo", "", null);
+        r.createSlave("bar", "", null);
+        assertNotNull(r.jenkins.getComputer("foo"));
+        r.jenkins.removeNode(node);
+        awaitComputerRemoval("foo");
+        assertNotNull(r.jenkins.getComputer("bar"));
+    }
+
+    @Test
+    public void replaceNodeShouldRemoveOldComputer() throws Exception {
+        Node oldNode = r.createSlave("foo", "", null);
+        Node newNode = r.createSlave("foo-new", "", null);
+        r.jenkins.getNodesObject().replaceNode(oldNode, newNode);
+        awaitComputerRemoval("foo");
+        assertNotNull(r.jenkins.getComputer("foo-new"));
+    }
+
+    private void awaitComputerRemoval(String name) throws InterruptedException {
+        // the computer is removed once its executors have stopped
+        while (r.jenkins.getComputer(name) != null) {
+            Thread.sleep(100);
+        }
+    }
+
     private static class InvalidNode extends Slave {
         // JEP-200 whitelist changes prevent this field (and thus instances of this class) from being serialized.
         private ClassLoader cl = InvalidNode.class.getClassLoader();
@@ -0,0 +1,100 @@
+package jenkins.util.io;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares sequential and parallel deletion of large directory trees.
+ * <p>
+ * The default tree is kept small so that the test runs quickly; to measure a realistic
+ * workspace, run with e.g. {@code -DPathRemoverBenchmarkTest.files=1000000}.
+ */
+public class PathRemoverBenchmarkTest {
+    @Test
+    public void runBenchmark() throws Exception {
+        // run the minimum possible number of iterations
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .mode(Mode.SingleShotTime)
+                .forks(1)
+                .result("jmh-report.json")
+                .resultFormat(ResultFormatType.JSON)
+                .operationsPerInvocation(1)
+                .threads(1)
+                .warmupForks(0)
+                .warmupIterations(0)
+                .measurementBatchSize(1)
+                .measurementIterations(1)
+                .timeUnit(TimeUnit.MILLISECONDS)
+                .shouldFailOnError(true)
+                .param("files", System.getProperty(PathRemoverBenchmarkTest.class.getSimpleName() + ".files", "10000"))
+                .include(PathRemoverBenchmarkTest.class.getName() + ".*");
+        new Runner(options.build()).run();
+        assertTrue(Files.exists(Paths.get("jmh-report.json")));
+    }
+
+    @State(Scope.Thread)
+    public static class TreeState {
+        /** Total number of files in the tree. */
+        @Param({"10000"})
+        public int files;
+
+        /** Number of threads used to delete the tree. */
+        @Param({"1", "4", "16"})
+        public int parallelism;
+
+        Path root;
+
+        /**
+         * Creates a tree with 100 files per directory, 10 subdirectories per directory.
+         */
+        @Setup(Level.Invocation)
+        public void createTree() throws IOException {
+            root = Files.createTempDirectory("PathRemoverBenchmark");
+            int remaining = files;
+            int dirIndex = 0;
+            while (remaining > 0) {
+                Path dir = root;
+                for (int i = dirIndex; i > 0; i /= 10) {
+                    dir = dir.resolve("d" + i % 10);
+                }
+                Files.createDirectories(dir);
+                for (int f = 0; f < 100 && remaining > 0; f++, remaining--) {
+                    Files.createFile(dir.resolve("f" + f));
+                }
+                dirIndex++;
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void checkDeleted() throws IOException {
+            if (Files.exists(root)) {
+                PathRemover.newSimpleRemover().forceRemoveRecursive(root);
+                throw new IllegalStateException(root + " was not deleted");
+            }
+        }
+    }
+
+    @Benchmark
+    public void forceRemoveRecursive(TreeState state) throws IOException {
+        PathRemover.newFilteredRobustRemover(PathRemover.PathChecker.ALLOW_ALL, 0, false, 0, state.parallelism)
+                .forceRemoveRecursive(state.root);
+    }
+}